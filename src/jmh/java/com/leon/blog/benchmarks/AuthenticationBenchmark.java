@@ -0,0 +1,85 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.security.BlogUserDetails;
+import com.leon.blog.security.JwtKeyRing;
+import com.leon.blog.security.VerifiedTokenCache;
+import com.leon.blog.security.VerifiedTokenCache.VerifiedToken;
+import com.leon.blog.services.impl.AuthenticationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Token issue and validation through {@link AuthenticationServiceImpl}. Validation is measured both on a cache hit,
+ * the common case for a client reusing its token, and with the cache bypassed so every call verifies the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String SECRET = "your-256-bit-secret-key-here-make-it-at-least-32-bytes-long";
+
+    private AuthenticationServiceImpl cachingService;
+    private AuthenticationServiceImpl verifyingService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing jwtKeyRing = new JwtKeyRing("default", SECRET, Map.of());
+        cachingService = service(jwtKeyRing, new VerifiedTokenCache(10_000));
+        verifyingService = service(jwtKeyRing, new VerifiedTokenCache(1) {
+            @Override
+            public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+                return verifier.apply(token);
+            }
+        });
+        userDetails = new BlogUserDetails(User.builder()
+                .id(UUID.randomUUID())
+                .email("bench@test.com")
+                .name("Bench")
+                .password("password")
+                .build());
+        token = cachingService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public UserDetails validateCachedToken() {
+        return cachingService.validateToken(token);
+    }
+
+    @Benchmark
+    public UserDetails validateUncachedToken() {
+        return verifyingService.validateToken(token);
+    }
+
+    private static AuthenticationServiceImpl service(JwtKeyRing jwtKeyRing, VerifiedTokenCache verifiedTokenCache) {
+        AuthenticationServiceImpl service = new AuthenticationServiceImpl(null, null, verifiedTokenCache, jwtKeyRing);
+        ReflectionTestUtils.setField(service, "jwtExpiryMs", TimeUnit.HOURS.toMillis(1));
+        return service;
+    }
+}
@@ -0,0 +1,73 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.entities.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detached posts with author, category and tags populated, shaped like the entities the listing queries return.
+ */
+final class BenchmarkPosts {
+
+    private static final String[] VOCABULARY = {
+            "spring", "boot", "java", "cache", "index", "query", "database", "thread", "stream", "record",
+            "latency", "memory", "heap", "garbage", "collector", "vector", "search", "token", "filter", "batch"
+    };
+
+    private BenchmarkPosts() {
+    }
+
+    static Post post(Random random, int tagCount, int contentWords) {
+        User author = User.builder()
+                .id(UUID.randomUUID())
+                .email("bench@test.com")
+                .name("Bench")
+                .password("password")
+                .build();
+        Category category = Category.builder()
+                .id(UUID.randomUUID())
+                .name(words(random, 1))
+                .publishedPostCount(random.nextInt(500))
+                .build();
+        Set<Tag> tags = new HashSet<>();
+        for(int i = 0; i < tagCount; i++) {
+            tags.add(Tag.builder()
+                    .id(UUID.randomUUID())
+                    .name(words(random, 1) + "-" + i)
+                    .publishedPostCount(random.nextInt(500))
+                    .build());
+        }
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(random.nextInt(365));
+        return Post.builder()
+                .id(UUID.randomUUID())
+                .title(words(random, 6))
+                .content(words(random, contentWords))
+                .status(PostStatus.PUBLISHED)
+                .readingTime(Math.max(1, contentWords / 200))
+                .author(author)
+                .category(category)
+                .tags(tags)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+}
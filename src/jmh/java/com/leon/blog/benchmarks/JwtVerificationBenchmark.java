@@ -0,0 +1,88 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.security.JwtKeyRing;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification: deriving the key and building a parser on every call versus the shared key ring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "your-256-bit-secret-key-here-make-it-at-least-32-bytes-long";
+
+    private JwtKeyRing jwtKeyRing;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtKeyRing = new JwtKeyRing("default", SECRET, Map.of());
+        token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "default")
+                .setSubject("user@test.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(jwtKeyRing.getSigningKey().key(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String verifyWithFreshKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String verifyWithKeyRing() {
+        return jwtKeyRing.getParser()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String signWithFreshKey() {
+        return Jwts.builder()
+                .setSubject("user@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String signWithKeyRing() {
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.id())
+                .setSubject("user@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,69 @@
+package com.leon.blog.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.mappers.CategoryMapperImpl;
+import com.leon.blog.mappers.PostMapper;
+import com.leon.blog.mappers.PostMapperImpl;
+import com.leon.blog.mappers.TagMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a page of posts the way the listing endpoints do, with an ObjectMapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private List<PostDto> posts;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(new TypeReference<List<PostDto>>() {
+        });
+
+        Random random = new Random(42);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                PostMapperImpl.class, CategoryMapperImpl.class, TagMapperImpl.class)) {
+            PostMapper postMapper = context.getBean(PostMapper.class);
+            posts = new ArrayList<>(pageSize);
+            for(int i = 0; i < pageSize; i++) {
+                posts.add(postMapper.toDto(BenchmarkPosts.post(random, 5, 800)));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePostList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(posts);
+    }
+}
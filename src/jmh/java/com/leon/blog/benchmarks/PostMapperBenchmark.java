@@ -0,0 +1,83 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.domain.dtos.CategoryDto;
+import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.domain.dtos.TagDto;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.mappers.CategoryMapper;
+import com.leon.blog.mappers.CategoryMapperImpl;
+import com.leon.blog.mappers.PostMapper;
+import com.leon.blog.mappers.PostMapperImpl;
+import com.leon.blog.mappers.TagMapper;
+import com.leon.blog.mappers.TagMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping with the generated MapStruct mappers wired as in the application. Post counts on
+ * categories and tags are denormalized columns, so the count mappings are plain field copies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMapperBenchmark {
+
+    @Param({"0", "5", "20"})
+    private int tagCount;
+
+    private AnnotationConfigApplicationContext context;
+    private PostMapper postMapper;
+    private CategoryMapper categoryMapper;
+    private TagMapper tagMapper;
+    private Post post;
+    private Tag tag;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(PostMapperImpl.class, CategoryMapperImpl.class, TagMapperImpl.class);
+        postMapper = context.getBean(PostMapper.class);
+        categoryMapper = context.getBean(CategoryMapper.class);
+        tagMapper = context.getBean(TagMapper.class);
+        Random random = new Random(42);
+        post = BenchmarkPosts.post(random, tagCount, 800);
+        tag = BenchmarkPosts.post(random, 1, 0).getTags().iterator().next();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostDto postToDto() {
+        return postMapper.toDto(post);
+    }
+
+    @Benchmark
+    public CategoryDto categoryToDto() {
+        return categoryMapper.toDto(post.getCategory());
+    }
+
+    @Benchmark
+    public TagDto tagToDto() {
+        return tagMapper.toTagResponse(tag);
+    }
+}
@@ -0,0 +1,115 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.BlogApplication;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.UserRepository;
+import com.leon.blog.services.PostIndexService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the in-memory BM25 index against the repository search query. Runs against the test
+ * datasource (H2, substring fallback) unless a PostgreSQL datasource is passed with -jvmArgsAppend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSearchBenchmark {
+
+    private static final String[] VOCABULARY = {
+            "spring", "boot", "java", "cache", "index", "query", "database", "thread", "stream", "record",
+            "latency", "memory", "heap", "garbage", "collector", "vector", "search", "token", "filter", "batch"
+    };
+
+    @Param({"1000", "10000"})
+    private int documents;
+
+    private ConfigurableApplicationContext context;
+    private PostIndexService postIndexService;
+    private PostRepository postRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogApplication.class)
+                .properties(
+                        "server.port=0",
+                        "application.search.index.enabled=true",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        postIndexService = context.getBean(PostIndexService.class);
+        postRepository = context.getBean(PostRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        User author = context.getBean(UserRepository.class)
+                .save(User.builder().email("bench@test.com").password("password").name("Bench").build());
+        Category category = context.getBean(CategoryRepository.class).save(Category.builder().name("Bench").build());
+
+        Random random = new Random(42);
+        List<Post> posts = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            posts.add(Post.builder()
+                    .title(words(random, 5))
+                    .content(words(random, 300))
+                    .status(PostStatus.PUBLISHED)
+                    .readingTime(2)
+                    .author(author)
+                    .category(category)
+                    .build());
+        }
+        postRepository.saveAll(posts);
+        postIndexService.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostSearchRow> indexSearch() {
+        return postIndexService.search("garbage collector", null, null, null, 21);
+    }
+
+    @Benchmark
+    public List<PostSearchRow> repositorySearch() {
+        return transactionTemplate.execute(status -> postRepository.search("garbage collector", null, null, null, 21));
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
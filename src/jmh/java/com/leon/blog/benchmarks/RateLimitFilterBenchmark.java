@@ -0,0 +1,78 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.security.RateLimitFilter;
+import com.leon.blog.security.RateLimitPolicy;
+import com.leon.blog.security.TokenBucketRateLimiter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limit filter adds to a request: a request no policy covers, and a limited request from one of
+ * 10,000 clients whose buckets never run dry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest unmatchedRequest;
+    private MockHttpServletRequest[] limitedRequests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(List.of(
+                RateLimitPolicy.of("login", "1000000000/1s", RateLimitPolicy.ClientKey.ADDRESS,
+                        "/api/v1/auth/login", "POST"),
+                RateLimitPolicy.of("post-writes", "1000000000/1s", RateLimitPolicy.ClientKey.USER,
+                        "/api/v1/posts/**", "POST", "PUT", "DELETE")),
+                new TokenBucketRateLimiter(Duration.ofSeconds(1), CLIENTS * 2L));
+        unmatchedRequest = new MockHttpServletRequest("GET", "/api/v1/posts/123");
+        limitedRequests = new MockHttpServletRequest[CLIENTS];
+        for(int i = 0; i < CLIENTS; i++) {
+            limitedRequests[i] = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+            limitedRequests[i].setRemoteAddr("10.0." + (i >> 8) + "." + (i & 0xFF));
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int unmatchedRequest() throws Exception {
+        // OncePerRequestFilter marks the request as filtered; clear it so every call does the full work.
+        unmatchedRequest.clearAttributes();
+        filter.doFilter(unmatchedRequest, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int limitedRequest() throws Exception {
+        MockHttpServletRequest request = limitedRequests[next];
+        next = next + 1 == CLIENTS ? 0 : next + 1;
+        request.clearAttributes();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,71 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.content.ReadingTimeCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading time of Markdown-like posts: the former split on a whitespace regex versus the single-pass counter.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadingTimeBenchmark {
+
+    private static final String[] VOCABULARY = {
+            "the", "a", "spring", "boot", "application", "reads", "posts", "from", "database", "and",
+            "renders", "them", "quickly", "with", "cache", "index", "latency", "memory", "of", "request"
+    };
+
+    @Param({"1024", "10240", "51200"})
+    private int contentBytes;
+
+    private ReadingTimeCalculator calculator;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        calculator = new ReadingTimeCalculator();
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(contentBytes + 64);
+        while(builder.length() < contentBytes) {
+            builder.append("## ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append("\n\n");
+            int sentences = 3 + random.nextInt(5);
+            for(int s = 0; s < sentences; s++) {
+                int words = 6 + random.nextInt(12);
+                for(int w = 0; w < words; w++) {
+                    builder.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(w + 1 < words ? " " : ". ");
+                }
+            }
+            builder.append("\n\n");
+        }
+        content = builder.toString();
+    }
+
+    @Benchmark
+    public int splitOnWhitespaceRegex() {
+        int wordCount = content.trim().split("\\s+").length;
+        return (int) Math.ceil((double) wordCount / ReadingTimeCalculator.WORDS_PER_MINUTE);
+    }
+
+    @Benchmark
+    public int singlePassCounter() {
+        return calculator.readingTimeMinutes(content);
+    }
+}
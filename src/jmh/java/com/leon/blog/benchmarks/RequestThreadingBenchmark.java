@@ -0,0 +1,183 @@
+package com.leon.blog.benchmarks;
+
+import com.leon.blog.BlogApplication;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.UserRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP requests against the running application with Tomcat on platform threads versus virtual threads, at the
+ * concurrency given by {@link Threads} (override with -t). Requests shed with 503 by the connection guard return at
+ * once, so the primary score, which counts every request, is not comparable between modes. Compare the secondary
+ * results instead: {@code answered} and {@code shed} per millisecond, and the latency percentiles of answered
+ * requests only, printed after each iteration.
+ * <p>
+ * Runs against the test datasource (H2) unless a PostgreSQL datasource is passed with -jvmArgsAppend. H2 queries
+ * barely block, so compare the modes against a real database to see the effect of parking on I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @Param({"/api/v1/posts/summaries?limit=20"})
+    private String path;
+
+    @Param({"500"})
+    private int posts;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    private final Queue<Responses> responses = new ConcurrentLinkedQueue<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Responses {
+        public long answered;
+        public long shed;
+
+        long[] answeredNanos = new long[1024];
+        int answeredCount;
+
+        @Setup
+        public void register(RequestThreadingBenchmark benchmark) {
+            benchmark.responses.add(this);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            answered = 0;
+            shed = 0;
+            answeredCount = 0;
+        }
+
+        void recordAnswered(long nanos) {
+            answered++;
+            if(answeredCount == answeredNanos.length) {
+                answeredNanos = Arrays.copyOf(answeredNanos, answeredCount * 2);
+            }
+            answeredNanos[answeredCount++] = nanos;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, unlike builder properties, take precedence over application.properties.
+        context = new SpringApplicationBuilder(BlogApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(threading),
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+
+        User author = context.getBean(UserRepository.class)
+                .save(User.builder().email("bench@test.com").password("password").name("Bench").build());
+        Category category = context.getBean(CategoryRepository.class).save(Category.builder().name("Bench").build());
+        List<Post> seeded = new ArrayList<>(posts);
+        for(int i = 0; i < posts; i++) {
+            seeded.add(Post.builder()
+                    .title("Post " + i)
+                    .content("Content of post " + i)
+                    .excerpt("Content of post " + i)
+                    .status(PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .wordCount(4)
+                    .author(author)
+                    .category(category)
+                    .build());
+        }
+        context.getBean(PostRepository.class).saveAll(seeded);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printAnsweredLatencies() {
+        long shed = 0;
+        int count = 0;
+        for(Responses threadResponses : responses) {
+            count += threadResponses.answeredCount;
+        }
+        long[] nanos = new long[count];
+        int offset = 0;
+        for(Responses threadResponses : responses) {
+            System.arraycopy(threadResponses.answeredNanos, 0, nanos, offset, threadResponses.answeredCount);
+            offset += threadResponses.answeredCount;
+            shed += threadResponses.shed;
+        }
+        if(count == 0) {
+            System.out.printf("%n[%s] no answered requests, %d shed%n", threading, shed);
+            return;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%n[%s] answered %d: p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms; %d shed%n",
+                threading, count, percentileMillis(nanos, 0.5), percentileMillis(nanos, 0.99),
+                percentileMillis(nanos, 0.999), nanos[count - 1] / 1e6, shed);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get(Responses responses) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if(status == 503) {
+            responses.shed++;
+        } else {
+            responses.recordAnswered(System.nanoTime() - start);
+        }
+        return status;
+    }
+}
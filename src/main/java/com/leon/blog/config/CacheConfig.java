@@ -0,0 +1,23 @@
+package com.leon.blog.config;
+
+import com.leon.blog.content.RenderedHtmlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+// Class-based proxies, as Spring Boot uses by default, so listener methods declared only on service classes resolve.
+@EnableCaching(proxyTargetClass = true)
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String TAGS = "tags";
+
+    @Bean
+    public RenderedHtmlCache renderedHtmlCache(
+            @Value("${application.posts.html-cache.max-size:64MB}") String maxSize) {
+        return new RenderedHtmlCache(DataSize.parse(maxSize).toBytes());
+    }
+}
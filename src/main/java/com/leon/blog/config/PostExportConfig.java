@@ -0,0 +1,35 @@
+package com.leon.blog.config;
+
+import com.leon.blog.security.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caps concurrent post exports well below the connection pool. An export streams for as long as the client keeps
+ * reading, so a handful of them must never crowd out ordinary requests; the rest are turned away with 503 at once.
+ */
+@Configuration
+public class PostExportConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter postExportLimitFilter(
+            @Value("${application.posts.export.max-concurrent:2}") int maxConcurrentExports) {
+        return new ConcurrencyLimitFilter("post-export", maxConcurrentExports, Duration.ZERO, Duration.ofSeconds(30));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> postExportLimitFilterRegistration(
+            ConcurrencyLimitFilter postExportLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(postExportLimitFilter);
+        registration.addUrlPatterns("/api/v1/posts/export");
+        // Behind Spring Security, so anonymous requests are refused before they take a slot.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
@@ -3,8 +3,18 @@ package com.leon.blog.config;
 import com.leon.blog.domain.entities.User;
 import com.leon.blog.repositories.UserRepository;
 import com.leon.blog.security.BlogUserDetailsService;
+import com.leon.blog.security.BoundedPasswordEncoder;
 import com.leon.blog.security.JwtAuthenticationFilter;
+import com.leon.blog.security.JwtKeyRing;
+import com.leon.blog.security.JwtKeyRingEndpoint;
+import com.leon.blog.security.RateLimitFilter;
+import com.leon.blog.security.RateLimitPolicy;
+import com.leon.blog.security.RateLimitPolicy.ClientKey;
+import com.leon.blog.security.TokenBucketRateLimiter;
+import com.leon.blog.security.VerifiedTokenCache;
 import com.leon.blog.services.AuthenticationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,11 +24,17 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig {
 
@@ -27,25 +43,74 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter(authenticationService);
     }
 
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(
+            @Value("${application.security.jwt.verified-token-cache-size:10000}") long maximumSize) {
+        return new VerifiedTokenCache(maximumSize);
+    }
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(
+            @Value("${application.security.jwt.key-id:default}") String keyId,
+            @Value("${application.security.jwt.secret-key}") String secretKey,
+            @Value("#{${application.security.jwt.verification-keys:{:}}}") Map<String, String> verificationKeys) {
+        return new JwtKeyRing(keyId, secretKey, verificationKeys);
+    }
+
+    @Bean
+    public JwtKeyRingEndpoint jwtKeyRingEndpoint(JwtKeyRing jwtKeyRing, VerifiedTokenCache verifiedTokenCache) {
+        return new JwtKeyRingEndpoint(jwtKeyRing, verifiedTokenCache);
+    }
+
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository) {
         return new BlogUserDetailsService(userRepository);
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            @Value("${application.rate-limit.enabled:true}") boolean enabled,
+            @Value("${application.rate-limit.login:10/1m}") String loginLimit,
+            @Value("${application.rate-limit.register:5/1h}") String registerLimit,
+            @Value("${application.rate-limit.post-writes:120/1m}") String postWritesLimit,
+            @Value("${application.rate-limit.max-clients:100000}") long maxClients) {
+        List<RateLimitPolicy> policies = !enabled ? List.of() : List.of(
+                RateLimitPolicy.of("login", loginLimit, ClientKey.ADDRESS, "/api/v1/auth/login", "POST"),
+                RateLimitPolicy.of("register", registerLimit, ClientKey.ADDRESS, "/api/v1/auth/register", "POST"),
+                RateLimitPolicy.of("post-writes", postWritesLimit, ClientKey.USER, "/api/v1/posts/**",
+                        "POST", "PUT", "DELETE"));
+        Duration longestPeriod = policies.stream()
+                .map(RateLimitPolicy::period)
+                .max(Comparator.naturalOrder())
+                .orElse(Duration.ofMinutes(1));
+        return new RateLimitFilter(policies, new TokenBucketRateLimiter(longestPeriod, maxClients));
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        // Only runs inside the security chain, where the authenticated user is known.
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
-            JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            RateLimitFilter rateLimitFilter) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/register").permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/api/v1/posts").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/posts/batch").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/v1/posts/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/posts/**").authenticated()
 
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/drafts").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/posts/export").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/categories/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/tags/**").permitAll()
@@ -55,14 +120,24 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-                ).addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                ).addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${application.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${application.security.password.hash-threads:0}") int hashThreads,
+            @Value("${application.security.password.hash-queue-capacity:64}") int hashQueueCapacity) {
+        // New hashes use BCrypt at the configured strength; stored hashes in any other supported format still match.
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(
+                "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(
+                PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, threads, hashQueueCapacity);
     }
 
     @Bean
@@ -0,0 +1,65 @@
+package com.leon.blog.config;
+
+import com.leon.blog.security.ConcurrencyLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled=true}, under which Spring Boot runs Tomcat, the task executor
+ * and the scheduler on virtual threads. Concurrency is then capped relative to the connection pool instead of by
+ * Tomcat's thread count, so a burst of requests waits briefly in front of the application and is shed with 503
+ * rather than piling up on Hikari.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadsConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            DataSource dataSource,
+            @Value("${application.connection-guard.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${application.connection-guard.max-wait:1s}") String maxWait) {
+        int poolSize = maximumPoolSize(dataSource);
+        int maxConcurrentRequests = Math.max(1, poolSize * requestsPerConnection);
+        log.info("Virtual threads enabled: admitting {} concurrent requests for {} pooled connections",
+                maxConcurrentRequests, poolSize);
+        return new ConcurrencyLimitFilter("requests", maxConcurrentRequests, DurationStyle.detectAndParse(maxWait),
+                Duration.ofSeconds(1));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter concurrencyLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(concurrencyLimitFilter);
+        // Ahead of Spring Security, so shed requests never reach authentication or the database.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+    private static int maximumPoolSize(DataSource dataSource) {
+        try {
+            if(dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size, assuming {}", DEFAULT_POOL_SIZE, e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,24 @@
+package com.leon.blog.content;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Everything derived from a post's content that listings show, computed once when the content is written.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentAnalyzer {
+
+    private final ReadingTimeCalculator readingTimeCalculator;
+    private final ExcerptGenerator excerptGenerator;
+
+    public ContentMetrics analyze(String content) {
+        int wordCount = readingTimeCalculator.countWords(content);
+        return new ContentMetrics(
+                wordCount,
+                readingTimeCalculator.readingTimeMinutes(wordCount),
+                excerptGenerator.excerpt(content)
+        );
+    }
+}
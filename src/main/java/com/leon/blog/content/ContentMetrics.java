@@ -0,0 +1,4 @@
+package com.leon.blog.content;
+
+public record ContentMetrics(int wordCount, int readingTime, String excerpt) {
+}
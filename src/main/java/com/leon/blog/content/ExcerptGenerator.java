@@ -0,0 +1,128 @@
+package com.leon.blog.content;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain-text preview of a Markdown post, computed once when the post is saved so listings never read the content.
+ * <p>
+ * Fenced code blocks, images and HTML tags are dropped; headings, quotes and list markers lose their syntax; links
+ * keep their text. Whitespace is collapsed and the text is cut at a word boundary with an ellipsis.
+ */
+@Component
+public class ExcerptGenerator {
+
+    public static final int MAX_LENGTH = 280;
+
+    private static final String ELLIPSIS = "…";
+
+    public String excerpt(String markdown) {
+        if(markdown == null) {
+            return "";
+        }
+        StringBuilder excerpt = new StringBuilder(MAX_LENGTH + 1);
+        boolean inFence = false;
+        for(String line : (Iterable<String>) markdown.lines()::iterator) {
+            String trimmed = line.strip();
+            if(trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                inFence = !inFence;
+                continue;
+            }
+            if(inFence || trimmed.isEmpty()) {
+                continue;
+            }
+            appendInline(stripBlockMarkers(trimmed), excerpt);
+            if(excerpt.length() > MAX_LENGTH) {
+                return truncate(excerpt);
+            }
+        }
+        return excerpt.toString();
+    }
+
+    private static String stripBlockMarkers(String line) {
+        int i = 0;
+        while(true) {
+            int start = i;
+            while(i < line.length() && (line.charAt(i) == '#' || line.charAt(i) == '>')) {
+                i++;
+            }
+            if(i + 1 < line.length() && "-*+".indexOf(line.charAt(i)) >= 0 && line.charAt(i + 1) == ' ') {
+                i += 2;
+            } else {
+                int digits = i;
+                while(digits < line.length() && Character.isDigit(line.charAt(digits))) {
+                    digits++;
+                }
+                if(digits > i && digits + 1 < line.length() && line.charAt(digits) == '.' && line.charAt(digits + 1) == ' ') {
+                    i = digits + 2;
+                }
+            }
+            while(i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if(i == start) {
+                return line.substring(i);
+            }
+        }
+    }
+
+    private static void appendInline(String line, StringBuilder excerpt) {
+        if(!excerpt.isEmpty()) {
+            excerpt.append(' ');
+        }
+        int i = 0;
+        while(i < line.length() && excerpt.length() <= MAX_LENGTH) {
+            char c = line.charAt(i);
+            if(c == '!' && i + 1 < line.length() && line.charAt(i + 1) == '[') {
+                // Image: neither the alt text nor the address is prose.
+                i = skipLinkTarget(line, skipPast(line, i + 2, ']'));
+            } else if(c == ']' && i + 1 < line.length() && line.charAt(i + 1) == '(') {
+                i = skipLinkTarget(line, i + 1);
+            } else if(c == '<' && line.indexOf('>', i) > i) {
+                i = line.indexOf('>', i) + 1;
+            } else if(c == '[' || c == '*' || c == '`' || c == '~'
+                    || (c == '_' && !(isWordChar(line, i - 1) && isWordChar(line, i + 1)))) {
+                i++;
+            } else if(Character.isWhitespace(c)) {
+                if(!excerpt.isEmpty() && excerpt.charAt(excerpt.length() - 1) != ' ') {
+                    excerpt.append(' ');
+                }
+                i++;
+            } else {
+                excerpt.append(c);
+                i++;
+            }
+        }
+        while(!excerpt.isEmpty() && excerpt.charAt(excerpt.length() - 1) == ' ') {
+            excerpt.setLength(excerpt.length() - 1);
+        }
+    }
+
+    private static int skipPast(String line, int from, char end) {
+        int index = line.indexOf(end, from);
+        return index < 0 ? line.length() : index + 1;
+    }
+
+    private static int skipLinkTarget(String line, int from) {
+        return from < line.length() && line.charAt(from) == '(' ? skipPast(line, from + 1, ')') : from;
+    }
+
+    private static boolean isWordChar(String line, int index) {
+        return index >= 0 && index < line.length() && Character.isLetterOrDigit(line.charAt(index));
+    }
+
+    private static String truncate(StringBuilder excerpt) {
+        int end = MAX_LENGTH;
+        int lastSpace = excerpt.lastIndexOf(" ", MAX_LENGTH);
+        // Cut at a word boundary unless that would throw away most of the text, e.g. in unspaced scripts.
+        if(lastSpace > MAX_LENGTH / 2) {
+            end = lastSpace;
+        } else if(Character.isHighSurrogate(excerpt.charAt(end - 1))) {
+            end--;
+        }
+        excerpt.setLength(end);
+        while(!excerpt.isEmpty() && !Character.isLetterOrDigit(excerpt.codePointBefore(excerpt.length()))) {
+            excerpt.setLength(excerpt.length() - Character.charCount(excerpt.codePointBefore(excerpt.length())));
+        }
+        return excerpt.append(ELLIPSIS).toString();
+    }
+}
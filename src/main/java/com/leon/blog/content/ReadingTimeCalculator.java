@@ -0,0 +1,79 @@
+package com.leon.blog.content;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates reading time from a single pass over the text, without regular expressions or allocations.
+ * <p>
+ * A word is a run of characters between separators that contains at least one letter or digit, so Markdown
+ * markers such as {@code #}, {@code -} or {@code >} do not count. Separators are Unicode whitespace, including
+ * no-break and zero-width spaces. Han ideographs and kana, written without spaces, count as one word per
+ * character.
+ */
+@Component
+public class ReadingTimeCalculator {
+
+    public static final int WORDS_PER_MINUTE = 200;
+
+    private static final char ZERO_WIDTH_SPACE = '\u200B';
+
+    public int readingTimeMinutes(CharSequence text) {
+        return readingTimeMinutes(countWords(text));
+    }
+
+    public int readingTimeMinutes(int wordCount) {
+        return (wordCount + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE;
+    }
+
+    public int countWords(CharSequence text) {
+        if(text == null) {
+            return 0;
+        }
+        int words = 0;
+        boolean wordHasLetter = false;
+        int length = text.length();
+        int i = 0;
+        while(i < length) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+
+            if(isSeparator(codePoint)) {
+                if(wordHasLetter) {
+                    words++;
+                }
+                wordHasLetter = false;
+            } else if(isUnspacedScript(codePoint)) {
+                // Each character is a word; it also ends any Latin run it is glued to, e.g. "Java言語".
+                if(wordHasLetter) {
+                    words++;
+                }
+                words++;
+                wordHasLetter = false;
+            } else {
+                wordHasLetter |= Character.isLetterOrDigit(codePoint);
+            }
+        }
+        if(wordHasLetter) {
+            words++;
+        }
+        return words;
+    }
+
+    private static boolean isSeparator(int codePoint) {
+        return Character.isWhitespace(codePoint)
+                || Character.isSpaceChar(codePoint)
+                || codePoint == ZERO_WIDTH_SPACE;
+    }
+
+    private static boolean isUnspacedScript(int codePoint) {
+        // Han and kana all lie at or above the CJK radicals block; skip the script lookup below it.
+        if(codePoint < 0x2E80) {
+            return false;
+        }
+        if(Character.isIdeographic(codePoint)) {
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA;
+    }
+}
@@ -0,0 +1,38 @@
+package com.leon.blog.content;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Rendered post HTML bounded by total size rather than entry count, since posts range from a line to 50,000
+ * characters. Entries are keyed by post id and {@code updatedAt}, so an edited post is never served stale; its old
+ * entry is simply no longer asked for and is evicted first.
+ */
+public class RenderedHtmlCache {
+
+    private final Cache<Key, String> cache;
+
+    public RenderedHtmlCache(long maximumBytes) {
+        this.cache = Caffeine.newBuilder()
+                // Java strings take up to two bytes per character.
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, String html) -> 2 * html.length())
+                .build();
+    }
+
+    public String get(UUID postId, LocalDateTime updatedAt, Function<UUID, String> loader) {
+        return cache.get(new Key(postId, updatedAt), key -> loader.apply(key.postId()));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private record Key(UUID postId, LocalDateTime updatedAt) {
+    }
+}
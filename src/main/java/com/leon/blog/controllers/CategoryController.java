@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,12 +24,17 @@ public class CategoryController {
     private final CategoryMapper categoryMapper;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> listCategories() {
+    public ResponseEntity<List<CategoryDto>> listCategories(WebRequest webRequest) {
+        String version = categoryService.getCategoriesVersion();
+        if(webRequest.checkNotModified(version)) {
+            return null;
+        }
+
         List<CategoryDto> categories = categoryService.listCategories()
                 .stream().map(categoryMapper::toDto)
                 .toList();
 
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(version).body(categories);
     }
 
     @PostMapping
@@ -0,0 +1,59 @@
+package com.leon.blog.controllers;
+
+import com.leon.blog.domain.dtos.PostImportDto;
+import com.leon.blog.domain.entities.PostImport;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.mappers.PostImportMapper;
+import com.leon.blog.security.JwtPrincipal;
+import com.leon.blog.services.PostImportService;
+import com.leon.blog.services.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final PostImportService postImportService;
+    private final PostImportMapper postImportMapper;
+    private final UserService userService;
+
+    /**
+     * Starts importing the posts of a newline-delimited JSON body, one post per line in the form
+     * {@code {"title", "content", "categoryId", "status", "tags": ["name", ...]}}. Returns at once with the import
+     * to poll; tags that do not exist yet are created.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PostImportDto> createImport(InputStream body) throws IOException {
+        PostImport postImport = postImportService.startImport(loggedInUser(), body);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(postImport.getId())
+                        .toUri())
+                .body(postImportMapper.toDto(postImport));
+    }
+
+    @GetMapping(path = "/{id}")
+    public ResponseEntity<PostImportDto> getImport(@PathVariable UUID id) {
+        PostImport postImport = postImportService.getImport(id, loggedInUser());
+        return ResponseEntity.ok(postImportMapper.toDto(postImport));
+    }
+
+    private User loggedInUser() {
+        JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+        return userService.getUserReference(principal.getId());
+    }
+}
@@ -1,27 +1,55 @@
 package com.leon.blog.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.PostPage;
+import com.leon.blog.domain.PostSearchPage;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.PostSummaryPage;
+import com.leon.blog.domain.RenderedPost;
 import com.leon.blog.domain.UpdatePostRequest;
+import com.leon.blog.domain.dtos.ApiErrorResponse;
 import com.leon.blog.domain.dtos.CreatePostRequestDto;
+import com.leon.blog.domain.dtos.CreatePostResultDto;
+import com.leon.blog.domain.dtos.CreatePostsRequestDto;
+import com.leon.blog.domain.dtos.CreatePostsResponseDto;
 import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.domain.dtos.PostSearchHitDto;
+import com.leon.blog.domain.dtos.PostSummaryDto;
 import com.leon.blog.domain.dtos.UpdatePostRequestDto;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.PostVersion;
 import com.leon.blog.mappers.PostMapper;
-import com.leon.blog.security.BlogUserDetails;
+import com.leon.blog.security.JwtPrincipal;
 import com.leon.blog.services.PostService;
+import com.leon.blog.services.PostViewService;
+import com.leon.blog.services.TrendingPostService;
 import com.leon.blog.services.UserService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.AccessDeniedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -29,24 +57,106 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PostController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PostService postService;
     private final PostMapper postMapper;
     private final UserService userService;
+    private final PostViewService postViewService;
+    private final TrendingPostService trendingPostService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @GetMapping
     public ResponseEntity<List<PostDto>> getAllPosts(
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) UUID tagId) {
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        PostPage page = postService.getAllPosts(categoryId, tagId, cursor, limit);
+        List<PostDto> postDtos = page.getPosts().stream().map(postMapper::toDto).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(postDtos);
+    }
+
+    /**
+     * The same listing as {@link #getAllPosts} without post content: each post carries its stored excerpt instead.
+     */
+    @GetMapping(path = "/summaries")
+    public ResponseEntity<List<PostSummaryDto>> getPostSummaries(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
-        List<Post> posts = postService.getAllPosts(categoryId, tagId);
-        List<PostDto> postDtos = posts.stream().map(postMapper::toDto).toList();
+        PostSummaryPage page = postService.getPostSummaries(categoryId, tagId, cursor, limit);
+        List<PostSummaryDto> summaryDtos = page.getPosts().stream().map(postMapper::toSummaryDto).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(summaryDtos);
+    }
 
+    /**
+     * Published posts ranked by recent views and publication, answered from the in-memory ranking.
+     */
+    @GetMapping(path = "/trending")
+    public ResponseEntity<List<PostDto>> getTrendingPosts(@RequestParam(required = false) Integer limit) {
+        List<PostDto> postDtos = trendingPostService.getTrendingPosts(limit).stream().map(postMapper::toDto).toList();
         return ResponseEntity.ok(postDtos);
     }
 
+    @GetMapping(path = "/search")
+    public ResponseEntity<List<PostSearchHitDto>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        PostSearchPage page = postService.searchPosts(q, categoryId, tagId, cursor, limit);
+        List<PostSearchHitDto> hitDtos = page.getHits().stream().map(postMapper::toSearchHitDto).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(hitDtos);
+    }
+
+    /**
+     * All published posts as newline-delimited JSON, oldest first. Posts are written and flushed batch by batch
+     * while the query is still being read, so memory stays flat however many posts there are.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        ObjectWriter writer = objectMapper.writerFor(PostDto.class);
+        StreamingResponseBody body = outputStream -> postService.exportPublishedPosts(batch -> {
+            try {
+                for(Post post : batch) {
+                    outputStream.write(writer.writeValueAsBytes(postMapper.toDto(post)));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping(path = "/drafts")
     public ResponseEntity<List<PostDto>> getDrafts(@RequestAttribute UUID userId) {
-        User loggedInUser = userService.getUserById(userId);
+        User loggedInUser = userService.getUserReference(userId);
         List<Post> draftPosts = postService.getDraftPosts(loggedInUser);
         List<PostDto> postDtos = draftPosts.stream().map(postMapper::toDto).toList();
         return ResponseEntity.ok(postDtos);
@@ -56,12 +166,14 @@ public class PostController {
     public ResponseEntity<PostDto> createPost(
             @Valid @RequestBody CreatePostRequestDto createPostRequestDto
     ) {
-        BlogUserDetails userDetails = (BlogUserDetails) SecurityContextHolder
+        JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getPrincipal();
 
-        User loggedInUser = userService.getUserById(userDetails.getId());
+        // Loaded rather than referenced: the response carries the author's name, and a token outliving its account is
+        // rejected here instead of failing on the foreign key at commit.
+        User loggedInUser = userService.getUserById(principal.getId());
 
         CreatePostRequest createPostRequest = postMapper.toCreatePostRequest(createPostRequestDto);
         Post createdPost = postService.createPost(loggedInUser, createPostRequest);
@@ -69,18 +181,82 @@ public class PostController {
         return new ResponseEntity<>(createdPostDto, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates up to {@link CreatePostsRequestDto#MAX_POSTS} posts in one transaction. Each post is validated on its
+     * own; rejected posts are reported by index with their field errors while the valid ones are still created.
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<CreatePostsResponseDto> createPosts(
+            @Valid @RequestBody CreatePostsRequestDto createPostsRequestDto
+    ) {
+        JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+
+        User loggedInUser = userService.getUserReference(principal.getId());
+
+        List<CreatePostRequestDto> postDtos = createPostsRequestDto.getPosts();
+        CreatePostResultDto[] results = new CreatePostResultDto[postDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>(postDtos.size());
+        List<CreatePostRequest> validRequests = new ArrayList<>(postDtos.size());
+        for(int i = 0; i < postDtos.size(); i++) {
+            CreatePostRequestDto postDto = postDtos.get(i);
+            Set<ConstraintViolation<CreatePostRequestDto>> violations = postDto == null
+                    ? Set.of()
+                    : validator.validate(postDto);
+            if(postDto == null || !violations.isEmpty()) {
+                results[i] = CreatePostResultDto.builder()
+                        .index(i)
+                        .errors(postDto == null
+                                ? List.of(new ApiErrorResponse.FieldError("post", "Post is required"))
+                                : violations.stream()
+                                        .map(violation -> new ApiErrorResponse.FieldError(
+                                                violation.getPropertyPath().toString(), violation.getMessage()))
+                                        .sorted(Comparator.comparing(ApiErrorResponse.FieldError::getField))
+                                        .toList())
+                        .build();
+            } else {
+                validIndexes.add(i);
+                validRequests.add(postMapper.toCreatePostRequest(postDto));
+            }
+        }
+
+        List<CreatePostResult> created = validRequests.isEmpty()
+                ? List.of()
+                : postService.createPosts(loggedInUser, validRequests);
+        for(int i = 0; i < created.size(); i++) {
+            CreatePostResult result = created.get(i);
+            results[validIndexes.get(i)] = CreatePostResultDto.builder()
+                    .index(validIndexes.get(i))
+                    .id(result.getPost() == null ? null : result.getPost().getId())
+                    .errors(result.getErrors().entrySet().stream()
+                            .map(error -> new ApiErrorResponse.FieldError(error.getKey(), error.getValue()))
+                            .toList())
+                    .build();
+        }
+
+        int createdCount = (int) Arrays.stream(results).filter(result -> result.getId() != null).count();
+        CreatePostsResponseDto response = CreatePostsResponseDto.builder()
+                .created(createdCount)
+                .rejected(results.length - createdCount)
+                .results(List.of(results))
+                .build();
+        return new ResponseEntity<>(response, createdCount > 0 ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
     @PutMapping(path = "/{id}")
     public ResponseEntity<PostDto> updatePost(
             @PathVariable UUID id,
             @Valid @RequestBody UpdatePostRequestDto updatePostRequestDto) {
         System.out.println("update post controller reached!!");
 
-        BlogUserDetails userDetails = (BlogUserDetails) SecurityContextHolder
+        JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getPrincipal();
 
-        User loggedInUser = userService.getUserById(userDetails.getId());
+        User loggedInUser = userService.getUserReference(principal.getId());
 
         UpdatePostRequest updatePostRequest = postMapper.toUpdatePostRequest(updatePostRequestDto);
         Post updatedPost = postService.updatePost(id, loggedInUser, updatePostRequest);
@@ -91,21 +267,51 @@ public class PostController {
 
     @GetMapping(path = "/{id}")
     public ResponseEntity<PostDto> getPost(
-            @PathVariable UUID id
+            @PathVariable UUID id,
+            WebRequest webRequest
     ) {
+        // Answer If-None-Match from one aggregate query, before the post and its associations are loaded.
+        PostVersion version = postService.getPostVersion(id);
+        // Views of drafts count neither towards the view count nor towards trending.
+        if(version.status() == PostStatus.PUBLISHED) {
+            postViewService.recordView(id);
+        }
+        // Weak: the body also carries the view count, which changes without the stamp, so a revalidated copy keeps the
+        // count it was served with.
+        String eTag = "W/\"" + version.stamp() + "\"";
+        if(webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         Post post = postService.getPost(id);
         PostDto postDto = postMapper.toDto(post);
-        return ResponseEntity.ok(postDto);
+        postDto.setViewCount(postViewService.getViewCount(id));
+        return ResponseEntity.ok().eTag(eTag).body(postDto);
+    }
+
+    /**
+     * The post's content as sanitized HTML, rendered when the post was saved and served from memory on repeat reads.
+     */
+    @GetMapping(path = "/{id}/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getPostHtml(
+            @PathVariable UUID id,
+            WebRequest webRequest
+    ) {
+        RenderedPost renderedPost = postService.getRenderedPost(id);
+        if(webRequest.checkNotModified(renderedPost.version())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(renderedPost.version()).body(renderedPost.html());
     }
 
     @DeleteMapping(path = "/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable UUID id) {
-        BlogUserDetails userDetails = (BlogUserDetails) SecurityContextHolder
+        JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getPrincipal();
 
-        User loggedInUser = userService.getUserById(userDetails.getId());
+        User loggedInUser = userService.getUserReference(principal.getId());
         postService.deletePost(id, loggedInUser);
         return ResponseEntity.noContent().build();
     }
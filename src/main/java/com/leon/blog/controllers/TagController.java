@@ -3,12 +3,14 @@ package com.leon.blog.controllers;
 import com.leon.blog.domain.dtos.CreateTagsRequest;
 import com.leon.blog.domain.dtos.TagDto;
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.TagPostCount;
 import com.leon.blog.mappers.TagMapper;
 import com.leon.blog.services.TagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,10 +24,23 @@ public class TagController {
     private final TagMapper tagMapper;
 
     @GetMapping
-    public ResponseEntity<List<TagDto>> getAllTags() {
-        List<Tag> tags = tagService.getTags();
+    public ResponseEntity<List<TagDto>> getAllTags(WebRequest webRequest) {
+        String version = tagService.getTagsVersion();
+        if(webRequest.checkNotModified(version)) {
+            return null;
+        }
+
+        List<TagPostCount> tags = tagService.getTags();
         List<TagDto> tagRespons = tags.stream().map(tagMapper::toTagResponse).toList();
-        return ResponseEntity.ok(tagRespons);
+        return ResponseEntity.ok().eTag(version).body(tagRespons);
+    }
+
+    @GetMapping(path = "/suggest")
+    public ResponseEntity<List<TagDto>> suggestTags(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        List<TagPostCount> tags = tagService.suggestTags(prefix, limit);
+        return ResponseEntity.ok(tags.stream().map(tagMapper::toTagResponse).toList());
     }
 
     @PostMapping
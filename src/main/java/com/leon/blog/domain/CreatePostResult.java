@@ -0,0 +1,24 @@
+package com.leon.blog.domain;
+
+import com.leon.blog.domain.entities.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one post in a batch: the created post, or the reasons it was rejected by field.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreatePostResult {
+    private Post post;
+
+    @Builder.Default
+    private Map<String, String> errors = new LinkedHashMap<>();
+}
@@ -0,0 +1,5 @@
+package com.leon.blog.domain;
+
+public enum ImportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,44 @@
+package com.leon.blog.domain;
+
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.projections.PostSummaryRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position (createdAt, id) of the last post on a page, exchanged with clients as an opaque token.
+ */
+public record PostCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getCreatedAt(), post.getId());
+    }
+
+    public static PostCursor of(PostSummaryRow post) {
+        return new PostCursor(post.createdAt(), post.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new PostCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.leon.blog.domain;
+
+import com.leon.blog.domain.entities.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostPage {
+
+    @Builder.Default
+    private List<Post> posts = new ArrayList<>();
+
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.leon.blog.domain;
+
+import com.leon.blog.domain.entities.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostSearchHit {
+    private Post post;
+    private String snippet;
+    private double rank;
+}
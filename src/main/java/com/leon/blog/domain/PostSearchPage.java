@@ -0,0 +1,21 @@
+package com.leon.blog.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostSearchPage {
+
+    @Builder.Default
+    private List<PostSearchHit> hits = new ArrayList<>();
+
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.leon.blog.domain;
+
+import com.leon.blog.domain.projections.PostSummaryRow;
+import com.leon.blog.domain.projections.PostTagRow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostSummary {
+    private PostSummaryRow post;
+
+    @Builder.Default
+    private List<PostTagRow> tags = new ArrayList<>();
+}
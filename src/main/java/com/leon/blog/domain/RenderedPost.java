@@ -0,0 +1,7 @@
+package com.leon.blog.domain;
+
+/**
+ * A post's content as HTML, with the version it was rendered from.
+ */
+public record RenderedPost(String version, String html) {
+}
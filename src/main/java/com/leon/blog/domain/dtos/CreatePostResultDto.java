@@ -0,0 +1,19 @@
+package com.leon.blog.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreatePostResultDto {
+    private int index;
+    private UUID id;
+    private List<ApiErrorResponse.FieldError> errors;
+}
@@ -0,0 +1,26 @@
+package com.leon.blog.domain.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreatePostsRequestDto {
+
+    public static final int MAX_POSTS = 100;
+
+    // Posts are validated one by one so that an invalid post is reported without rejecting the others.
+    @Builder.Default
+    @NotEmpty(message = "At least one post is required")
+    @Size(max = MAX_POSTS, message = "Maximum {max} posts per batch allowed")
+    private List<CreatePostRequestDto> posts = new ArrayList<>();
+}
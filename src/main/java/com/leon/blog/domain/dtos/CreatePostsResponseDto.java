@@ -0,0 +1,18 @@
+package com.leon.blog.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreatePostsResponseDto {
+    private int created;
+    private int rejected;
+    private List<CreatePostResultDto> results;
+}
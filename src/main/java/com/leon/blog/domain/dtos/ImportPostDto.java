@@ -0,0 +1,46 @@
+package com.leon.blog.domain.dtos;
+
+import com.leon.blog.domain.PostStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One line of a bulk import. Tags are given by name and created if they do not exist yet.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportPostDto {
+
+    @NotBlank(message = "Title is required")
+    @Size(min = 3, max = 200, message = "Title must be between {min} and {max} characters")
+    private String title;
+
+    @NotBlank(message = "Content is required")
+    @Size(min = 10, max = 50000, message = "Content must be between {min} and {max} characters")
+    private String content;
+
+    @NotNull(message = "Category ID is required")
+    private UUID categoryId;
+
+    @Builder.Default
+    @Size(max = 10, message = "Maximum {max} tags allowed")
+    private Set<
+            @Size(min = 2, max = 30, message = "Tag name between {min} and {max} characters")
+            @Pattern(regexp = "^[\\w\\s-]+$", message = "Tag name can only have letter, num, space, hyphen")
+                    String> tags = new HashSet<>();
+
+    @NotNull(message = "Status is required")
+    private PostStatus status;
+}
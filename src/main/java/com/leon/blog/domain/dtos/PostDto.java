@@ -18,10 +18,13 @@ public class PostDto {
     private UUID id;
     private String title;
     private String content;
+    private String excerpt;
     private AuthorDto author;
     private CategoryDto category;
     private Set<TagDto> tags;
     private Integer readingTime;
+    private Integer wordCount;
+    private Long viewCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private PostStatus status;
@@ -0,0 +1,30 @@
+package com.leon.blog.domain.dtos;
+
+import com.leon.blog.domain.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostImportDto {
+    private UUID id;
+    private ImportStatus status;
+    private long totalLines;
+    private long processedLines;
+    private long createdPosts;
+    private long rejectedPosts;
+    private double postsPerSecond;
+    private List<PostImportErrorDto> errors;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,16 @@
+package com.leon.blog.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostImportErrorDto {
+    private long line;
+    private String field;
+    private String message;
+}
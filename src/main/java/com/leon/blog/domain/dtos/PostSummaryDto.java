@@ -0,0 +1,27 @@
+package com.leon.blog.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostSummaryDto {
+    private UUID id;
+    private String title;
+    private String excerpt;
+    private AuthorDto author;
+    private CategoryDto category;
+    private Set<TagDto> tags;
+    private Integer readingTime;
+    private Integer wordCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -2,7 +2,9 @@ package com.leon.blog.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -27,6 +29,16 @@ public class Category {
     @OneToMany(mappedBy = "category")
     private List<Post> posts = new ArrayList<>();
 
+    // Maintained only by atomic UPDATE queries so concurrent writers never overwrite each other's increments.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long publishedPostCount;
+
+    // Set by the database on insert and by the counter UPDATE queries, so collection version stamps use one clock.
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private LocalDateTime updatedAt;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,15 +3,29 @@ package com.leon.blog.domain.entities;
 import com.leon.blog.domain.PostStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "posts")
+@NamedEntityGraph(name = Post.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("category")
+})
+@NamedEntityGraph(name = Post.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("tags")
+})
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_posts_category_status_created_at_id", columnList = "category_id, status, created_at, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -19,6 +33,9 @@ import java.util.UUID;
 @Builder
 public class Post {
 
+    public static final String LISTING_GRAPH = "Post.listing";
+    public static final String DETAIL_GRAPH = "Post.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -29,6 +46,11 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Excerpt and word count are written with the content so listings never read the TEXT column. Rows saved before
+    // these columns existed are filled in by PostContentBackfillJob.
+    @Column(length = 300)
+    private String excerpt;
+
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private PostStatus status;
@@ -36,6 +58,8 @@ public class Post {
     @Column(nullable = false)
     private Integer readingTime;
 
+    private Integer wordCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
@@ -44,11 +68,14 @@ public class Post {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    // Collections cannot be fetch-joined into a limited page, so tags of a whole page load in one IN query instead.
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
             name = "post_tags",
             joinColumns = @JoinColumn(name="post_id"),
-            inverseJoinColumns = @JoinColumn(name = "tag_id")
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_post_tags_tag_id_post_id", columnList = "tag_id, post_id")
     )
     private Set<Tag> tags = new HashSet<>();
 
@@ -63,23 +90,24 @@ public class Post {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Post post = (Post) o;
-        return Objects.equals(id, post.id) && Objects.equals(title, post.title) && Objects.equals(content, post.content) && status == post.status && Objects.equals(readingTime, post.readingTime) && Objects.equals(createdAt, post.createdAt) && Objects.equals(updatedAt, post.updatedAt);
+        return Objects.equals(id, post.id) && Objects.equals(title, post.title) && Objects.equals(content, post.content) && Objects.equals(excerpt, post.excerpt) && status == post.status && Objects.equals(readingTime, post.readingTime) && Objects.equals(wordCount, post.wordCount) && Objects.equals(createdAt, post.createdAt) && Objects.equals(updatedAt, post.updatedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, content, status, readingTime, createdAt, updatedAt);
+        return Objects.hash(id, title, content, excerpt, status, readingTime, wordCount, createdAt, updatedAt);
     }
 
     @PrePersist
     protected void onCreate() {
-        LocalDateTime now = LocalDateTime.now();
+        // Match the database's microsecond precision so keyset cursors built from managed entities stay exact.
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         this.createdAt = now;
         this.updatedAt = now;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
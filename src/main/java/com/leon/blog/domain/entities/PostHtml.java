@@ -0,0 +1,34 @@
+package com.leon.blog.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+/**
+ * Rendered HTML of a post's content, rewritten whenever the content changes. Kept out of the posts table so that
+ * loading posts never reads it.
+ */
+@Entity
+@Table(name = "post_html")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostHtml {
+
+    @Id
+    private UUID postId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String html;
+}
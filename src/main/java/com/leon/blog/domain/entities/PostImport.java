@@ -0,0 +1,76 @@
+package com.leon.blog.domain.entities;
+
+import com.leon.blog.domain.ImportStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk post import. Counters are updated once per chunk, in the chunk's own transaction, so they
+ * always match what has been committed.
+ */
+@Entity
+@Table(name = "post_imports")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostImport {
+
+    public static final int MAX_RECORDED_ERRORS = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User owner;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ImportStatus status;
+
+    // Instance that accepted the import and holds its spooled upload; only that instance can run it.
+    private String nodeId;
+
+    private long totalLines;
+
+    private long processedLines;
+
+    private long createdPosts;
+
+    private long rejectedPosts;
+
+    // Only the first MAX_RECORDED_ERRORS rejections are kept; rejectedPosts counts them all.
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "post_import_errors", joinColumns = @JoinColumn(name = "import_id"))
+    @OrderColumn(name = "position")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Builder.Default
+    private List<PostImportError> errors = new ArrayList<>();
+
+    @Column(length = 500)
+    private String failureReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,27 @@
+package com.leon.blog.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostImportError {
+
+    public static final int MAX_MESSAGE_LENGTH = 500;
+
+    @Column(nullable = false)
+    private long line;
+
+    @Column(nullable = false)
+    private String field;
+
+    @Column(nullable = false, length = MAX_MESSAGE_LENGTH)
+    private String message;
+}
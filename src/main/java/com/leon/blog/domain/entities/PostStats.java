@@ -0,0 +1,34 @@
+package com.leon.blog.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+/**
+ * Counters of a post that change on reads, kept out of the posts table so that counting never touches a post's row
+ * or its version. Written only through {@code PostStatsRepository.addViewCounts}.
+ */
+@Entity
+@Table(name = "post_stats")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostStats {
+
+    @Id
+    private UUID postId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false)
+    private long viewCount;
+}
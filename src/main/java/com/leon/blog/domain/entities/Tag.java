@@ -2,7 +2,10 @@ package com.leon.blog.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -15,6 +18,9 @@ import java.util.UUID;
 @Getter
 @Setter
 @Builder
+// A post's tags are linked as references; the first one initialized, e.g. when hashed into the post's set, loads the
+// others with it.
+@BatchSize(size = 100)
 public class Tag {
 
     @Id
@@ -27,6 +33,16 @@ public class Tag {
     @ManyToMany(mappedBy = "tags")
     private Set<Post> posts = new HashSet<>();
 
+    // Maintained only by atomic UPDATE queries so concurrent writers never overwrite each other's increments.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long publishedPostCount;
+
+    // Set by the database on insert and by the counter UPDATE queries, so collection version stamps use one clock.
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private LocalDateTime updatedAt;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
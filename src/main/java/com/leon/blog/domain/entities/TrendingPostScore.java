@@ -0,0 +1,39 @@
+package com.leon.blog.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A post's trending score as of {@code scoredAt}, snapshotted so the in-memory ranking survives restarts. Storing
+ * the decayed value with its time, rather than the internal representation, keeps old snapshots valid when the
+ * half-life changes.
+ */
+@Entity
+@Table(name = "trending_post_scores")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class TrendingPostScore {
+
+    @Id
+    private UUID postId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(nullable = false)
+    private Instant scoredAt;
+}
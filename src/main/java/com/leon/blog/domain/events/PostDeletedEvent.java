@@ -0,0 +1,6 @@
+package com.leon.blog.domain.events;
+
+import java.util.UUID;
+
+public record PostDeletedEvent(UUID id) {
+}
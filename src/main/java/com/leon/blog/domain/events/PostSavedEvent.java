@@ -0,0 +1,37 @@
+package com.leon.blog.domain.events;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.Tag;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of a created or updated post, taken inside the transaction so listeners never touch lazy associations.
+ * {@code previousStatus} is the status before an update, or null for a new post.
+ */
+public record PostSavedEvent(UUID id, String title, String content, PostStatus status, PostStatus previousStatus,
+                             UUID categoryId, Set<UUID> tagIds) {
+
+    public static PostSavedEvent of(Post post) {
+        return of(post, null);
+    }
+
+    public static PostSavedEvent of(Post post, PostStatus previousStatus) {
+        Set<UUID> tagIds = post.getTags() == null
+                ? Set.of()
+                : post.getTags().stream().map(Tag::getId).collect(Collectors.toUnmodifiableSet());
+        UUID categoryId = post.getCategory() == null ? null : post.getCategory().getId();
+        return new PostSavedEvent(post.getId(), post.getTitle(), post.getContent(), post.getStatus(), previousStatus,
+                categoryId, tagIds);
+    }
+
+    /**
+     * Whether this save published the post, as opposed to editing a post that was already published.
+     */
+    public boolean published() {
+        return status == PostStatus.PUBLISHED && previousStatus != PostStatus.PUBLISHED;
+    }
+}
@@ -0,0 +1,7 @@
+package com.leon.blog.domain.events;
+
+/**
+ * Published when tags are created or deleted, so listeners refresh their view of the tag list after commit.
+ */
+public record TagsChangedEvent() {
+}
@@ -0,0 +1,9 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public interface CategoryPostCount {
+    UUID getId();
+    String getName();
+    Long getPostCount();
+}
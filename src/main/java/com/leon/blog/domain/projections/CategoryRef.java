@@ -0,0 +1,15 @@
+package com.leon.blog.domain.projections;
+
+import com.leon.blog.domain.entities.Category;
+
+import java.util.UUID;
+
+/**
+ * Immutable id and name of a category, as held in the lookup cache instead of the shared entity.
+ */
+public record CategoryRef(UUID id, String name) {
+
+    public static CategoryRef of(Category category) {
+        return new CategoryRef(category.getId(), category.getName());
+    }
+}
@@ -0,0 +1,22 @@
+package com.leon.blog.domain.projections;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Row count and latest modification of a table. Inserts and updates move the latest modification forward and
+ * deletes change the count, so any change to the table changes the stamp.
+ */
+public record CollectionVersion(long count, LocalDateTime lastUpdatedAt) {
+
+    public String stamp() {
+        return Long.toHexString(count) + "-" + toHex(lastUpdatedAt);
+    }
+
+    public static String toHex(LocalDateTime time) {
+        if(time == null) {
+            return "0";
+        }
+        return Long.toHexString(time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000);
+    }
+}
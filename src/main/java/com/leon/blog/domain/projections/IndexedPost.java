@@ -0,0 +1,6 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public record IndexedPost(UUID id, String title, String content, UUID categoryId) {
+}
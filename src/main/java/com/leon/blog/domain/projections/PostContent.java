@@ -0,0 +1,6 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public record PostContent(UUID id, String content, boolean rendered) {
+}
@@ -0,0 +1,7 @@
+package com.leon.blog.domain.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PostCreatedAt(UUID id, LocalDateTime createdAt) {
+}
@@ -0,0 +1,6 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public record PostSearchRow(UUID id, double rank, String snippet) {
+}
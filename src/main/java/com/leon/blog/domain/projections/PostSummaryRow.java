@@ -0,0 +1,10 @@
+package com.leon.blog.domain.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PostSummaryRow(UUID id, String title, String excerpt, Integer readingTime, Integer wordCount,
+                             LocalDateTime createdAt, LocalDateTime updatedAt,
+                             UUID authorId, String authorName,
+                             UUID categoryId, String categoryName, long categoryPostCount) {
+}
@@ -0,0 +1,6 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public record PostTagRow(UUID postId, UUID id, String name, long postCount) {
+}
@@ -0,0 +1,20 @@
+package com.leon.blog.domain.projections;
+
+import com.leon.blog.domain.PostStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last-modified times of everything a post's representation is built from: the post itself, its category and the
+ * most recently changed of its tags (whose post counts are part of the representation). The post's status comes
+ * along for callers that treat published posts differently.
+ */
+public record PostVersion(PostStatus status, LocalDateTime postUpdatedAt, LocalDateTime categoryUpdatedAt,
+                          LocalDateTime tagsUpdatedAt) {
+
+    public String stamp() {
+        return CollectionVersion.toHex(postUpdatedAt)
+                + "-" + CollectionVersion.toHex(categoryUpdatedAt)
+                + "-" + CollectionVersion.toHex(tagsUpdatedAt);
+    }
+}
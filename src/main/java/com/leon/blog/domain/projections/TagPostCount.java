@@ -0,0 +1,9 @@
+package com.leon.blog.domain.projections;
+
+import java.util.UUID;
+
+public interface TagPostCount {
+    UUID getId();
+    String getName();
+    Long getPostCount();
+}
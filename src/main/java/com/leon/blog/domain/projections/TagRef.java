@@ -0,0 +1,15 @@
+package com.leon.blog.domain.projections;
+
+import com.leon.blog.domain.entities.Tag;
+
+import java.util.UUID;
+
+/**
+ * Immutable id and name of a tag, as held in the lookup cache instead of the shared entity.
+ */
+public record TagRef(UUID id, String name) {
+
+    public static TagRef of(Tag tag) {
+        return new TagRef(tag.getId(), tag.getName());
+    }
+}
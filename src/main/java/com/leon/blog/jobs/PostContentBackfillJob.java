@@ -0,0 +1,80 @@
+package com.leon.blog.jobs;
+
+import com.leon.blog.content.ContentAnalyzer;
+import com.leon.blog.content.ContentMetrics;
+import com.leon.blog.content.MarkdownRenderer;
+import com.leon.blog.domain.projections.PostContent;
+import com.leon.blog.repositories.PostHtmlRepository;
+import com.leon.blog.repositories.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills in the excerpt, word count, reading time and rendered HTML of posts saved before those were computed at
+ * write time.
+ * Each batch is read and updated in its own short transaction, so the job never holds a long lock or a large
+ * persistence context, and it can be interrupted and resumed at any point. Writes skip posts edited or backfilled
+ * meanwhile, so the job can run on several instances at once, and a failed batch is logged and left for the next
+ * start rather than failing this one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostContentBackfillJob {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final PostRepository postRepository;
+    private final PostHtmlRepository postHtmlRepository;
+    private final ContentAnalyzer contentAnalyzer;
+    private final MarkdownRenderer markdownRenderer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.posts.content-backfill.batch-size:200}")
+    private int batchSize = 200;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        UUID afterId = FIRST_ID;
+        int backfilled = 0;
+        while(afterId != null) {
+            UUID after = afterId;
+            List<PostContent> batch;
+            try {
+                batch = transactionTemplate.execute(status -> {
+                    List<PostContent> posts = postRepository.findContentToBackfillAfter(after, Limit.of(batchSize));
+                    posts.forEach(this::backfill);
+                    return posts;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not backfill posts after {}, retrying with the next start", after, e);
+                break;
+            }
+            if(batch == null || batch.isEmpty()) {
+                break;
+            }
+            backfilled += batch.size();
+            afterId = batch.size() < batchSize ? null : batch.getLast().id();
+        }
+        if(backfilled > 0) {
+            log.info("Backfilled content metrics and HTML for {} posts", backfilled);
+        }
+    }
+
+    private void backfill(PostContent post) {
+        ContentMetrics metrics = contentAnalyzer.analyze(post.content());
+        postRepository.updateContentMetrics(post.id(), metrics.wordCount(), metrics.readingTime(), metrics.excerpt());
+        if(!post.rendered()) {
+            postHtmlRepository.insertIfAbsent(post.id(), markdownRenderer.render(post.content()));
+        }
+    }
+}
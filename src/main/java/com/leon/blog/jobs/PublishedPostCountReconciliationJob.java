@@ -0,0 +1,35 @@
+package com.leon.blog.jobs;
+
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Recomputes the denormalized published-post counters on categories and tags from the posts table,
+ * repairing any drift left behind by writes that bypassed {@code PostServiceImpl}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PublishedPostCountReconciliationJob {
+
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.counters.reconciliation-cron:0 0 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        int repairedCategories = categoryRepository.reconcilePublishedPostCounts();
+        int repairedTags = tagRepository.reconcilePublishedPostCounts();
+        if(repairedCategories > 0 || repairedTags > 0) {
+            log.warn("Repaired published post counts for {} categories and {} tags", repairedCategories, repairedTags);
+        }
+    }
+}
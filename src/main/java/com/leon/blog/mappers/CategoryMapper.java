@@ -1,32 +1,20 @@
 package com.leon.blog.mappers;
 
-import com.leon.blog.domain.PostStatus;
 import com.leon.blog.domain.dtos.CategoryDto;
 import com.leon.blog.domain.dtos.CreateCategoryRequest;
 import com.leon.blog.domain.entities.Category;
-import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.projections.CategoryPostCount;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface CategoryMapper {
 
-    @Mapping(target = "postCount", source="posts", qualifiedByName = "calculatePostCount")
+    @Mapping(target = "postCount", source = "publishedPostCount")
     CategoryDto toDto(Category category);
 
-    Category toEntity(CreateCategoryRequest createCategoryRequest);
+    CategoryDto toDto(CategoryPostCount categoryPostCount);
 
-    @Named("calculatePostCount")
-    default long calculatePostCount(List<Post> posts) {
-        if(null == posts) {
-            return 0;
-        }
-        return posts.stream()
-                .filter(post -> PostStatus.PUBLISHED.equals(post.getStatus()))
-                .count();
-    }
+    Category toEntity(CreateCategoryRequest createCategoryRequest);
 }
@@ -0,0 +1,26 @@
+package com.leon.blog.mappers;
+
+import com.leon.blog.domain.dtos.PostImportDto;
+import com.leon.blog.domain.entities.PostImport;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PostImportMapper {
+
+    @Mapping(target = "postsPerSecond", expression = "java(postsPerSecond(postImport))")
+    PostImportDto toDto(PostImport postImport);
+
+    default double postsPerSecond(PostImport postImport) {
+        if(postImport.getStartedAt() == null) {
+            return 0;
+        }
+        LocalDateTime end = postImport.getFinishedAt() != null ? postImport.getFinishedAt() : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(postImport.getStartedAt(), end).toMillis());
+        return (postImport.getCreatedPosts() + postImport.getRejectedPosts()) * 1000.0 / millis;
+    }
+}
@@ -1,16 +1,21 @@
 package com.leon.blog.mappers;
 
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.PostSearchHit;
+import com.leon.blog.domain.PostSummary;
 import com.leon.blog.domain.UpdatePostRequest;
 import com.leon.blog.domain.dtos.CreatePostRequestDto;
 import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.domain.dtos.PostSearchHitDto;
+import com.leon.blog.domain.dtos.PostSummaryDto;
 import com.leon.blog.domain.dtos.UpdatePostRequestDto;
 import com.leon.blog.domain.entities.Post;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        uses = {CategoryMapper.class, TagMapper.class})
 public interface PostMapper {
 
     @Mapping(target = "author", source = "author")
@@ -19,6 +24,17 @@ public interface PostMapper {
     @Mapping(target = "status", source = "status")
     PostDto toDto(Post post);
 
+    @Mapping(target = ".", source = "post")
+    @Mapping(target = "author.id", source = "post.authorId")
+    @Mapping(target = "author.name", source = "post.authorName")
+    @Mapping(target = "category.id", source = "post.categoryId")
+    @Mapping(target = "category.name", source = "post.categoryName")
+    @Mapping(target = "category.postCount", source = "post.categoryPostCount")
+    @Mapping(target = "tags", source = "tags")
+    PostSummaryDto toSummaryDto(PostSummary summary);
+
+    PostSearchHitDto toSearchHitDto(PostSearchHit hit);
+
     CreatePostRequest toCreatePostRequest(CreatePostRequestDto dto);
 
     UpdatePostRequest toUpdatePostRequest(UpdatePostRequestDto dto);
@@ -1,29 +1,20 @@
 package com.leon.blog.mappers;
 
-import com.leon.blog.domain.PostStatus;
 import com.leon.blog.domain.dtos.TagDto;
-import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.PostTagRow;
+import com.leon.blog.domain.projections.TagPostCount;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
 
-import java.util.Set;
-
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface TagMapper {
 
-    @Mapping(target = "postCount", source = "posts", qualifiedByName = "calculatePostCount")
+    @Mapping(target = "postCount", source = "publishedPostCount")
     TagDto toTagResponse(Tag tag);
 
-    @Named("calculatePostCount")
-    default Integer calculatePostCount(Set<Post> posts) {
-        if(posts == null) {
-            return 0;
-        }
-        return (int) posts.stream()
-                .filter(post -> PostStatus.PUBLISHED.equals(post.getStatus()))
-                .count();
-    }
+    TagDto toTagResponse(TagPostCount tagPostCount);
+
+    TagDto toTagResponse(PostTagRow postTagRow);
 }
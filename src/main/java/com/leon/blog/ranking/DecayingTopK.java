@@ -0,0 +1,130 @@
+package com.leon.blog.ranking;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The highest exponentially decayed scores among at most {@code capacity} items. An event of weight {@code w} at
+ * time {@code t} is worth {@code w * 2^(-(now - t) / halfLife)} at time {@code now}.
+ * <p>
+ * Scores are kept as {@code ln(w) + λt}, the logarithm of the event's weight grown forward from a fixed epoch rather
+ * than decayed back from the present. Every item then decays at the same rate, so their order never changes with
+ * time, nothing has to be rescaled as time passes, and an event is one {@code O(log capacity)} update. When full,
+ * an item scoring below every tracked one is dropped, otherwise it replaces the lowest.
+ */
+public class DecayingTopK {
+
+    public record ScoredItem(UUID id, double score) {
+    }
+
+    private record Entry(UUID id, double logScore) {
+    }
+
+    private static final Comparator<Entry> HIGHEST_FIRST = Comparator.comparingDouble(Entry::logScore).reversed()
+            .thenComparing(Entry::id);
+
+    private final int capacity;
+    // λ per millisecond: ln 2 / half-life.
+    private final double decayRate;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(HIGHEST_FIRST);
+
+    public DecayingTopK(int capacity, Duration halfLife) {
+        if(capacity < 1 || halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalArgumentException("Capacity and half-life must be positive");
+        }
+        this.capacity = capacity;
+        this.decayRate = Math.log(2) / halfLife.toMillis();
+    }
+
+    /**
+     * Adds an event of the given weight at the given time to the item's score.
+     *
+     * @return whether the item is tracked afterwards
+     */
+    public synchronized boolean add(UUID id, double weight, Instant time) {
+        if(!(weight > 0)) {
+            throw new IllegalArgumentException("Weight must be positive, got: " + weight);
+        }
+        double logWeight = Math.log(weight) + decayRate * time.toEpochMilli();
+        Entry existing = entries.get(id);
+        double logScore;
+        if(existing != null) {
+            ranking.remove(existing);
+            logScore = logAddExp(existing.logScore(), logWeight);
+        } else {
+            if(entries.size() >= capacity) {
+                Entry lowest = ranking.last();
+                if(logWeight <= lowest.logScore()) {
+                    return false;
+                }
+                ranking.pollLast();
+                entries.remove(lowest.id());
+            }
+            logScore = logWeight;
+        }
+        Entry entry = new Entry(id, logScore);
+        entries.put(id, entry);
+        ranking.add(entry);
+        return true;
+    }
+
+    /**
+     * Adds one event per item, all at the same time, under a single lock acquisition.
+     */
+    public synchronized void addAll(Map<UUID, Double> weights, Instant time) {
+        weights.forEach((id, weight) -> add(id, weight, time));
+    }
+
+    public synchronized void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if(entry != null) {
+            ranking.remove(entry);
+        }
+    }
+
+    public synchronized boolean contains(UUID id) {
+        return entries.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Ids of the highest scoring items, highest first, in time proportional to {@code limit}.
+     */
+    public synchronized List<UUID> top(int limit) {
+        List<UUID> top = new ArrayList<>(Math.min(limit, entries.size()));
+        for(Entry entry : ranking) {
+            if(top.size() == limit) {
+                break;
+            }
+            top.add(entry.id());
+        }
+        return top;
+    }
+
+    /**
+     * All tracked items with their scores decayed to the given time, highest first.
+     */
+    public synchronized List<ScoredItem> scoresAt(Instant time) {
+        double logNow = decayRate * time.toEpochMilli();
+        return ranking.stream()
+                .map(entry -> new ScoredItem(entry.id(), Math.exp(entry.logScore() - logNow)))
+                .toList();
+    }
+
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+}
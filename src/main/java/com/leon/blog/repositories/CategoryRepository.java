@@ -1,8 +1,12 @@
 package com.leon.blog.repositories;
 
 import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.projections.CategoryPostCount;
+import com.leon.blog.domain.projections.CollectionVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,8 +15,30 @@ import java.util.UUID;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
-    @Query("SELECT c FROM Category c LEFT JOIN FETCH c.posts")
-    List<Category> findAllWithPostCount();
+    @Query("""
+            SELECT c.id AS id, c.name AS name, c.publishedPostCount AS postCount
+            FROM Category c
+            ORDER BY c.name
+            """)
+    List<CategoryPostCount> findAllWithPostCount();
+
+    @Query("SELECT new com.leon.blog.domain.projections.CollectionVersion(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+    CollectionVersion findCollectionVersion();
+
+    @Modifying
+    @Query("UPDATE Category c SET c.publishedPostCount = c.publishedPostCount + :delta, c.updatedAt = LOCAL DATETIME WHERE c.id = :id")
+    void adjustPublishedPostCount(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+            UPDATE Category c SET c.updatedAt = LOCAL DATETIME, c.publishedPostCount = (
+                SELECT COUNT(p) FROM Post p
+                WHERE p.category = c AND p.status = com.leon.blog.domain.PostStatus.PUBLISHED)
+            WHERE c.publishedPostCount <> (
+                SELECT COUNT(p) FROM Post p
+                WHERE p.category = c AND p.status = com.leon.blog.domain.PostStatus.PUBLISHED)
+            """)
+    int reconcilePublishedPostCounts();
 
     boolean existsByNameIgnoreCase(String name);
 
@@ -0,0 +1,23 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.entities.PostHtml;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PostHtmlRepository extends JpaRepository<PostHtml, UUID> {
+
+    @Query("SELECT h.html FROM PostHtml h WHERE h.postId = :postId")
+    Optional<String> findHtmlByPostId(@Param("postId") UUID postId);
+
+    // Leaves HTML written meanwhile in place, e.g. by an edit or by the backfill job running on another instance.
+    @Modifying
+    @Query("INSERT INTO PostHtml (postId, html) VALUES (:postId, :html) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("postId") UUID postId, @Param("html") String html);
+}
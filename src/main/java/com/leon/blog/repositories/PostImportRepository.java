@@ -0,0 +1,24 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.entities.PostImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface PostImportRepository extends JpaRepository<PostImport, UUID> {
+
+    @Modifying
+    @Query("""
+            UPDATE PostImport i
+            SET i.status = com.leon.blog.domain.ImportStatus.FAILED, i.failureReason = :reason, i.finishedAt = :now
+            WHERE i.nodeId = :nodeId
+              AND i.status IN (com.leon.blog.domain.ImportStatus.QUEUED, com.leon.blog.domain.ImportStatus.RUNNING)
+            """)
+    int failUnfinished(@Param("nodeId") String nodeId, @Param("reason") String reason, @Param("now") LocalDateTime now);
+}
@@ -5,17 +5,200 @@ import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.IndexedPost;
+import com.leon.blog.domain.projections.PostCreatedAt;
+import com.leon.blog.domain.projections.PostContent;
+import com.leon.blog.domain.projections.PostTagLink;
+import com.leon.blog.domain.projections.PostTagRow;
+import com.leon.blog.domain.projections.PostVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, UUID> {
-    List<Post> findAllByStatusAndCategoryAndTagsContaining(PostStatus status, Category category, Tag tag);
-    List<Post> findAllByStatusAndCategory(PostStatus status, Category category);
-    List<Post> findAllByStatusAndTagsContaining(PostStatus status, Tag tag);
-    List<Post> findAllByStatus(PostStatus status);
+public interface PostRepository extends JpaRepository<Post, UUID>, PostSearchRepository, PostSummaryRepository {
+
+    @EntityGraph(Post.DETAIL_GRAPH)
+    Optional<Post> findWithDetailsById(UUID id);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAllByIdIn(Collection<UUID> ids);
+
+    // Keyset pagination: newest first, (createdAt, id) as a unique sort key so pages never overlap.
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus status, Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("""
+            SELECT p FROM Post p
+            WHERE p.status = :status
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findPageByStatusAfter(@Param("status") PostStatus status,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAllByStatusAndCategoryOrderByCreatedAtDescIdDesc(PostStatus status, Category category, Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("""
+            SELECT p FROM Post p
+            WHERE p.status = :status AND p.category = :category
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findPageByStatusAndCategoryAfter(@Param("status") PostStatus status,
+                                                @Param("category") Category category,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") UUID id,
+                                                Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAllByStatusAndTagsContainingOrderByCreatedAtDescIdDesc(PostStatus status, Tag tag, Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("""
+            SELECT p FROM Post p JOIN p.tags t
+            WHERE p.status = :status AND t = :tag
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findPageByStatusAndTagAfter(@Param("status") PostStatus status,
+                                           @Param("tag") Tag tag,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    List<Post> findAllByStatusAndCategoryAndTagsContainingOrderByCreatedAtDescIdDesc(
+            PostStatus status, Category category, Tag tag, Limit limit);
+
+    @EntityGraph(Post.LISTING_GRAPH)
+    @Query("""
+            SELECT p FROM Post p JOIN p.tags t
+            WHERE p.status = :status AND p.category = :category AND t = :tag
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<Post> findPageByStatusAndCategoryAndTagAfter(@Param("status") PostStatus status,
+                                                      @Param("category") Category category,
+                                                      @Param("tag") Tag tag,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") UUID id,
+                                                      Limit limit);
+
+    // Tags of a page of summaries in one query, by name so each post lists them in a stable order.
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostTagRow(p.id, t.id, t.name, t.publishedPostCount)
+            FROM Post p JOIN p.tags t
+            WHERE p.id IN :postIds
+            ORDER BY t.name
+            """)
+    List<PostTagRow> findTagRowsByPostIds(@Param("postIds") Collection<UUID> postIds);
+
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostVersion(p.status, p.updatedAt, c.updatedAt, MAX(t.updatedAt))
+            FROM Post p JOIN p.category c LEFT JOIN p.tags t
+            WHERE p.id = :id
+            GROUP BY p.id, p.status, p.updatedAt, c.updatedAt
+            """)
+    Optional<PostVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostCreatedAt(p.id, p.createdAt)
+            FROM Post p WHERE p.status = :status
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostCreatedAt> findNewest(@Param("status") PostStatus status, Limit limit);
+
+    @Query("SELECT p.updatedAt FROM Post p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") UUID id);
+
+    @Query("SELECT p.content FROM Post p WHERE p.id = :id")
+    Optional<String> findContentById(@Param("id") UUID id);
+
+    @EntityGraph(Post.LISTING_GRAPH)
     List<Post> findAllByAuthorAndStatus(User author, PostStatus status);
+
+    // Keyset pages for exports, oldest first: ids only, then the page's posts with their details in a second query.
+
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostCreatedAt(p.id, p.createdAt)
+            FROM Post p WHERE p.status = :status
+            ORDER BY p.createdAt, p.id
+            """)
+    List<PostCreatedAt> findExportPage(@Param("status") PostStatus status, Limit limit);
+
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostCreatedAt(p.id, p.createdAt)
+            FROM Post p
+            WHERE p.status = :status
+              AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id))
+            ORDER BY p.createdAt, p.id
+            """)
+    List<PostCreatedAt> findExportPageAfter(@Param("status") PostStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") UUID id,
+                                            Limit limit);
+
+    @EntityGraph(Post.DETAIL_GRAPH)
+    List<Post> findAllWithDetailsByIdIn(Collection<UUID> ids);
+
+    // Scalar streams for bulk readers: rows never enter the persistence context, so memory stays flat.
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.IndexedPost(p.id, p.title, p.content, p.category.id)
+            FROM Post p WHERE p.status = :status
+            """)
+    Stream<IndexedPost> streamIndexedPosts(@Param("status") PostStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostTagLink(p.id, t.id)
+            FROM Post p JOIN p.tags t WHERE p.status = :status
+            """)
+    Stream<PostTagLink> streamTagLinks(@Param("status") PostStatus status);
+
+    // Backfill of content metrics and HTML for rows written before they existed, walked in id order one batch at a time.
+
+    @Query("""
+            SELECT new com.leon.blog.domain.projections.PostContent(
+                p.id, p.content, CASE WHEN h.postId IS NULL THEN false ELSE true END)
+            FROM Post p LEFT JOIN PostHtml h ON h.postId = p.id
+            WHERE (p.excerpt IS NULL OR p.wordCount IS NULL OR h.postId IS NULL) AND p.id > :afterId
+            ORDER BY p.id
+            """)
+    List<PostContent> findContentToBackfillAfter(@Param("afterId") UUID afterId, Limit limit);
+
+    // Leaves updatedAt alone: the post itself has not been edited. Skips a post edited since it was read, whose edit
+    // already stored metrics of the new content.
+    @Modifying
+    @Query("""
+            UPDATE Post p
+            SET p.wordCount = :wordCount, p.readingTime = :readingTime, p.excerpt = :excerpt
+            WHERE p.id = :id AND (p.excerpt IS NULL OR p.wordCount IS NULL)
+            """)
+    int updateContentMetrics(@Param("id") UUID id,
+                             @Param("wordCount") int wordCount,
+                             @Param("readingTime") int readingTime,
+                             @Param("excerpt") String excerpt);
 }
@@ -0,0 +1,15 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.SearchCursor;
+import com.leon.blog.domain.projections.PostSearchRow;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PostSearchRepository {
+
+    /**
+     * Published posts matching the query, best match first, starting after the given cursor.
+     */
+    List<PostSearchRow> search(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit);
+}
@@ -0,0 +1,139 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.SearchCursor;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.search.Snippets;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Uses the generated {@code posts.search_vector} column and its GIN index on PostgreSQL
+ * (see {@code db/search-postgresql.sql}). Other databases, such as H2 in tests, fall back to a
+ * case-insensitive substring match that ranks title matches above content matches.
+ */
+public class PostSearchRepositoryImpl implements PostSearchRepository {
+
+    // ts_headline copies the content verbatim, so it delimits matches with characters that survive HTML escaping.
+    private static final String SNIPPET_OPTIONS = "StartSel=" + Snippets.MATCH_START + ", StopSel=" + Snippets.MATCH_END
+            + ", MinWords=15, MaxWords=35, MaxFragments=2";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean fullTextSearchSupported;
+
+    @Override
+    public List<PostSearchRow> search(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit) {
+        return isFullTextSearchSupported()
+                ? searchFullText(query, categoryId, tagId, after, limit)
+                : searchSubstring(query, categoryId, tagId, after, limit);
+    }
+
+    private List<PostSearchRow> searchFullText(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT page.id, page.rank, ts_headline('english', page.content, page.query, :snippetOptions)
+                FROM (
+                    SELECT hit.id, hit.rank, hit.content, hit.query
+                    FROM (
+                        SELECT p.id, p.content, q.query,
+                               CAST(ts_rank(p.search_vector, q.query) AS double precision) AS rank
+                        FROM posts p CROSS JOIN websearch_to_tsquery('english', :query) AS q(query)
+                        WHERE p.status = :status AND p.search_vector @@ q.query
+                """);
+        if(categoryId != null) {
+            sql.append(" AND p.category_id = :categoryId");
+        }
+        if(tagId != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM post_tags pt WHERE pt.post_id = p.id AND pt.tag_id = :tagId)");
+        }
+        sql.append(") hit");
+        if(after != null) {
+            sql.append(" WHERE hit.rank < :afterRank OR (hit.rank = :afterRank AND hit.id < :afterId)");
+        }
+        // Rank and page first so snippets are only highlighted for the rows actually returned.
+        sql.append(" ORDER BY hit.rank DESC, hit.id DESC LIMIT :limit) page ORDER BY page.rank DESC, page.id DESC");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .setParameter("snippetOptions", SNIPPET_OPTIONS)
+                .setParameter("query", query)
+                .setParameter("status", PostStatus.PUBLISHED.name())
+                .setParameter("limit", limit);
+        bindFilters(nativeQuery, categoryId, tagId, after);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = nativeQuery.getResultList();
+        return rows.stream()
+                .map(row -> new PostSearchRow(toUuid(row[0]), ((Number) row[1]).doubleValue(),
+                        Snippets.fromDelimited((String) row[2])))
+                .toList();
+    }
+
+    private List<PostSearchRow> searchSubstring(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit) {
+        String rank = "CASE WHEN LOWER(p.title) LIKE :pattern ESCAPE '\\' THEN 2.0 ELSE 1.0 END";
+        StringBuilder jpql = new StringBuilder("SELECT p.id, " + rank + ", p.content FROM Post p"
+                + " WHERE p.status = :status"
+                + " AND (LOWER(p.title) LIKE :pattern ESCAPE '\\' OR LOWER(p.content) LIKE :pattern ESCAPE '\\')");
+        if(categoryId != null) {
+            jpql.append(" AND p.category.id = :categoryId");
+        }
+        if(tagId != null) {
+            jpql.append(" AND EXISTS (SELECT t FROM p.tags t WHERE t.id = :tagId)");
+        }
+        if(after != null) {
+            jpql.append(" AND (" + rank + " < :afterRank OR (" + rank + " = :afterRank AND p.id < :afterId))");
+        }
+        jpql.append(" ORDER BY " + rank + " DESC, p.id DESC");
+
+        String term = query.toLowerCase(Locale.ROOT);
+        Query jpqlQuery = entityManager.createQuery(jpql.toString())
+                .setParameter("status", PostStatus.PUBLISHED)
+                .setParameter("pattern", "%" + escapeLike(term) + "%")
+                .setMaxResults(limit);
+        bindFilters(jpqlQuery, categoryId, tagId, after);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = jpqlQuery.getResultList();
+        return rows.stream()
+                .map(row -> new PostSearchRow((UUID) row[0], ((Number) row[1]).doubleValue(), Snippets.highlight((String) row[2], List.of(term))))
+                .toList();
+    }
+
+    private void bindFilters(Query query, UUID categoryId, UUID tagId, SearchCursor after) {
+        if(categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if(tagId != null) {
+            query.setParameter("tagId", tagId);
+        }
+        if(after != null) {
+            query.setParameter("afterRank", after.rank());
+            query.setParameter("afterId", after.id());
+        }
+    }
+
+    private boolean isFullTextSearchSupported() {
+        if(fullTextSearchSupported == null) {
+            fullTextSearchSupported = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return fullTextSearchSupported;
+    }
+
+    private static UUID toUuid(Object value) {
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
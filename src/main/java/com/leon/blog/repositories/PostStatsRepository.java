@@ -0,0 +1,17 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.entities.PostStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PostStatsRepository extends JpaRepository<PostStats, UUID>, PostStatsUpsertRepository {
+
+    @Query("SELECT s.viewCount FROM PostStats s WHERE s.postId = :postId")
+    Optional<Long> findViewCountByPostId(@Param("postId") UUID postId);
+}
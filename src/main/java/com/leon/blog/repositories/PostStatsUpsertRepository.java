@@ -0,0 +1,13 @@
+package com.leon.blog.repositories;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface PostStatsUpsertRepository {
+
+    /**
+     * Adds the views to each post's stored count in one JDBC batch, creating missing rows. Posts deleted in the
+     * meantime are skipped.
+     */
+    void addViewCounts(Map<UUID, Long> viewsByPost);
+}
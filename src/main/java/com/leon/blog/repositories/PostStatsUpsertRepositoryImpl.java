@@ -0,0 +1,69 @@
+package com.leon.blog.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Uses {@code INSERT ... ON CONFLICT} on PostgreSQL, which stays correct when several instances flush the same post
+ * at once, and a standard {@code MERGE} elsewhere, such as H2 in tests. Both read the id from {@code posts} so a view
+ * of a post deleted before the flush inserts nothing. Rows are written in post id order, so instances flushing
+ * overlapping batches lock them in the same order and cannot deadlock.
+ */
+public class PostStatsUpsertRepositoryImpl implements PostStatsUpsertRepository {
+
+    private static final String POSTGRESQL_UPSERT = """
+            INSERT INTO post_stats (post_id, view_count)
+            SELECT p.id, CAST(? AS BIGINT) FROM posts p WHERE p.id = ?
+            ON CONFLICT (post_id) DO UPDATE SET view_count = post_stats.view_count + EXCLUDED.view_count
+            """;
+
+    private static final String STANDARD_MERGE = """
+            MERGE INTO post_stats s
+            USING (SELECT p.id AS post_id, CAST(? AS BIGINT) AS views FROM posts p WHERE p.id = ?) v
+            ON s.post_id = v.post_id
+            WHEN MATCHED THEN UPDATE SET view_count = s.view_count + v.views
+            WHEN NOT MATCHED THEN INSERT (post_id, view_count) VALUES (v.post_id, v.views)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String upsertSql;
+
+    @Override
+    public void addViewCounts(Map<UUID, Long> viewsByPost) {
+        if(viewsByPost.isEmpty()) {
+            return;
+        }
+        String sql = upsertSql();
+        Map<UUID, Long> byPostId = new TreeMap<>(viewsByPost);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for(Map.Entry<UUID, Long> views : byPostId.entrySet()) {
+                    statement.setLong(1, views.getValue());
+                    statement.setObject(2, views.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private String upsertSql() {
+        if(upsertSql == null) {
+            upsertSql = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect ? POSTGRESQL_UPSERT : STANDARD_MERGE;
+        }
+        return upsertSql;
+    }
+}
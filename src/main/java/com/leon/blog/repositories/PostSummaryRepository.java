@@ -0,0 +1,15 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostCursor;
+import com.leon.blog.domain.projections.PostSummaryRow;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PostSummaryRepository {
+
+    /**
+     * Published posts newest first, starting after the given cursor, without their content.
+     */
+    List<PostSummaryRow> findSummaries(UUID categoryId, UUID tagId, PostCursor after, int limit);
+}
@@ -0,0 +1,57 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostCursor;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.projections.PostSummaryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects only the columns a listing shows, so the TEXT content column is never read. Filters are added to one
+ * query as needed and keep to the same (status, created_at, id) keyset order and indexes as the entity listings.
+ */
+public class PostSummaryRepositoryImpl implements PostSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PostSummaryRow> findSummaries(UUID categoryId, UUID tagId, PostCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                SELECT new com.leon.blog.domain.projections.PostSummaryRow(
+                    p.id, p.title, p.excerpt, p.readingTime, p.wordCount, p.createdAt, p.updatedAt,
+                    a.id, a.name, c.id, c.name, c.publishedPostCount)
+                FROM Post p JOIN p.author a JOIN p.category c
+                WHERE p.status = :status
+                """);
+        if(categoryId != null) {
+            jpql.append(" AND c.id = :categoryId");
+        }
+        if(tagId != null) {
+            jpql.append(" AND EXISTS (SELECT t FROM p.tags t WHERE t.id = :tagId)");
+        }
+        if(after != null) {
+            jpql.append(" AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))");
+        }
+        jpql.append(" ORDER BY p.createdAt DESC, p.id DESC");
+
+        TypedQuery<PostSummaryRow> query = entityManager.createQuery(jpql.toString(), PostSummaryRow.class)
+                .setParameter("status", PostStatus.PUBLISHED)
+                .setMaxResults(limit);
+        if(categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if(tagId != null) {
+            query.setParameter("tagId", tagId);
+        }
+        if(after != null) {
+            query.setParameter("createdAt", after.createdAt());
+            query.setParameter("id", after.id());
+        }
+        return query.getResultList();
+    }
+}
@@ -1,8 +1,12 @@
 package com.leon.blog.repositories;
 
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.CollectionVersion;
+import com.leon.blog.domain.projections.TagPostCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,8 +16,30 @@ import java.util.UUID;
 @Repository
 public interface TagRepository extends JpaRepository<Tag, UUID> {
 
-    @Query("SELECT t FROM Tag t LEFT JOIN FETCH t.posts")
-    List<Tag> findAllWithPostCount();
+    @Query("""
+            SELECT t.id AS id, t.name AS name, t.publishedPostCount AS postCount
+            FROM Tag t
+            ORDER BY t.name
+            """)
+    List<TagPostCount> findAllWithPostCount();
+
+    @Query("SELECT new com.leon.blog.domain.projections.CollectionVersion(COUNT(t), MAX(t.updatedAt)) FROM Tag t")
+    CollectionVersion findCollectionVersion();
+
+    @Modifying
+    @Query("UPDATE Tag t SET t.publishedPostCount = t.publishedPostCount + :delta, t.updatedAt = LOCAL DATETIME WHERE t.id IN :ids")
+    void adjustPublishedPostCount(@Param("ids") Set<UUID> ids, @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+            UPDATE Tag t SET t.updatedAt = LOCAL DATETIME, t.publishedPostCount = (
+                SELECT COUNT(p) FROM Post p JOIN p.tags pt
+                WHERE pt = t AND p.status = com.leon.blog.domain.PostStatus.PUBLISHED)
+            WHERE t.publishedPostCount <> (
+                SELECT COUNT(p) FROM Post p JOIN p.tags pt
+                WHERE pt = t AND p.status = com.leon.blog.domain.PostStatus.PUBLISHED)
+            """)
+    int reconcilePublishedPostCounts();
 
     List<Tag> findByNameIn(Set<String> names);
 }
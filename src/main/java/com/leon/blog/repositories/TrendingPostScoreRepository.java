@@ -0,0 +1,37 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.TrendingPostScore;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TrendingPostScoreRepository extends JpaRepository<TrendingPostScore, UUID>,
+        TrendingPostScoreSnapshotRepository {
+
+    /**
+     * Returns the highest scores, decayed to a common time, of posts with the given status. Decay preserves order, so
+     * rows are ranked by the base-2 logarithm of that decayed score: {@code log2(score) + scoredAt / halfLife}.
+     */
+    @Query("""
+            SELECT s FROM TrendingPostScore s
+            WHERE s.post.status = :status AND s.score > 0
+            ORDER BY ln(s.score) / ln(2) + extract(epoch from s.scoredAt) / :halfLifeSeconds DESC
+            """)
+    List<TrendingPostScore> findTopByPostStatus(@Param("status") PostStatus status,
+                                                @Param("halfLifeSeconds") double halfLifeSeconds,
+                                                Limit limit);
+
+    // Scores not added to for this long have decayed to nothing.
+    @Modifying
+    @Query("DELETE FROM TrendingPostScore s WHERE s.scoredAt < :before")
+    int deleteScoredBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,17 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface TrendingPostScoreSnapshotRepository {
+
+    /**
+     * Adds the score each post gained since the previous snapshot to its stored score, decayed from its own time to
+     * {@code scoredAt}, in one JDBC batch. Instances that snapshot at the same time each add their own share. Posts
+     * deleted in the meantime are skipped.
+     */
+    void mergeScores(List<ScoredItem> gained, Instant scoredAt, Duration halfLife);
+}
@@ -0,0 +1,86 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Uses {@code INSERT ... ON CONFLICT} on PostgreSQL and a {@code MERGE} elsewhere, such as H2 in tests. Rows are
+ * written in post id order, so instances snapshotting at once lock them in the same order and cannot deadlock.
+ */
+public class TrendingPostScoreSnapshotRepositoryImpl implements TrendingPostScoreSnapshotRepository {
+
+    private static final String POSTGRESQL_UPSERT = """
+            INSERT INTO trending_post_scores (post_id, score, scored_at)
+            SELECT p.id, CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP WITH TIME ZONE) FROM posts p WHERE p.id = ?
+            ON CONFLICT (post_id) DO UPDATE SET
+                score = trending_post_scores.score * POWER(0.5,
+                        EXTRACT(EPOCH FROM EXCLUDED.scored_at - trending_post_scores.scored_at)
+                        / CAST(? AS DOUBLE PRECISION))
+                    + EXCLUDED.score,
+                scored_at = EXCLUDED.scored_at
+            """;
+
+    private static final String STANDARD_MERGE = """
+            MERGE INTO trending_post_scores s
+            USING (SELECT p.id AS post_id, CAST(? AS DOUBLE PRECISION) AS score,
+                          CAST(? AS TIMESTAMP WITH TIME ZONE) AS scored_at
+                   FROM posts p WHERE p.id = ?) g
+            ON s.post_id = g.post_id
+            WHEN MATCHED THEN UPDATE SET
+                score = s.score * POWER(0.5, DATEDIFF('MILLISECOND', s.scored_at, g.scored_at) / 1000.0
+                        / CAST(? AS DOUBLE PRECISION))
+                    + g.score,
+                scored_at = g.scored_at
+            WHEN NOT MATCHED THEN INSERT (post_id, score, scored_at) VALUES (g.post_id, g.score, g.scored_at)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String upsertSql;
+
+    @Override
+    public void mergeScores(List<ScoredItem> gained, Instant scoredAt, Duration halfLife) {
+        if(gained.isEmpty()) {
+            return;
+        }
+        String sql = upsertSql();
+        OffsetDateTime timestamp = scoredAt.atOffset(ZoneOffset.UTC);
+        double halfLifeSeconds = halfLife.toMillis() / 1000.0;
+        List<ScoredItem> byPostId = gained.stream().sorted(Comparator.comparing(ScoredItem::id)).toList();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for(ScoredItem score : byPostId) {
+                    statement.setDouble(1, score.score());
+                    statement.setObject(2, timestamp);
+                    statement.setObject(3, score.id());
+                    statement.setDouble(4, halfLifeSeconds);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private String upsertSql() {
+        if(upsertSql == null) {
+            upsertSql = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect ? POSTGRESQL_UPSERT : STANDARD_MERGE;
+        }
+        return upsertSql;
+    }
+}
@@ -0,0 +1,376 @@
+package com.leon.blog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory BM25 index over documents identified by UUID. Documents are numbered internally with dense ints,
+ * posting lists are primitive int arrays sorted by document number, and each document remembers its distinct
+ * terms so it can be removed without rescanning the index. Readers share a lock; writers are exclusive.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Title terms count this many times so title matches outrank body matches, like the tsvector weights.
+    private static final int TITLE_BOOST = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Comparator<ScoredDocument> BEST_FIRST = Comparator.comparingDouble(ScoredDocument::score)
+            .reversed()
+            .thenComparing(ScoredDocument::id, Comparator.reverseOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<PostingList> postings = new ArrayList<>();
+
+    private final Map<UUID, Integer> docNumbers = new HashMap<>();
+    private UUID[] docIds = new UUID[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    private int[][] docTerms = new int[INITIAL_CAPACITY][];
+    private UUID[] docCategories = new UUID[INITIAL_CAPACITY];
+    private UUID[][] docTags = new UUID[INITIAL_CAPACITY][];
+    private int nextDocNumber;
+    private long totalLength;
+
+    // Score arrays of finished searches, reused so a query does not allocate per indexed document. Pooled rather
+    // than thread-local because with virtual threads every request runs on a fresh thread.
+    private final Deque<ScoreScratch> scratch = new ConcurrentLinkedDeque<>();
+
+    public record ScoredDocument(UUID id, double score) {
+    }
+
+    /**
+     * Adds the document, replacing any previous version with the same id.
+     */
+    public void put(UUID id, String title, String content, UUID categoryId, Collection<UUID> tagIds) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for(String token : Tokenizer.tokenize(title)) {
+            frequencies.merge(token, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for(String token : Tokenizer.tokenize(content)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if(nextDocNumber - docNumbers.size() > Math.max(INITIAL_CAPACITY, docNumbers.size())) {
+                compactLocked();
+            }
+            int docNumber = nextDocNumber++;
+            ensureCapacity(docNumber + 1);
+
+            int[] terms = new int[frequencies.size()];
+            int i = 0;
+            for(Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                    postings.add(new PostingList());
+                    return postings.size() - 1;
+                });
+                // Document numbers only grow, so appending keeps every posting list sorted.
+                postings.get(termId).append(docNumber, entry.getValue());
+                terms[i++] = termId;
+            }
+
+            docNumbers.put(id, docNumber);
+            docIds[docNumber] = id;
+            docLengths[docNumber] = length;
+            docTerms[docNumber] = terms;
+            docCategories[docNumber] = categoryId;
+            docTags[docNumber] = tagIds == null ? new UUID[0] : tagIds.toArray(UUID[]::new);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            docNumbers.clear();
+            docIds = new UUID[INITIAL_CAPACITY];
+            docLengths = new int[INITIAL_CAPACITY];
+            docTerms = new int[INITIAL_CAPACITY][];
+            docCategories = new UUID[INITIAL_CAPACITY];
+            docTags = new UUID[INITIAL_CAPACITY][];
+            nextDocNumber = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching any query term, best BM25 score first (ties broken by descending id), restricted to the
+     * given category and tag when not null and to positions strictly after (afterScore, afterId) when given.
+     */
+    public List<ScoredDocument> search(String query, UUID categoryId, UUID tagId,
+                                       Double afterScore, UUID afterId, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            int documentCount = docNumbers.size();
+            if(documentCount == 0 || queryTerms.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            ScoreScratch scores = scratch.poll();
+            if(scores == null) {
+                scores = new ScoreScratch();
+            }
+            try {
+                scores.ensureCapacity(docIds.length);
+                return topDocuments(scores, queryTerms, documentCount, categoryId, tagId, afterScore, afterId, limit);
+            } finally {
+                scores.reset();
+                scratch.push(scores);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ScoredDocument> topDocuments(ScoreScratch scores, Set<String> queryTerms, int documentCount,
+                                              UUID categoryId, UUID tagId, Double afterScore, UUID afterId,
+                                              int limit) {
+        float averageLength = (float) totalLength / documentCount;
+        for(String term : queryTerms) {
+            Integer termId = termIds.get(term);
+            if(termId == null) {
+                continue;
+            }
+            PostingList postingList = postings.get(termId);
+            int documentFrequency = postingList.size;
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for(int i = 0; i < postingList.size; i++) {
+                int docNumber = postingList.docs[i];
+                int frequency = postingList.frequencies[i];
+                float norm = K1 * (1 - B + B * docLengths[docNumber] / averageLength);
+                scores.add(docNumber, (float) (idf * frequency * (K1 + 1) / (frequency + norm)));
+            }
+        }
+
+        // Keep only the best `limit` candidates; the head of this queue is the worst of them.
+        PriorityQueue<ScoredDocument> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for(int i = 0; i < scores.touchedCount; i++) {
+            int docNumber = scores.touched[i];
+            if(categoryId != null && !categoryId.equals(docCategories[docNumber])) {
+                continue;
+            }
+            if(tagId != null && !Arrays.asList(docTags[docNumber]).contains(tagId)) {
+                continue;
+            }
+            ScoredDocument candidate = new ScoredDocument(docIds[docNumber], scores.scores[docNumber]);
+            if(afterScore != null
+                    && BEST_FIRST.compare(candidate, new ScoredDocument(afterId, afterScore)) <= 0) {
+                continue;
+            }
+            top.add(candidate);
+            if(top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ScoredDocument> results = new ArrayList<>(top);
+        results.sort(BEST_FIRST);
+        return results;
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough retained size in bytes, assuming compressed oops: arrays, posting lists, dictionary and id maps.
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for(Map.Entry<String, Integer> entry : termIds.entrySet()) {
+                // HashMap node + String + backing byte[] (Latin-1 compact strings) + boxed Integer
+                bytes += 32 + 24 + 16 + entry.getKey().length() + 16;
+            }
+            for(PostingList postingList : postings) {
+                bytes += 24 + 2 * (16 + 4L * postingList.docs.length);
+            }
+            int capacity = docIds.length;
+            bytes += 5 * (16 + 4L * capacity) + 4L * capacity;
+            for(int docNumber = 0; docNumber < nextDocNumber; docNumber++) {
+                if(docTerms[docNumber] != null) {
+                    bytes += 16 + 4L * docTerms[docNumber].length;
+                    bytes += 16 + 4L * docTags[docNumber].length + 32L * docTags[docNumber].length;
+                    // UUID id + category UUID + map node + boxed Integer
+                    bytes += 32 + 32 + 32 + 16;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID id) {
+        Integer docNumber = docNumbers.remove(id);
+        if(docNumber == null) {
+            return;
+        }
+        for(int termId : docTerms[docNumber]) {
+            postings.get(termId).remove(docNumber);
+        }
+        totalLength -= docLengths[docNumber];
+        docIds[docNumber] = null;
+        docLengths[docNumber] = 0;
+        docTerms[docNumber] = null;
+        docCategories[docNumber] = null;
+        docTags[docNumber] = null;
+    }
+
+    /**
+     * Renumbers live documents densely after many updates and removals. Numbering keeps relative order, so
+     * posting lists stay sorted.
+     */
+    private void compactLocked() {
+        int[] renumbered = new int[nextDocNumber];
+        int live = 0;
+        for(int docNumber = 0; docNumber < nextDocNumber; docNumber++) {
+            if(docTerms[docNumber] == null) {
+                renumbered[docNumber] = -1;
+                continue;
+            }
+            renumbered[docNumber] = live;
+            docIds[live] = docIds[docNumber];
+            docLengths[live] = docLengths[docNumber];
+            docTerms[live] = docTerms[docNumber];
+            docCategories[live] = docCategories[docNumber];
+            docTags[live] = docTags[docNumber];
+            docNumbers.put(docIds[live], live);
+            live++;
+        }
+        for(int docNumber = live; docNumber < nextDocNumber; docNumber++) {
+            docIds[docNumber] = null;
+            docLengths[docNumber] = 0;
+            docTerms[docNumber] = null;
+            docCategories[docNumber] = null;
+            docTags[docNumber] = null;
+        }
+        for(PostingList postingList : postings) {
+            for(int i = 0; i < postingList.size; i++) {
+                postingList.docs[i] = renumbered[postingList.docs[i]];
+            }
+        }
+        nextDocNumber = live;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= docIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, docIds.length * 2);
+        docIds = Arrays.copyOf(docIds, newCapacity);
+        docLengths = Arrays.copyOf(docLengths, newCapacity);
+        docTerms = Arrays.copyOf(docTerms, newCapacity);
+        docCategories = Arrays.copyOf(docCategories, newCapacity);
+        docTags = Arrays.copyOf(docTags, newCapacity);
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void append(int docNumber, int frequency) {
+            if(size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = docNumber;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int docNumber) {
+            int index = Arrays.binarySearch(docs, 0, size, docNumber);
+            if(index < 0) {
+                return;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Per-document scores of one search. Only the documents it touched are reset afterwards, so the arrays can be
+     * handed to the next search without clearing them whole.
+     */
+    private static final class ScoreScratch {
+        private float[] scores = new float[0];
+        private int[] touched = new int[0];
+        private int touchedCount;
+
+        private void ensureCapacity(int capacity) {
+            if(scores.length < capacity) {
+                scores = new float[capacity];
+                touched = new int[capacity];
+            }
+        }
+
+        private void add(int docNumber, float score) {
+            // BM25 term scores are always positive, so zero means untouched.
+            if(scores[docNumber] == 0) {
+                touched[touchedCount++] = docNumber;
+            }
+            scores[docNumber] += score;
+        }
+
+        private void reset() {
+            for(int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
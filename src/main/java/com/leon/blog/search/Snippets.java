@@ -0,0 +1,64 @@
+package com.leon.blog.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Builds a short excerpt around the first occurrence of any search term, wrapped in {@code <mark>} tags. The text
+ * around the tags is HTML-escaped.
+ */
+public final class Snippets {
+
+    /**
+     * Private-use characters that delimit matches in snippets highlighted elsewhere, such as by {@code ts_headline},
+     * so the text can be escaped before the delimiters become tags.
+     */
+    public static final char MATCH_START = '\uE000';
+    public static final char MATCH_END = '\uE001';
+
+    private static final int CONTEXT = 80;
+
+    private Snippets() {
+    }
+
+    /**
+     * HTML-escapes a snippet whose matches are delimited by {@link #MATCH_START} and {@link #MATCH_END}, then turns
+     * the delimiters into {@code <mark>} tags. Post content is user input and must never reach clients as markup.
+     */
+    public static String fromDelimited(String snippet) {
+        return escape(snippet)
+                .replace(String.valueOf(MATCH_START), "<mark>")
+                .replace(String.valueOf(MATCH_END), "</mark>");
+    }
+
+    public static String highlight(String content, Collection<String> terms) {
+        String lowerContent = content.toLowerCase(Locale.ROOT);
+        int matchStart = -1;
+        int matchLength = 0;
+        for(String term : terms) {
+            int index = term.isEmpty() ? -1 : lowerContent.indexOf(term.toLowerCase(Locale.ROOT));
+            if(index >= 0 && (matchStart < 0 || index < matchStart)) {
+                matchStart = index;
+                matchLength = term.length();
+            }
+        }
+        // Lower-casing can change the length of some characters, in which case offsets no longer line up.
+        if(matchStart < 0 || lowerContent.length() != content.length()) {
+            return content.length() <= 2 * CONTEXT ? escape(content) : escape(content.substring(0, 2 * CONTEXT)) + "…";
+        }
+        int matchEnd = matchStart + matchLength;
+        int start = Math.max(0, matchStart - CONTEXT);
+        int end = Math.min(content.length(), matchEnd + CONTEXT);
+        return (start > 0 ? "…" : "")
+                + escape(content.substring(start, matchStart))
+                + "<mark>" + escape(content.substring(matchStart, matchEnd)) + "</mark>"
+                + escape(content.substring(matchEnd, end))
+                + (end < content.length() ? "…" : "");
+    }
+
+    private static String escape(String text) {
+        return HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+}
@@ -0,0 +1,105 @@
+package com.leon.blog.search;
+
+import com.leon.blog.domain.projections.TagPostCount;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Immutable prefix index over tag names. Names are lower-cased and kept in one sorted array, so the tags starting
+ * with a prefix form a contiguous range found by two binary searches; the range is then ranked by post count.
+ */
+public class TagPrefixIndex {
+
+    public static final TagPrefixIndex EMPTY = new TagPrefixIndex(new Suggestion[0], new String[0]);
+
+    private static final Comparator<Suggestion> MOST_USED_FIRST = Comparator
+            .comparingLong(Suggestion::getPostCount).reversed()
+            .thenComparing(Suggestion::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private final Suggestion[] tags;
+    private final String[] keys;
+
+    private TagPrefixIndex(Suggestion[] tags, String[] keys) {
+        this.tags = tags;
+        this.keys = keys;
+    }
+
+    public static TagPrefixIndex of(Collection<? extends TagPostCount> tags) {
+        Suggestion[] sorted = tags.stream()
+                .map(tag -> new Suggestion(tag.getId(), tag.getName(),
+                        tag.getPostCount() == null ? 0L : tag.getPostCount()))
+                .sorted(Comparator.comparing(tag -> normalize(tag.getName())))
+                .toArray(Suggestion[]::new);
+        String[] keys = new String[sorted.length];
+        for(int i = 0; i < sorted.length; i++) {
+            keys[i] = normalize(sorted[i].getName());
+        }
+        return new TagPrefixIndex(sorted, keys);
+    }
+
+    /**
+     * Tags whose name starts with the prefix, ignoring case, most used first and then alphabetically.
+     */
+    public List<TagPostCount> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int from = lowerBound(key);
+        int to = key.isEmpty() ? keys.length : lowerBound(key + Character.MAX_VALUE);
+        if(from >= to || limit <= 0) {
+            return List.of();
+        }
+
+        List<Suggestion> results;
+        if(to - from <= limit) {
+            results = new ArrayList<>(Arrays.asList(tags).subList(from, to));
+        } else {
+            // Keep only the best `limit` tags of the range; the head of this queue is the worst of them.
+            PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, MOST_USED_FIRST.reversed());
+            for(int i = from; i < to; i++) {
+                top.add(tags[i]);
+                if(top.size() > limit) {
+                    top.poll();
+                }
+            }
+            results = new ArrayList<>(top);
+        }
+        results.sort(MOST_USED_FIRST);
+        return List.copyOf(results);
+    }
+
+    public int size() {
+        return tags.length;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @Value
+    public static class Suggestion implements TagPostCount {
+        UUID id;
+        String name;
+        Long postCount;
+    }
+}
@@ -0,0 +1,36 @@
+package com.leon.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into lower-cased runs of letters and digits.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        int i = 0;
+        while(i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            if(Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if(!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if(!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
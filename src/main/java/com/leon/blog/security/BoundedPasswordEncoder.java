@@ -0,0 +1,129 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a slow password encoder on a small dedicated pool, so a burst of logins or registrations occupies at most
+ * {@code threads} cores and leaves the rest to other traffic. Callers wait for their hash; once the pool and its
+ * bounded queue are full, further calls fail at once with {@link TaskRejectedException}, answered with 503.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile Timer encodeTimer;
+    private volatile Timer matchesTimer;
+    private volatile Timer waitTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> record(encodeTimer, () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> record(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the stored hash.
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Callable<T> hash) {
+        long submittedAt = System.nanoTime();
+        Callable<T> task = () -> {
+            Timer timer = waitTimer;
+            if(timer != null) {
+                timer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            }
+            return hash.call();
+        };
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new TaskRejectedException("Too many password hashes in progress", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if(e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <T> T record(Timer timer, Callable<T> hash) throws Exception {
+        return timer == null ? hash.call() : timer.recordCallable(hash);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = Timer.builder("password.hash")
+                .description("Time spent computing a password hash")
+                .tag("operation", "encode")
+                .register(registry);
+        matchesTimer = Timer.builder("password.hash")
+                .description("Time spent computing a password hash")
+                .tag("operation", "matches")
+                .register(registry);
+        waitTimer = Timer.builder("password.hash.wait")
+                .description("Time a password hash waited in the queue for a thread")
+                .register(registry);
+        Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(registry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(registry);
+        FunctionCounter.builder("password.hash.rejected", rejected, AtomicLong::get)
+                .description("Password hashes refused because the queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
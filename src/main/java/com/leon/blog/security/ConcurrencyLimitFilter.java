@@ -0,0 +1,133 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits at most a fixed number of requests at a time; the rest wait up to {@code maxWait} for a slot and are then
+ * turned away with 503. With platform threads Tomcat's pool bounds concurrency; with virtual threads nothing does,
+ * and every excess request would otherwise park on the connection pool until its own timeout.
+ * <p>
+ * A request that goes asynchronous, such as a streamed export, keeps its slot until the response completes rather
+ * than until the servlet thread returns. Each instance is named after what it guards, which tags its metrics.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrentRequests;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final String retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimitFilter(String name, int maxConcurrentRequests, Duration maxWait, Duration retryAfter) {
+        this.name = name;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if(!admitted) {
+            rejected.incrementAndGet();
+            log.warn("Rejected {} {}: limit {} of {} reached",
+                    request.getMethod(), request.getRequestURI(), name, maxConcurrentRequests);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType("application/json");
+            response.getWriter().write("""
+                {
+                  "status": 503,
+                  "message": "Server is busy, please try again later"
+                }
+            """);
+            return;
+        }
+
+        boolean releaseOnCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            if(request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                releaseOnCompletion = true;
+            }
+        } finally {
+            if(!releaseOnCompletion) {
+                permits.release();
+            }
+        }
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        // Called after errors and timeouts as well, once the response is done.
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new asynchronous cycle started from this one replaces the listeners; keep ours registered.
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.requests.admitted", this,
+                        filter -> filter.maxConcurrentRequests - filter.permits.availablePermits())
+                .description("Requests currently holding a concurrency slot")
+                .tag("limit", name)
+                .register(registry);
+        Gauge.builder("http.server.requests.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a concurrency slot")
+                .tag("limit", name)
+                .register(registry);
+        FunctionCounter.builder("http.server.requests.rejected", rejected, AtomicLong::get)
+                .description("Requests turned away because no concurrency slot freed up in time")
+                .tag("limit", name)
+                .register(registry);
+    }
+}
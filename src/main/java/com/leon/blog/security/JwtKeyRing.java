@@ -0,0 +1,112 @@
+package com.leon.blog.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HMAC keys used to sign and verify tokens, selected by the {@code kid} header. Keys are derived once and the parser
+ * is built once; rotating keys swaps an immutable snapshot so in-flight verifications are never affected.
+ * <p>
+ * The ring starts from configuration and is rotated at runtime through {@link JwtKeyRingEndpoint}, which also evicts
+ * cached verifications of tokens signed with a removed key.
+ */
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private final JwtParser parser;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(String activeKeyId, String activeSecret, Map<String, String> verificationSecrets) {
+        Map<String, Key> keys = new HashMap<>();
+        verificationSecrets.forEach((keyId, secret) -> keys.put(keyId, toKey(secret)));
+        keys.put(activeKeyId, toKey(activeSecret));
+        this.snapshot = new Snapshot(activeKeyId, Map.copyOf(keys));
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(this).build();
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    public SigningKey getSigningKey() {
+        Snapshot current = snapshot;
+        return new SigningKey(current.activeKeyId(), current.keys().get(current.activeKeyId()));
+    }
+
+    public String getActiveKeyId() {
+        return snapshot.activeKeyId();
+    }
+
+    public Set<String> getKeyIds() {
+        return snapshot.keys().keySet();
+    }
+
+    public boolean hasKey(String keyId) {
+        return snapshot.keys().containsKey(keyId);
+    }
+
+    /**
+     * Starts signing with a new key. Keys that were active before stay valid for verification until removed.
+     */
+    public synchronized void rotate(String keyId, String secret) {
+        if(snapshot.keys().containsKey(keyId)) {
+            throw new IllegalArgumentException("Signing key already exists: " + keyId);
+        }
+        Map<String, Key> keys = new HashMap<>(snapshot.keys());
+        keys.put(keyId, toKey(secret));
+        snapshot = new Snapshot(keyId, Map.copyOf(keys));
+    }
+
+    /**
+     * Stops accepting tokens signed with the key. Callers must also evict them from {@link VerifiedTokenCache}.
+     */
+    public synchronized void removeKey(String keyId) {
+        if(keyId.equals(snapshot.activeKeyId())) {
+            throw new IllegalStateException("Cannot remove the active signing key");
+        }
+        if(!snapshot.keys().containsKey(keyId)) {
+            throw new IllegalArgumentException("Unknown signing key: " + keyId);
+        }
+        Map<String, Key> keys = new HashMap<>(snapshot.keys());
+        keys.remove(keyId);
+        snapshot = new Snapshot(snapshot.activeKeyId(), Map.copyOf(keys));
+    }
+
+    /**
+     * Returns the id of the key a token with this header is verified with.
+     */
+    public String keyIdOf(JwsHeader<?> header) {
+        // Tokens issued before key ids were introduced carry no kid and were signed with the active key.
+        return header.getKeyId() == null ? snapshot.activeKeyId() : header.getKeyId();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = keyIdOf(header);
+        Key key = snapshot.keys().get(keyId);
+        if(key == null) {
+            throw new SignatureException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+
+    private static Key toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public record SigningKey(String id, Key key) {
+    }
+
+    private record Snapshot(String activeKeyId, Map<String, Key> keys) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.leon.blog.security;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rotates the JWT signing keys without a restart. Only exposed over JMX, and only once listed in
+ * {@code management.endpoints.jmx.exposure.include}, so it is never reachable with a token it could replace.
+ * <p>
+ * To rotate, add the new key with {@link #rotate}; tokens signed with the previous key stay valid. Once they have
+ * expired, remove the previous key with {@link #removeKey}.
+ */
+@JmxEndpoint(id = "jwtkeys")
+public class JwtKeyRingEndpoint {
+
+    private final JwtKeyRing jwtKeyRing;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JwtKeyRingEndpoint(JwtKeyRing jwtKeyRing, VerifiedTokenCache verifiedTokenCache) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @ReadOperation
+    public KeyIds keys() {
+        return new KeyIds(jwtKeyRing.getActiveKeyId(), new TreeSet<>(jwtKeyRing.getKeyIds()));
+    }
+
+    @WriteOperation
+    public KeyIds rotate(String keyId, String secret) {
+        jwtKeyRing.rotate(keyId, secret);
+        return keys();
+    }
+
+    @DeleteOperation
+    public KeyIds removeKey(@Selector String keyId) {
+        jwtKeyRing.removeKey(keyId);
+        verifiedTokenCache.invalidateKey(keyId);
+        return keys();
+    }
+
+    public record KeyIds(String active, Set<String> keyIds) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the first matching {@link RateLimitPolicy} to each request and answers 429 with Retry-After once the
+ * client's bucket is empty. Runs after {@link JwtAuthenticationFilter} so policies can key on the user.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final List<RateLimitPolicy> policies;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AtomicLong[] rejected;
+
+    public RateLimitFilter(List<RateLimitPolicy> policies, TokenBucketRateLimiter rateLimiter) {
+        this.policies = List.copyOf(policies);
+        this.rateLimiter = rateLimiter;
+        this.rejected = new AtomicLong[this.policies.size()];
+        for(int i = 0; i < rejected.length; i++) {
+            rejected[i] = new AtomicLong();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int policyIndex = matchingPolicy(request);
+        if(policyIndex >= 0) {
+            RateLimitPolicy policy = policies.get(policyIndex);
+            long waitNanos = rateLimiter.tryAcquire(policy, clientOf(request, policy));
+            if(waitNanos > 0) {
+                rejected[policyIndex].incrementAndGet();
+                log.debug("Rate limit {} reached for {} {}", policy.name(), request.getMethod(), request.getRequestURI());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+                response.setContentType("application/json");
+                response.getWriter().write("""
+                    {
+                      "status": 429,
+                      "message": "Too many requests, please slow down"
+                    }
+                """);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private int matchingPolicy(HttpServletRequest request) {
+        if(policies.isEmpty()) {
+            return -1;
+        }
+        String method = request.getMethod();
+        String path = null;
+        PathContainer parsedPath = null;
+        for(int i = 0; i < policies.size(); i++) {
+            RateLimitPolicy policy = policies.get(i);
+            if(!policy.methods().contains(method)) {
+                continue;
+            }
+            if(path == null) {
+                path = request.getRequestURI().substring(request.getContextPath().length());
+            }
+            if(policy.matchesLiterally(path)) {
+                return i;
+            }
+            // Encoded or unusual paths still have to be matched the way Spring MVC will route them.
+            if(parsedPath == null) {
+                parsedPath = PathContainer.parsePath(path);
+            }
+            if(policy.pathPattern().matches(parsedPath)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object clientOf(HttpServletRequest request, RateLimitPolicy policy) {
+        if(policy.clientKey() == RateLimitPolicy.ClientKey.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if(authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+                return principal.getId();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for(int i = 0; i < policies.size(); i++) {
+            FunctionCounter.builder("http.server.requests.rate-limited", rejected[i], AtomicLong::get)
+                    .description("Requests refused because the client's rate limit was reached")
+                    .tag("policy", policies.get(i).name())
+                    .register(registry);
+        }
+        Gauge.builder("http.server.rate-limit.buckets", rateLimiter, TokenBucketRateLimiter::size)
+                .description("Clients with a partly used rate limit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.leon.blog.security;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * A limit of {@code capacity} requests per {@code period} for one client on the routes matching the methods and
+ * path pattern. Clients may use the whole capacity in a burst; it then refills evenly over the period.
+ *
+ * @param clientKey whether clients are told apart by user id or by address
+ */
+public record RateLimitPolicy(String name, Set<String> methods, PathPattern pathPattern,
+                              long capacity, Duration period, ClientKey clientKey) {
+
+    public enum ClientKey {
+        /** The remote address. */
+        ADDRESS,
+        /** The authenticated user's id, or the remote address for anonymous requests. */
+        USER
+    }
+
+    public RateLimitPolicy {
+        if(capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+    }
+
+    /**
+     * Parses a limit written as {@code capacity/period}, e.g. {@code 10/1m}.
+     */
+    public static RateLimitPolicy of(String name, String limit, ClientKey clientKey, String pathPattern,
+                                     String... methods) {
+        int slash = limit.indexOf('/');
+        if(slash < 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " must look like 10/1m, got: " + limit);
+        }
+        return new RateLimitPolicy(name, Set.of(methods),
+                PathPatternParser.defaultInstance.parse(pathPattern),
+                Long.parseLong(limit.substring(0, slash).strip()),
+                DurationStyle.detectAndParse(limit.substring(slash + 1).strip()),
+                clientKey);
+    }
+
+    public boolean matches(String method, String path) {
+        return methods.contains(method) && (matchesLiterally(path) || pathPattern.matches(PathContainer.parsePath(path)));
+    }
+
+    /**
+     * Whether the raw path certainly matches, for patterns that are a plain path or a plain path followed by
+     * {@code /**}. A false answer is inconclusive: the path may still match once decoded.
+     */
+    public boolean matchesLiterally(String path) {
+        String pattern = pathPattern.getPatternString();
+        if(pattern.endsWith("/**")) {
+            int prefixLength = pattern.length() - 3;
+            return isLiteral(pattern, prefixLength) && path.regionMatches(0, pattern, 0, prefixLength)
+                    && (path.length() == prefixLength || path.charAt(prefixLength) == '/');
+        }
+        return isLiteral(pattern, pattern.length()) && path.equals(pattern);
+    }
+
+    /** Time for one request's worth of capacity to refill. */
+    public long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    private static boolean isLiteral(String pattern, int length) {
+        for(int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if(c == '*' || c == '?' || c == '{' || c == ';' || c == '%') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package com.leon.blog.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets kept as a single timestamp each, in the style of the generic cell rate algorithm: a bucket stores
+ * the time at which it will be full again, and a request is admitted when taking one token would not push that time
+ * further than the policy's capacity into the future. Admitting a request is one compare-and-set, without locks.
+ * <p>
+ * A bucket untouched for a whole period is full again and equivalent to no bucket at all, so buckets expire after
+ * that long idle; the number of clients tracked per policy is also capped.
+ */
+public class TokenBucketRateLimiter {
+
+    /** Stands for a full bucket: any current time is later. */
+    private static final long FULL = Long.MIN_VALUE;
+
+    private final Map<String, Cache<Object, AtomicLong>> bucketsByPolicy = new ConcurrentHashMap<>();
+    private final Duration longestPeriod;
+    private final long maximumClients;
+    private final Ticker ticker;
+
+    public TokenBucketRateLimiter(Duration longestPeriod, long maximumClients) {
+        this(longestPeriod, maximumClients, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(Duration longestPeriod, long maximumClients, Ticker ticker) {
+        this.longestPeriod = longestPeriod;
+        this.maximumClients = maximumClients;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Takes a token from the client's bucket for the policy.
+     *
+     * @return 0 if the request is admitted, otherwise how many nanoseconds until it would be
+     */
+    public long tryAcquire(RateLimitPolicy policy, Object client) {
+        AtomicLong fullAt = bucketsOf(policy).get(client, key -> new AtomicLong(FULL));
+        long now = ticker.read();
+        long interval = policy.emissionIntervalNanos();
+        long capacityNanos = interval * policy.capacity();
+        while(true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long overdraft = next - now - capacityNanos;
+            if(overdraft > 0) {
+                return overdraft;
+            }
+            if(fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for(Cache<Object, AtomicLong> buckets : bucketsByPolicy.values()) {
+            buckets.cleanUp();
+            size += buckets.estimatedSize();
+        }
+        return size;
+    }
+
+    private Cache<Object, AtomicLong> bucketsOf(RateLimitPolicy policy) {
+        Cache<Object, AtomicLong> buckets = bucketsByPolicy.get(policy.name());
+        if(buckets != null) {
+            return buckets;
+        }
+        return bucketsByPolicy.computeIfAbsent(policy.name(), name -> Caffeine.newBuilder()
+                .expireAfterAccess(longestPeriod)
+                .maximumSize(maximumClients)
+                .ticker(ticker)
+                // Eviction is cheap and amortized; keep it off the common pool, which may have a single thread.
+                .executor(Runnable::run)
+                .build());
+    }
+}
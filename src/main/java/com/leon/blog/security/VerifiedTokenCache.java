@@ -0,0 +1,69 @@
+package com.leon.blog.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified. Each entry expires together with its token and
+ * is tagged with the id of the key that verified it, so removing a key can evict the tokens it signed.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verifiedToken.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached verification of the token, running the verifier at most once per token while it is cached.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        VerifiedToken verifiedToken = cache.get(token, verifier);
+        if(!verifiedToken.expiresAt().isAfter(Instant.now())) {
+            cache.invalidate(token);
+            verifiedToken = cache.get(token, verifier);
+        }
+        return verifiedToken;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+
+    public void invalidateKey(String keyId) {
+        cache.asMap().values().removeIf(verifiedToken -> verifiedToken.keyId().equals(keyId));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    public record VerifiedToken(UserDetails userDetails, String keyId, Instant expiresAt) {
+    }
+}
@@ -1,13 +1,18 @@
 package com.leon.blog.services;
 
 import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.projections.CategoryPostCount;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface CategoryService {
-    List<Category> listCategories();
+    List<CategoryPostCount> listCategories();
+    String getCategoriesVersion();
     Category createCategory(Category category);
     void deleteCategory(UUID id);
-    Category getCategoryById(UUID id);
+    Category getCategoryReference(UUID id);
+    List<Category> findCategoryReferences(Set<UUID> ids);
+    void adjustPublishedPostCount(UUID categoryId, long delta);
 }
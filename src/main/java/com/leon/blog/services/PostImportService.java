@@ -0,0 +1,13 @@
+package com.leon.blog.services;
+
+import com.leon.blog.domain.entities.PostImport;
+import com.leon.blog.domain.entities.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface PostImportService {
+    PostImport startImport(User owner, InputStream ndjson) throws IOException;
+    PostImport getImport(UUID id, User user);
+}
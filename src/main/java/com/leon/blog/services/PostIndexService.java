@@ -0,0 +1,13 @@
+package com.leon.blog.services;
+
+import com.leon.blog.domain.SearchCursor;
+import com.leon.blog.domain.projections.PostSearchRow;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PostIndexService {
+    boolean isReady();
+    List<PostSearchRow> search(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit);
+    void rebuild();
+}
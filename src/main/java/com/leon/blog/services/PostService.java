@@ -1,19 +1,32 @@
 package com.leon.blog.services;
 
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.PostPage;
+import com.leon.blog.domain.PostSearchPage;
+import com.leon.blog.domain.PostSummaryPage;
+import com.leon.blog.domain.RenderedPost;
 import com.leon.blog.domain.UpdatePostRequest;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.PostVersion;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PostService {
     Post getPost(UUID id);
-    List<Post> getAllPosts(UUID categoryId, UUID tagId);
+    PostVersion getPostVersion(UUID id);
+    RenderedPost getRenderedPost(UUID id);
+    PostPage getAllPosts(UUID categoryId, UUID tagId, String cursor, Integer limit);
+    PostSummaryPage getPostSummaries(UUID categoryId, UUID tagId, String cursor, Integer limit);
+    PostSearchPage searchPosts(String query, UUID categoryId, UUID tagId, String cursor, Integer limit);
     List<Post> getDraftPosts(User user);
+    void exportPublishedPosts(Consumer<List<Post>> batchConsumer);
     Post createPost(User user, CreatePostRequest createPostRequest);
+    List<CreatePostResult> createPosts(User user, List<CreatePostRequest> createPostRequests);
     Post updatePost(UUID id, User user, UpdatePostRequest updatePostRequest);
     void deletePost(UUID id, User user);
 }
@@ -0,0 +1,18 @@
+package com.leon.blog.services;
+
+import java.util.UUID;
+
+public interface PostViewService {
+
+    /**
+     * Counts one view of the post in memory; it reaches the database with the next flush.
+     */
+    void recordView(UUID postId);
+
+    /**
+     * Stored views plus those not flushed yet.
+     */
+    long getViewCount(UUID postId);
+
+    void flush();
+}
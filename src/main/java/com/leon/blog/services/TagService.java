@@ -1,15 +1,20 @@
 package com.leon.blog.services;
 
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.TagPostCount;
 
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 public interface TagService {
-    List<Tag> getTags();
+    List<TagPostCount> getTags();
+    String getTagsVersion();
+    List<TagPostCount> suggestTags(String prefix, Integer limit);
     List<Tag> createTags(Set<String> tagNames);
     void deleteTag(UUID id);
-    Tag getTagById(UUID id);
-    List<Tag> getTagByIds(Set<UUID> ids);
+    Tag getTagReference(UUID id);
+    List<Tag> getTagReferences(Set<UUID> ids);
+    List<Tag> findTagReferences(Set<UUID> ids);
+    void adjustPublishedPostCount(Set<UUID> tagIds, long delta);
 }
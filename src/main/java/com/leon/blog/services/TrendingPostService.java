@@ -0,0 +1,22 @@
+package com.leon.blog.services;
+
+import com.leon.blog.domain.entities.Post;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface TrendingPostService {
+
+    /**
+     * Published posts with the highest time-decayed score from views and publication, highest first.
+     */
+    List<Post> getTrendingPosts(Integer limit);
+
+    /**
+     * Adds the views counted since the previous call, all as of now.
+     */
+    void recordViews(Map<UUID, Long> viewsByPost);
+
+    void snapshot();
+}
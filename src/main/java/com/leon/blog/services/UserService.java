@@ -8,5 +8,6 @@ import java.util.UUID;
 
 public interface UserService {
     User getUserById(UUID id);
+    User getUserReference(UUID id);
     UserDetails register(RegisterRequest register);
 }
@@ -1,23 +1,31 @@
 package com.leon.blog.services.impl;
 
 import com.leon.blog.security.BlogUserDetails;
+import com.leon.blog.security.JwtKeyRing;
+import com.leon.blog.security.JwtPrincipal;
+import com.leon.blog.security.VerifiedTokenCache;
+import com.leon.blog.security.VerifiedTokenCache.VerifiedToken;
 import com.leon.blog.services.AuthenticationService;
 import com.leon.blog.services.UserService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,9 +35,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtKeyRing jwtKeyRing;
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
 
     @Value("${application.security.jwt.expiration}")
     private Long jwtExpiryMs;
@@ -46,33 +56,49 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public String generateToken(UserDetails userDetails) {
         BlogUserDetails blogUserDetails = (BlogUserDetails) userDetails;
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, String.valueOf(blogUserDetails.getId()));
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.id())
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiryMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     @Override
     public UserDetails validateToken(String token) {
-        String username = extractUsername(token);
-        return userDetailsService.loadUserByUsername(username);
+        VerifiedToken verifiedToken = verifiedTokenCache.get(token, this::verifyToken);
+        if(!jwtKeyRing.hasKey(verifiedToken.keyId())) {
+            // Verified just before its key was removed, and cached after the removal evicted that key's tokens.
+            verifiedTokenCache.invalidate(token);
+            throw new SignatureException("Unknown signing key: " + verifiedToken.keyId());
+        }
+        return verifiedToken.userDetails();
     }
 
-    private String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    private VerifiedToken verifyToken(String token) {
+        Jws<Claims> jws = jwtKeyRing.getParser().parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        return new VerifiedToken(toPrincipal(claims), jwtKeyRing.keyIdOf(jws.getHeader()),
+                claims.getExpiration().toInstant());
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtPrincipal toPrincipal(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if(userId == null) {
+            // Tokens issued before the user id was embedded still need one lookup.
+            BlogUserDetails userDetails = (BlogUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+            return new JwtPrincipal(userDetails.getId(), userDetails.getUsername(), userDetails.getAuthorities());
+        }
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? List.of()
+                : roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString())).toList();
+        return new JwtPrincipal(UUID.fromString(userId), claims.getSubject(), authorities);
     }
 
 }
@@ -1,28 +1,56 @@
 package com.leon.blog.services.impl;
 
+import com.leon.blog.config.CacheConfig;
 import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.projections.CategoryPostCount;
+import com.leon.blog.domain.projections.CategoryRef;
 import com.leon.blog.repositories.CategoryRepository;
 import com.leon.blog.services.CategoryService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Caches each category's id and name only, never the entity: posts link to a reference obtained in their own
+ * session, and the published post count is always read from the database. Cache changes apply once the surrounding
+ * transaction commits.
+ * <p>
+ * The cache is local to each instance, and a delete only evicts it on the instance that ran it. Elsewhere the
+ * category stays cached until it expires, and a post linked to it fails on the foreign key with 409 instead of 404.
+ * A transaction that used a cached category and then rolled back evicts it, so the retry looks it up again and
+ * gets the 404.
+ */
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
 
     @Override
-    public List<Category> listCategories() {
+    public List<CategoryPostCount> listCategories() {
         return categoryRepository.findAllWithPostCount();
     }
 
+    @Override
+    public String getCategoriesVersion() {
+        return categoryRepository.findCollectionVersion().stamp();
+    }
+
     @Override
     @Transactional
     public Category createCategory(Category category) {
@@ -41,13 +69,72 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new IllegalStateException("Category has posts associated with it");
             }
             categoryRepository.deleteById(id);
+            categoryCache().evict(id);
         }
     }
 
     @Override
-    public Category getCategoryById(UUID id) {
-        return categoryRepository.findById(id)
+    public Category getCategoryReference(UUID id) {
+        Cache cache = categoryCache();
+        if(cache.get(id, CategoryRef.class) != null) {
+            evictOnRollback(Set.of(id));
+            return categoryRepository.getReferenceById(id);
+        }
+        Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
+        cache.put(id, CategoryRef.of(category));
+        return category;
+    }
+
+    @Override
+    public List<Category> findCategoryReferences(Set<UUID> ids) {
+        Cache cache = categoryCache();
+        List<Category> foundCategories = new ArrayList<>(ids.size());
+        Set<UUID> missingIds = new HashSet<>();
+        Set<UUID> cachedIds = new HashSet<>();
+        for(UUID id : ids) {
+            if(cache.get(id, CategoryRef.class) != null) {
+                foundCategories.add(categoryRepository.getReferenceById(id));
+                cachedIds.add(id);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        evictOnRollback(cachedIds);
+
+        if(!missingIds.isEmpty()) {
+            List<Category> loadedCategories = categoryRepository.findAllById(missingIds);
+            loadedCategories.forEach(category -> cache.put(category.getId(), CategoryRef.of(category)));
+            foundCategories.addAll(loadedCategories);
+        }
+        return foundCategories;
+    }
+
+    @Override
+    @Transactional
+    public void adjustPublishedPostCount(UUID categoryId, long delta) {
+        categoryRepository.adjustPublishedPostCount(categoryId, delta);
+    }
+
+    private Cache categoryCache() {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CATEGORIES));
+        return new TransactionAwareCacheDecorator(cache);
+    }
+
+    // Cached ids are linked unchecked; if another instance deleted one, the write fails and rolls back.
+    private void evictOnRollback(Set<UUID> ids) {
+        if(ids.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CATEGORIES));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status != STATUS_COMMITTED) {
+                    ids.forEach(cache::evict);
+                }
+            }
+        });
     }
 
 }
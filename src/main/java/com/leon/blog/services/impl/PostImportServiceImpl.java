@@ -0,0 +1,397 @@
+package com.leon.blog.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.ImportStatus;
+import com.leon.blog.domain.dtos.ImportPostDto;
+import com.leon.blog.domain.entities.PostImport;
+import com.leon.blog.domain.entities.PostImportError;
+import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.repositories.PostImportRepository;
+import com.leon.blog.services.PostImportService;
+import com.leon.blog.services.PostService;
+import com.leon.blog.services.TagService;
+import com.leon.blog.services.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports newline-delimited JSON posts in the background. The upload is spooled to a temporary file and read back
+ * one chunk at a time, each chunk committed in its own transaction, so memory stays flat whatever the file size.
+ * <p>
+ * Imports run on a small dedicated pool, never on request threads, and each worker holds at most one database
+ * connection at a time; when the pool and its queue are full new imports are refused rather than queued without
+ * bound. The pool is deliberately not a bean, so Spring Boot keeps its own task executor for asynchronous requests.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostImportServiceImpl implements PostImportService {
+
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
+    private static final String SPOOL_FILE_PREFIX = "post-import-";
+    private static final String SPOOL_FILE_SUFFIX = ".ndjson";
+
+    private final PostImportRepository postImportRepository;
+    private final PostService postService;
+    private final TagService tagService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.imports.workers:1}")
+    private int workers = 1;
+
+    @Value("${application.imports.queue-capacity:10}")
+    private int queueCapacity = 10;
+
+    @Value("${application.imports.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${application.imports.max-size:100MB}")
+    private String maxSize = "100MB";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${application.node-id:}")
+    private String nodeId;
+
+    private ThreadPoolTaskExecutor executor;
+    private long maxSizeBytes;
+
+    @PostConstruct
+    void startExecutor() {
+        maxSizeBytes = DataSize.parse(maxSize).toBytes();
+        if(nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName();
+        }
+        deleteLeftoverFiles();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("post-import-");
+        // Virtual threads ignore priorities; there the worker count alone keeps imports from crowding out requests.
+        executor.setVirtualThreads(virtualThreads);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.initialize();
+    }
+
+    /**
+     * Spooled uploads of imports cut short by a crash are never read again. Only files older than this JVM are
+     * removed, so another instance on the same host keeps the uploads it is still working on.
+     */
+    private void deleteLeftoverFiles() {
+        FileTime startedAt = FileTime.fromMillis(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+        String pattern = SPOOL_FILE_PREFIX + "*" + SPOOL_FILE_SUFFIX;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, pattern)) {
+            for(Path file : files) {
+                if(Files.getLastModifiedTime(file).compareTo(startedAt) < 0) {
+                    Files.deleteIfExists(file);
+                    log.info("Deleted leftover import file {}", file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete leftover import files in {}", directory, e);
+        }
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdown();
+    }
+
+    /**
+     * Imports are tied to the spooled file of the node that accepted them, so this node's imports still unfinished
+     * at startup were cut short by a restart. Other nodes' imports are left to run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedImports() {
+        int failed = transactionTemplate.execute(status ->
+                postImportRepository.failUnfinished(nodeId, "Interrupted by a restart", now()));
+        if(failed > 0) {
+            log.info("Marked {} imports interrupted by the restart of node {} as failed", failed, nodeId);
+        }
+    }
+
+    @Override
+    public PostImport startImport(User owner, InputStream ndjson) throws IOException {
+        // Refuse before reading the upload when there is no room for it anyway.
+        if(executor.getQueueSize() >= queueCapacity) {
+            throw new TaskRejectedException("Too many imports in progress");
+        }
+
+        Path file = Files.createTempFile(SPOOL_FILE_PREFIX, SPOOL_FILE_SUFFIX);
+        try {
+            long totalLines = spool(ndjson, file);
+            PostImport postImport = postImportRepository.save(PostImport.builder()
+                    .owner(owner)
+                    .nodeId(nodeId)
+                    .status(ImportStatus.QUEUED)
+                    .totalLines(totalLines)
+                    .build());
+            try {
+                executor.execute(() -> runImport(postImport.getId(), owner.getId(), file));
+            } catch (TaskRejectedException e) {
+                postImportRepository.delete(postImport);
+                throw e;
+            }
+            return postImport;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @Override
+    public PostImport getImport(UUID id, User user) {
+        PostImport postImport = postImportRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Import not found with id: " + id));
+        if(!postImport.getOwner().getId().equals(user.getId())) {
+            throw new AccessDeniedException("Forbidden");
+        }
+        return postImport;
+    }
+
+    /**
+     * Copies the upload to the file, counting its lines, and gives up as soon as it grows past the maximum size; the
+     * caller then deletes the partial file.
+     */
+    private long spool(InputStream ndjson, Path file) throws IOException {
+        long lines = 0;
+        long size = 0;
+        boolean endsWithNewline = true;
+        byte[] buffer = new byte[UPLOAD_BUFFER_SIZE];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while((read = ndjson.read(buffer)) != -1) {
+                size += read;
+                if(size > maxSizeBytes) {
+                    throw new MaxUploadSizeExceededException(maxSizeBytes);
+                }
+                for(int i = 0; i < read; i++) {
+                    if(buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if(read > 0) {
+                    endsWithNewline = buffer[read - 1] == '\n';
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return endsWithNewline ? lines : lines + 1;
+    }
+
+    private void runImport(UUID importId, UUID ownerId, Path file) {
+        updateImport(importId, postImport -> {
+            postImport.setStatus(ImportStatus.RUNNING);
+            postImport.setStartedAt(now());
+        });
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            List<ImportLine> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(!line.isBlank()) {
+                    chunk.add(new ImportLine(lineNumber, line));
+                }
+                if(chunk.size() == chunkSize) {
+                    importChunk(importId, ownerId, chunk, lineNumber);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            importChunk(importId, ownerId, chunk, lineNumber);
+            updateImport(importId, postImport -> {
+                postImport.setStatus(ImportStatus.COMPLETED);
+                postImport.setFinishedAt(now());
+            });
+        } catch (Exception e) {
+            log.error("Import {} failed", importId, e);
+            updateImport(importId, postImport -> {
+                postImport.setStatus(ImportStatus.FAILED);
+                postImport.setFailureReason(truncate(Objects.toString(e.getMessage(), e.getClass().getName()), 500));
+                postImport.setFinishedAt(now());
+            });
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Creates the valid posts of a chunk, and any tags they name that do not exist yet, in one transaction together
+     * with the progress update. A chunk that fails as a whole is rolled back and counted as rejected, and the import
+     * carries on with the next one.
+     */
+    private void importChunk(UUID importId, UUID ownerId, List<ImportLine> chunk, long processedLines) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<PostImportError> errors = new ArrayList<>();
+                List<ImportLine> validLines = new ArrayList<>(chunk.size());
+                List<ImportPostDto> validPosts = new ArrayList<>(chunk.size());
+                for(ImportLine line : chunk) {
+                    ImportPostDto post = parse(line, errors);
+                    if(post != null) {
+                        validLines.add(line);
+                        validPosts.add(post);
+                    }
+                }
+
+                List<CreatePostResult> results = validPosts.isEmpty()
+                        ? List.of()
+                        : postService.createPosts(userService.getUserReference(ownerId), toCreatePostRequests(validPosts));
+                long created = 0;
+                for(int i = 0; i < results.size(); i++) {
+                    if(results.get(i).getPost() != null) {
+                        created++;
+                    }
+                    long lineNumber = validLines.get(i).number();
+                    results.get(i).getErrors().forEach((field, message) -> errors.add(error(lineNumber, field, message)));
+                }
+
+                long rejected = chunk.size() - created;
+                PostImport postImport = postImportRepository.findById(importId).orElseThrow();
+                recordProgress(postImport, processedLines, created, rejected, errors);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Import {} rejected lines {}-{}", importId, chunk.getFirst().number(), chunk.getLast().number(), e);
+            updateImport(importId, postImport -> recordProgress(postImport, processedLines, 0, chunk.size(),
+                    List.of(error(chunk.getFirst().number(), "lines",
+                            "Lines " + chunk.getFirst().number() + "-" + chunk.getLast().number()
+                                    + " could not be imported: " + e.getMessage()))));
+        }
+    }
+
+    private ImportPostDto parse(ImportLine line, List<PostImportError> errors) {
+        ImportPostDto post;
+        try {
+            post = objectMapper.readValue(line.text(), ImportPostDto.class);
+        } catch (JsonProcessingException e) {
+            errors.add(error(line.number(), "line", "Malformed JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+        if(post == null) {
+            errors.add(error(line.number(), "line", "Post is required"));
+            return null;
+        }
+        Set<ConstraintViolation<ImportPostDto>> violations = validator.validate(post);
+        if(!violations.isEmpty()) {
+            violations.stream()
+                    .map(violation -> error(line.number(), violation.getPropertyPath().toString(), violation.getMessage()))
+                    .sorted(Comparator.comparing(PostImportError::getField))
+                    .forEach(errors::add);
+            return null;
+        }
+        return post;
+    }
+
+    private List<CreatePostRequest> toCreatePostRequests(List<ImportPostDto> posts) {
+        Set<String> tagNames = posts.stream()
+                .flatMap(post -> post.getTags() == null ? Stream.empty() : post.getTags().stream())
+                .collect(Collectors.toSet());
+        Map<String, UUID> tagIds = tagNames.isEmpty()
+                ? Map.of()
+                : tagService.createTags(tagNames).stream().collect(Collectors.toMap(Tag::getName, Tag::getId));
+
+        return posts.stream()
+                .map(post -> CreatePostRequest.builder()
+                        .title(post.getTitle())
+                        .content(post.getContent())
+                        .categoryId(post.getCategoryId())
+                        .status(post.getStatus())
+                        .tagIds(post.getTags() == null ? Set.of() : post.getTags().stream()
+                                .map(tagIds::get)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()))
+                        .build())
+                .toList();
+    }
+
+    private static void recordProgress(PostImport postImport, long processedLines, long created, long rejected,
+                                       List<PostImportError> errors) {
+        postImport.setProcessedLines(processedLines);
+        postImport.setCreatedPosts(postImport.getCreatedPosts() + created);
+        postImport.setRejectedPosts(postImport.getRejectedPosts() + rejected);
+        int room = PostImport.MAX_RECORDED_ERRORS - postImport.getErrors().size();
+        postImport.getErrors().addAll(errors.subList(0, Math.max(0, Math.min(room, errors.size()))));
+    }
+
+    private void updateImport(UUID importId, Consumer<PostImport> update) {
+        transactionTemplate.executeWithoutResult(status ->
+                postImportRepository.findById(importId).ifPresent(update));
+    }
+
+    private static PostImportError error(long line, String field, String message) {
+        return new PostImportError(line, field, truncate(message, PostImportError.MAX_MESSAGE_LENGTH));
+    }
+
+    private static String truncate(String message, int maxLength) {
+        return message.length() <= maxLength ? message : message.substring(0, maxLength);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name; set application.node-id", e);
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private record ImportLine(long number, String text) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.leon.blog.services.impl;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.SearchCursor;
+import com.leon.blog.domain.events.PostDeletedEvent;
+import com.leon.blog.domain.events.PostSavedEvent;
+import com.leon.blog.domain.projections.IndexedPost;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.domain.projections.PostTagLink;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.search.InvertedIndex;
+import com.leon.blog.services.PostIndexService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps an in-memory BM25 index of published posts so search never queries the database for matching and ranking.
+ * The index is rebuilt from the database at startup and updated after every committed post change.
+ */
+@Service
+@ConditionalOnProperty(name = "application.search.index.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PostIndexServiceImpl implements PostIndexService, MeterBinder {
+
+    private final PostRepository postRepository;
+
+    private final Object rebuildMonitor = new Object();
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    // Changes committed while a rebuild streams the table, replayed onto the new index before it is swapped in.
+    private List<Consumer<InvertedIndex>> pendingChanges;
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<PostSearchRow> search(String query, UUID categoryId, UUID tagId, SearchCursor after, int limit) {
+        return index.search(query, categoryId, tagId,
+                        after == null ? null : after.rank(), after == null ? null : after.id(), limit)
+                .stream()
+                .map(document -> new PostSearchRow(document.id(), document.score(), null))
+                .toList();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (rebuildMonitor) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        Map<UUID, List<UUID>> tagIdsByPost = new HashMap<>();
+        try (Stream<PostTagLink> links = postRepository.streamTagLinks(PostStatus.PUBLISHED)) {
+            links.forEach(link -> tagIdsByPost.computeIfAbsent(link.postId(), id -> new ArrayList<>()).add(link.tagId()));
+        }
+        InvertedIndex rebuilt = new InvertedIndex();
+        try (Stream<IndexedPost> posts = postRepository.streamIndexedPosts(PostStatus.PUBLISHED)) {
+            posts.forEach(post -> rebuilt.put(post.id(), post.title(), post.content(), post.categoryId(),
+                    tagIdsByPost.getOrDefault(post.id(), List.of())));
+        }
+
+        synchronized (rebuildMonitor) {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+            ready = true;
+        }
+        log.info("Indexed {} published posts ({} terms, ~{} KiB) in {} ms",
+                rebuilt.documentCount(), rebuilt.termCount(), rebuilt.estimatedMemoryBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostSaved(PostSavedEvent event) {
+        if(event.status() == PostStatus.PUBLISHED) {
+            apply(target -> target.put(event.id(), event.title(), event.content(), event.categoryId(), event.tagIds()));
+        } else {
+            apply(target -> target.remove(event.id()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        apply(target -> target.remove(event.id()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.index.documents", this, service -> service.index.documentCount())
+                .description("Published posts held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("search.index.terms", this, service -> service.index.termCount())
+                .description("Distinct terms held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("search.index.memory", this, service -> service.index.estimatedMemoryBytes())
+                .description("Estimated heap retained by the in-memory search index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        synchronized (rebuildMonitor) {
+            change.accept(index);
+            if(pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+}
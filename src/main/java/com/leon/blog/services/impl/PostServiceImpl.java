@@ -1,26 +1,63 @@
 package com.leon.blog.services.impl;
 
+import com.leon.blog.content.ContentAnalyzer;
+import com.leon.blog.content.ContentMetrics;
+import com.leon.blog.content.MarkdownRenderer;
+import com.leon.blog.content.RenderedHtmlCache;
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.PostCursor;
+import com.leon.blog.domain.PostPage;
+import com.leon.blog.domain.PostSearchHit;
+import com.leon.blog.domain.PostSearchPage;
 import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.PostSummary;
+import com.leon.blog.domain.PostSummaryPage;
+import com.leon.blog.domain.RenderedPost;
+import com.leon.blog.domain.SearchCursor;
 import com.leon.blog.domain.UpdatePostRequest;
 import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.PostHtml;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.events.PostDeletedEvent;
+import com.leon.blog.domain.events.PostSavedEvent;
+import com.leon.blog.domain.projections.CollectionVersion;
+import com.leon.blog.domain.projections.PostCreatedAt;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.domain.projections.PostSummaryRow;
+import com.leon.blog.domain.projections.PostTagRow;
+import com.leon.blog.domain.projections.PostVersion;
+import com.leon.blog.repositories.PostHtmlRepository;
 import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.search.Snippets;
+import com.leon.blog.search.Tokenizer;
 import com.leon.blog.services.CategoryService;
+import com.leon.blog.services.PostIndexService;
 import com.leon.blog.services.PostService;
 import com.leon.blog.services.TagService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,47 +65,159 @@ import java.util.stream.Collectors;
 public class PostServiceImpl implements PostService {
 
     private final PostRepository postRepository;
+    private final PostHtmlRepository postHtmlRepository;
     private final CategoryService categoryService;
     private final TagService tagService;
+    private final ObjectProvider<PostIndexService> postIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContentAnalyzer contentAnalyzer;
+    private final MarkdownRenderer markdownRenderer;
+    private final RenderedHtmlCache renderedHtmlCache;
 
-    private static final int WORDS_PER_MINUTE = 200;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Posts read per export transaction.
+    private static final int EXPORT_BATCH_SIZE = 100;
 
     @Override
     public Post getPost(UUID id) {
-        return postRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Post does not exist with id :" + id));
+        return postRepository.findWithDetailsById(id).orElseThrow(() -> new EntityNotFoundException("Post does not exist with id :" + id));
 
     }
 
+    @Override
+    public PostVersion getPostVersion(UUID id) {
+        return postRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Post does not exist with id :" + id));
+    }
+
     @Transactional(readOnly = true)
     @Override
-    public List<Post> getAllPosts(UUID categoryId, UUID tagId) {
+    public RenderedPost getRenderedPost(UUID id) {
+        LocalDateTime updatedAt = postRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Post does not exist with id :" + id));
+        // Posts saved before HTML was stored are rendered on the fly until the backfill job reaches them.
+        String html = renderedHtmlCache.get(id, updatedAt, postId -> postHtmlRepository.findHtmlByPostId(postId)
+                .orElseGet(() -> markdownRenderer.render(postRepository.findContentById(postId).orElse(""))));
+        return new RenderedPost(CollectionVersion.toHex(updatedAt), html);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PostPage getAllPosts(UUID categoryId, UUID tagId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        // Fetch one extra row to know whether another page exists without a COUNT query.
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        PostCursor after = cursor == null || cursor.isBlank() ? null : PostCursor.decode(cursor);
+
+        List<Post> posts;
         if(categoryId != null && tagId != null) {
-            Category category = categoryService.getCategoryById(categoryId);
-            Tag tag = tagService.getTagById(tagId);
-            return postRepository.findAllByStatusAndCategoryAndTagsContaining(
-                    PostStatus.PUBLISHED,
-                    category,
-                    tag
-            );
+            Category category = categoryService.getCategoryReference(categoryId);
+            Tag tag = tagService.getTagReference(tagId);
+            posts = after == null
+                    ? postRepository.findAllByStatusAndCategoryAndTagsContainingOrderByCreatedAtDescIdDesc(
+                            PostStatus.PUBLISHED, category, tag, fetchLimit)
+                    : postRepository.findPageByStatusAndCategoryAndTagAfter(
+                            PostStatus.PUBLISHED, category, tag, after.createdAt(), after.id(), fetchLimit);
+        } else if(categoryId != null) {
+            Category category = categoryService.getCategoryReference(categoryId);
+            posts = after == null
+                    ? postRepository.findAllByStatusAndCategoryOrderByCreatedAtDescIdDesc(
+                            PostStatus.PUBLISHED, category, fetchLimit)
+                    : postRepository.findPageByStatusAndCategoryAfter(
+                            PostStatus.PUBLISHED, category, after.createdAt(), after.id(), fetchLimit);
+        } else if(tagId != null) {
+            Tag tag = tagService.getTagReference(tagId);
+            posts = after == null
+                    ? postRepository.findAllByStatusAndTagsContainingOrderByCreatedAtDescIdDesc(
+                            PostStatus.PUBLISHED, tag, fetchLimit)
+                    : postRepository.findPageByStatusAndTagAfter(
+                            PostStatus.PUBLISHED, tag, after.createdAt(), after.id(), fetchLimit);
+        } else {
+            posts = after == null
+                    ? postRepository.findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, fetchLimit)
+                    : postRepository.findPageByStatusAfter(
+                            PostStatus.PUBLISHED, after.createdAt(), after.id(), fetchLimit);
         }
 
+        return toPage(posts, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PostSummaryPage getPostSummaries(UUID categoryId, UUID tagId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PostCursor after = cursor == null || cursor.isBlank() ? null : PostCursor.decode(cursor);
         if(categoryId != null) {
-            Category category = categoryService.getCategoryById(categoryId);
-            return postRepository.findAllByStatusAndCategory(
-                    PostStatus.PUBLISHED,
-                    category
-            );
+            categoryService.getCategoryReference(categoryId);
+        }
+        if(tagId != null) {
+            tagService.getTagReference(tagId);
         }
 
+        List<PostSummaryRow> rows = postRepository.findSummaries(categoryId, tagId, after, pageSize + 1);
+        List<PostSummaryRow> pageRows = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        Map<UUID, List<PostTagRow>> tagsByPostId = pageRows.isEmpty()
+                ? Map.of()
+                : postRepository.findTagRowsByPostIds(pageRows.stream().map(PostSummaryRow::id).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(PostTagRow::postId));
+
+        List<PostSummary> summaries = pageRows.stream()
+                .map(row -> PostSummary.builder()
+                        .post(row)
+                        .tags(tagsByPostId.getOrDefault(row.id(), List.of()))
+                        .build())
+                .toList();
+
+        PostSummaryPage.PostSummaryPageBuilder page = PostSummaryPage.builder().posts(summaries);
+        if(rows.size() > pageSize) {
+            page.nextCursor(PostCursor.of(pageRows.getLast()).encode());
+        }
+        return page.build();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PostSearchPage searchPosts(String query, UUID categoryId, UUID tagId, String cursor, Integer limit) {
+        if(query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int pageSize = resolvePageSize(limit);
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        if(categoryId != null) {
+            categoryService.getCategoryReference(categoryId);
+        }
         if(tagId != null) {
-            Tag tag = tagService.getTagById(tagId);
-            return postRepository.findAllByStatusAndTagsContaining(
-                    PostStatus.PUBLISHED,
-                    tag
-            );
+            tagService.getTagReference(tagId);
+        }
+
+        PostIndexService index = postIndexService.getIfAvailable();
+        List<PostSearchRow> rows = index != null && index.isReady()
+                ? index.search(query.trim(), categoryId, tagId, after, pageSize + 1)
+                : postRepository.search(query.trim(), categoryId, tagId, after, pageSize + 1);
+        List<PostSearchRow> pageRows = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        Map<UUID, Post> postsById = postRepository.findAllByIdIn(pageRows.stream().map(PostSearchRow::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<PostSearchHit> hits = new ArrayList<>(pageRows.size());
+        for(PostSearchRow row : pageRows) {
+            Post post = postsById.get(row.id());
+            if(post != null) {
+                String snippet = row.snippet() != null
+                        ? row.snippet()
+                        : Snippets.highlight(post.getContent(), Tokenizer.tokenize(query));
+                hits.add(PostSearchHit.builder().post(post).snippet(snippet).rank(row.rank()).build());
+            }
         }
 
-        return postRepository.findAllByStatus(PostStatus.PUBLISHED);
+        PostSearchPage.PostSearchPageBuilder page = PostSearchPage.builder().hits(hits);
+        if(rows.size() > pageSize) {
+            PostSearchRow last = pageRows.getLast();
+            page.nextCursor(new SearchCursor(last.rank(), last.id()).encode());
+        }
+        return page.build();
     }
 
     @Override
@@ -76,23 +225,100 @@ public class PostServiceImpl implements PostService {
         return postRepository.findAllByAuthorAndStatus(user, PostStatus.DRAFT);
     }
 
+    /**
+     * Walks the published posts by keyset, one page per short transaction: the caller writes each batch after its
+     * connection has gone back to the pool, so a slow client holds no connection while it reads.
+     */
+    @Override
+    public void exportPublishedPosts(Consumer<List<Post>> batchConsumer) {
+        Limit pageSize = Limit.of(EXPORT_BATCH_SIZE);
+        List<PostCreatedAt> page = postRepository.findExportPage(PostStatus.PUBLISHED, pageSize);
+        while(!page.isEmpty()) {
+            Map<UUID, Post> postsById = postRepository.findAllWithDetailsByIdIn(page.stream().map(PostCreatedAt::id).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Post::getId, Function.identity()));
+            // A post deleted or unpublished between the two queries is left out.
+            batchConsumer.accept(page.stream()
+                    .map(row -> postsById.get(row.id()))
+                    .filter(post -> post != null && PostStatus.PUBLISHED == post.getStatus())
+                    .toList());
+            if(page.size() < EXPORT_BATCH_SIZE) {
+                return;
+            }
+            PostCreatedAt last = page.getLast();
+            page = postRepository.findExportPageAfter(PostStatus.PUBLISHED, last.createdAt(), last.id(), pageSize);
+        }
+    }
+
+    @Transactional
     @Override
     public Post createPost(User user, CreatePostRequest dto) {
-        Post newPost = new Post();
-        newPost.setTitle(dto.getTitle());
-        newPost.setContent(dto.getContent());
-        newPost.setStatus(dto.getStatus());
-        newPost.setAuthor(user);
-        newPost.setReadingTime(calculateReadingTime(dto.getContent()));
+        Category category = categoryService.getCategoryReference(dto.getCategoryId());
+        List<Tag> tags = tagService.getTagReferences(dto.getTagIds());
+        Post newPost = newPost(user, dto, category, tags);
 
-        Category category = categoryService.getCategoryById(dto.getCategoryId());
-        newPost.setCategory(category);
+        movePublishedPostCounts(null, Set.of(), publishedCategoryId(newPost), publishedTagIds(newPost));
+        Post savedPost = postRepository.save(newPost);
+        postHtmlRepository.save(renderHtml(newPost));
+        eventPublisher.publishEvent(PostSavedEvent.of(newPost));
+        return savedPost;
+    }
 
-        Set<UUID> tagIds = dto.getTagIds();
-        List<Tag> tags = tagService.getTagByIds(tagIds);
-        newPost.setTags(new HashSet<>(tags));
+    /**
+     * Creates many posts at once: categories and tags of the whole batch are resolved with one query each, posts are
+     * inserted in JDBC batches and counters move once per category and tag. A post whose category or tags do not
+     * exist is rejected on its own; the others are still created.
+     */
+    @Transactional
+    @Override
+    public List<CreatePostResult> createPosts(User user, List<CreatePostRequest> requests) {
+        Set<UUID> categoryIds = requests.stream()
+                .map(CreatePostRequest::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<UUID> tagIds = requests.stream()
+                .flatMap(request -> tagIdsOf(request).stream())
+                .collect(Collectors.toSet());
+        Map<UUID, Category> categories = categoryService.findCategoryReferences(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<UUID, Tag> tags = tagService.findTagReferences(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
 
-        return postRepository.save(newPost);
+        List<CreatePostResult> results = new ArrayList<>(requests.size());
+        List<Post> newPosts = new ArrayList<>(requests.size());
+        Map<UUID, Long> categoryDeltas = new HashMap<>();
+        Map<UUID, Long> tagDeltas = new HashMap<>();
+        for(CreatePostRequest request : requests) {
+            CreatePostResult result = new CreatePostResult();
+            Category category = categories.get(request.getCategoryId());
+            if(category == null) {
+                result.getErrors().put("categoryId", "Category not found with id: " + request.getCategoryId());
+            }
+            List<UUID> missingTagIds = tagIdsOf(request).stream().filter(id -> !tags.containsKey(id)).toList();
+            if(!missingTagIds.isEmpty()) {
+                result.getErrors().put("tagIds", "Tags not found with ids: " + missingTagIds);
+            }
+            if(result.getErrors().isEmpty()) {
+                Post newPost = newPost(user, request, category, tagIdsOf(request).stream().map(tags::get).toList());
+                publishedTagIds(newPost).forEach(tagId -> tagDeltas.merge(tagId, 1L, Long::sum));
+                if(publishedCategoryId(newPost) != null) {
+                    categoryDeltas.merge(category.getId(), 1L, Long::sum);
+                }
+                newPosts.add(newPost);
+                result.setPost(newPost);
+            }
+            results.add(result);
+        }
+
+        categoryDeltas.forEach(categoryService::adjustPublishedPostCount);
+        tagDeltas.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toSet())))
+                .forEach((delta, tagsWithDelta) -> tagService.adjustPublishedPostCount(tagsWithDelta, delta));
+        postRepository.saveAll(newPosts);
+        postHtmlRepository.saveAll(newPosts.stream().map(this::renderHtml).toList());
+        newPosts.forEach(post -> eventPublisher.publishEvent(PostSavedEvent.of(post)));
+        return results;
     }
 
     @Transactional
@@ -102,43 +328,133 @@ public class PostServiceImpl implements PostService {
         if (!existingPost.getAuthor().getId().equals(user.getId())) {
             throw new AccessDeniedException("Forbidden");
         }
+        PostStatus previousStatus = existingPost.getStatus();
+        UUID previouslyPublishedCategoryId = publishedCategoryId(existingPost);
+        Set<UUID> previouslyPublishedTagIds = publishedTagIds(existingPost);
+
         existingPost.setTitle(updatePostRequest.getTitle());
-        String postContent = updatePostRequest.getContent();
-        existingPost.setContent(postContent);
+        setContent(existingPost, updatePostRequest.getContent());
         existingPost.setStatus(updatePostRequest.getStatus());
-        existingPost.setReadingTime(calculateReadingTime(postContent));
 
         UUID updatePostRequestCategoryId = updatePostRequest.getCategoryId();
         if(!existingPost.getCategory().getId().equals(updatePostRequestCategoryId)) {
-            Category newCategory = categoryService.getCategoryById(updatePostRequestCategoryId);
+            Category newCategory = categoryService.getCategoryReference(updatePostRequestCategoryId);
             existingPost.setCategory(newCategory);
         }
 
         Set<UUID> existingTagIds = existingPost.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
         Set<UUID> updatePostRequestTagIds = updatePostRequest.getTagIds();
         if(!existingTagIds.equals(updatePostRequestTagIds)) {
-            List<Tag> newTags = tagService.getTagByIds(updatePostRequestTagIds);
+            List<Tag> newTags = tagService.getTagReferences(updatePostRequestTagIds);
             existingPost.setTags(new HashSet<>(newTags));
         }
 
-        return postRepository.save(existingPost);
+        movePublishedPostCounts(previouslyPublishedCategoryId, previouslyPublishedTagIds,
+                publishedCategoryId(existingPost), publishedTagIds(existingPost));
+        Post savedPost = postRepository.save(existingPost);
+        PostHtml postHtml = postHtmlRepository.findById(id)
+                .orElseGet(() -> PostHtml.builder().post(existingPost).build());
+        postHtml.setHtml(markdownRenderer.render(existingPost.getContent()));
+        postHtmlRepository.save(postHtml);
+        eventPublisher.publishEvent(PostSavedEvent.of(existingPost, previousStatus));
+        return savedPost;
     }
 
+    @Transactional
     @Override
     public void deletePost(UUID id, User user) {
         Post post = getPost(id);
         if(!user.getId().equals(post.getAuthor().getId())) {
             throw new AccessDeniedException("Forbidden");
         }
+        movePublishedPostCounts(publishedCategoryId(post), publishedTagIds(post), null, Set.of());
+        postHtmlRepository.deleteById(id);
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostDeletedEvent(post.getId()));
+    }
+
+    private Post newPost(User user, CreatePostRequest request, Category category, Collection<Tag> tags) {
+        Post newPost = new Post();
+        newPost.setTitle(request.getTitle());
+        setContent(newPost, request.getContent());
+        newPost.setStatus(request.getStatus());
+        newPost.setAuthor(user);
+        newPost.setCategory(category);
+        newPost.setTags(new HashSet<>(tags));
+        return newPost;
+    }
+
+    private static Set<UUID> tagIdsOf(CreatePostRequest request) {
+        return request.getTagIds() == null ? Set.of() : request.getTagIds();
     }
 
-    private Integer calculateReadingTime(String content) {
-        if(content == null || content.isEmpty()) {
-            return 0;
+    private PostHtml renderHtml(Post post) {
+        return PostHtml.builder()
+                .post(post)
+                .html(markdownRenderer.render(post.getContent()))
+                .build();
+    }
+
+    private void setContent(Post post, String content) {
+        ContentMetrics metrics = contentAnalyzer.analyze(content);
+        post.setContent(content);
+        post.setWordCount(metrics.wordCount());
+        post.setReadingTime(metrics.readingTime());
+        post.setExcerpt(metrics.excerpt());
+    }
+
+    // Counters move by id, so categories and tags linked as references are never loaded just to compare them.
+    private UUID publishedCategoryId(Post post) {
+        if(PostStatus.PUBLISHED != post.getStatus() || post.getCategory() == null) {
+            return null;
         }
+        return post.getCategory().getId();
+    }
 
-        int wordCount = content.trim().split("\\s+").length;
-        return (int) Math.ceil((double) wordCount / WORDS_PER_MINUTE);
+    private Set<UUID> publishedTagIds(Post post) {
+        if(PostStatus.PUBLISHED != post.getStatus() || post.getTags() == null) {
+            return Set.of();
+        }
+        return post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
+    private void movePublishedPostCounts(UUID fromCategoryId, Set<UUID> fromTagIds,
+                                         UUID toCategoryId, Set<UUID> toTagIds) {
+        if(!Objects.equals(fromCategoryId, toCategoryId)) {
+            if(fromCategoryId != null) {
+                categoryService.adjustPublishedPostCount(fromCategoryId, -1);
+            }
+            if(toCategoryId != null) {
+                categoryService.adjustPublishedPostCount(toCategoryId, 1);
+            }
+        }
+
+        Set<UUID> removedTagIds = new HashSet<>(fromTagIds);
+        removedTagIds.removeAll(toTagIds);
+        Set<UUID> addedTagIds = new HashSet<>(toTagIds);
+        addedTagIds.removeAll(fromTagIds);
+        tagService.adjustPublishedPostCount(removedTagIds, -1);
+        tagService.adjustPublishedPostCount(addedTagIds, 1);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if(limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if(limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private PostPage toPage(List<Post> posts, int pageSize) {
+        if(posts.size() <= pageSize) {
+            return PostPage.builder().posts(posts).build();
+        }
+        List<Post> page = posts.subList(0, pageSize);
+        return PostPage.builder()
+                .posts(page)
+                .nextCursor(PostCursor.of(page.getLast()).encode())
+                .build();
     }
 }
@@ -0,0 +1,150 @@
+package com.leon.blog.services.impl;
+
+import com.leon.blog.repositories.PostStatsRepository;
+import com.leon.blog.services.PostViewService;
+import com.leon.blog.services.TrendingPostService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts post views in memory and writes them to {@code post_stats} in one batch per flush interval, so a read
+ * never writes to the database. Each post has its own {@link LongAdder}, which spreads concurrent views of a popular
+ * post over several cells instead of contending on one. A crash loses at most the views since the last flush; a
+ * failed flush keeps its views for the next one. Flushed views are passed on to the trending ranking in the same
+ * batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostViewServiceImpl implements PostViewService, MeterBinder {
+
+    private final PostStatsRepository postStatsRepository;
+    private final TrendingPostService trendingPostService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<UUID, PendingViews> pendingViews = new ConcurrentHashMap<>();
+    private final AtomicLong flushedViews = new AtomicLong();
+
+    @Override
+    public void recordView(UUID postId) {
+        while(true) {
+            PendingViews views = pendingViews.get(postId);
+            if(views == null) {
+                views = pendingViews.computeIfAbsent(postId, id -> new PendingViews());
+            }
+            if(views.tryRecord()) {
+                return;
+            }
+            // The counter was dropped as idle before this view reached it: count the view on the one replacing it.
+        }
+    }
+
+    @Override
+    public long getViewCount(UUID postId) {
+        PendingViews pending = pendingViews.get(postId);
+        return postStatsRepository.findViewCountByPostId(postId).orElse(0L) + (pending == null ? 0 : pending.sum());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.post-views.flush-interval:10000}",
+            initialDelayString = "${application.post-views.flush-interval:10000}")
+    @PreDestroy
+    public synchronized void flush() {
+        Map<UUID, Long> viewsByPost = drain();
+        if(viewsByPost.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> postStatsRepository.addViewCounts(viewsByPost));
+            flushedViews.addAndGet(viewsByPost.values().stream().mapToLong(Long::longValue).sum());
+        } catch (RuntimeException e) {
+            log.warn("Could not flush views of {} posts, retrying with the next flush", viewsByPost.size(), e);
+            viewsByPost.forEach((postId, views) -> pendingViews.computeIfAbsent(postId, id -> new PendingViews()).add(views));
+            return;
+        }
+        // Outside the try block: views already written must not be put back if the ranking fails.
+        trendingPostService.recordViews(viewsByPost);
+    }
+
+    private Map<UUID, Long> drain() {
+        Map<UUID, Long> viewsByPost = new HashMap<>();
+        pendingViews.forEach((postId, pending) -> {
+            long views = pending.sumThenReset();
+            if(views > 0) {
+                viewsByPost.put(postId, views);
+            } else {
+                // Not viewed for a whole interval: drop the counter unless a view reached it since the reset.
+                pendingViews.computeIfPresent(postId, (id, idle) -> idle.retireIfIdle() ? null : idle);
+            }
+        });
+        return viewsByPost;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("post.views.pending", pendingViews, Map::size)
+                .description("Posts with views counted in memory and not yet flushed")
+                .register(registry);
+        FunctionCounter.builder("post.views.flushed", flushedViews, AtomicLong::get)
+                .description("Post views written to the database")
+                .register(registry);
+    }
+
+    /**
+     * A post's pending views that can be dropped once idle without losing a view recorded at the same moment. A view
+     * registers itself before checking the counter is live and only then increments it, while the drain marks the
+     * counter as retiring before checking that no view is registered and nothing is pending: either the drain sees the
+     * view and keeps the counter, or the view sees the counter is gone and goes to the one that replaces it.
+     */
+    private static final class PendingViews extends LongAdder {
+
+        private static final int LIVE = 0;
+        private static final int RETIRING = 1;
+        private static final int RETIRED = 2;
+
+        private final LongAdder recording = new LongAdder();
+        private volatile int state = LIVE;
+
+        boolean tryRecord() {
+            recording.increment();
+            try {
+                int current;
+                while((current = state) == RETIRING) {
+                    Thread.onSpinWait();
+                }
+                if(current == RETIRED) {
+                    return false;
+                }
+                increment();
+                return true;
+            } finally {
+                recording.decrement();
+            }
+        }
+
+        boolean retireIfIdle() {
+            state = RETIRING;
+            if(recording.sum() == 0 && sum() == 0) {
+                state = RETIRED;
+                return true;
+            }
+            state = LIVE;
+            return false;
+        }
+    }
+}
@@ -1,27 +1,86 @@
 package com.leon.blog.services.impl;
 
+import com.leon.blog.config.CacheConfig;
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.events.TagsChangedEvent;
+import com.leon.blog.domain.projections.TagPostCount;
+import com.leon.blog.domain.projections.TagRef;
 import com.leon.blog.repositories.TagRepository;
+import com.leon.blog.search.TagPrefixIndex;
 import com.leon.blog.services.TagService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Caches each tag's id and name only, never the entity: posts link to references obtained in their own session, and
+ * the published post count is always read from the database. Cache changes apply once the surrounding transaction
+ * commits.
+ * <p>
+ * Like the category cache, this one is per instance: a tag deleted on another instance stays cached here until it
+ * expires, so linking it fails with 409 rather than 404. Rolling back evicts the cached tags the transaction used.
+ */
 @Service
 @RequiredArgsConstructor
 public class TagServiceImpl implements TagService {
 
+    private static final int DEFAULT_SUGGESTION_LIMIT = 10;
+    private static final int MAX_SUGGESTION_LIMIT = 50;
+
     private final TagRepository tagRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile TagPrefixIndex suggestionIndex = TagPrefixIndex.EMPTY;
 
     @Override
-    public List<Tag> getTags() {
+    public List<TagPostCount> getTags() {
         return tagRepository.findAllWithPostCount();
     }
 
+    @Override
+    public String getTagsVersion() {
+        return tagRepository.findCollectionVersion().stamp();
+    }
+
+    @Override
+    public List<TagPostCount> suggestTags(String prefix, Integer limit) {
+        if(limit != null && (limit < 1 || limit > MAX_SUGGESTION_LIMIT)) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTION_LIMIT);
+        }
+        return suggestionIndex.suggest(prefix, limit == null ? DEFAULT_SUGGESTION_LIMIT : limit);
+    }
+
+    /**
+     * Reloads the suggestion index. Tag creation and deletion refresh it after commit; the schedule picks up
+     * post counts that changed as posts were published or removed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.tags.suggestion-refresh-interval:60000}",
+            initialDelayString = "${application.tags.suggestion-refresh-interval:60000}")
+    public void refreshSuggestionIndex() {
+        suggestionIndex = TagPrefixIndex.of(tagRepository.findAllWithPostCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        refreshSuggestionIndex();
+    }
+
     @Transactional
     @Override
     public List<Tag> createTags(Set<String> tagNames) {
@@ -39,6 +98,7 @@ public class TagServiceImpl implements TagService {
         List<Tag> savedTags = new ArrayList<>();
         if(!newTags.isEmpty()) {
             savedTags = tagRepository.saveAll(newTags);
+            eventPublisher.publishEvent(new TagsChangedEvent());
         }
 
         savedTags.addAll(existingTags);
@@ -55,21 +115,82 @@ public class TagServiceImpl implements TagService {
                 throw new IllegalStateException("Cannot delete tag with posts");
             }
             tagRepository.deleteById(id);
+            tagCache().evict(id);
+            eventPublisher.publishEvent(new TagsChangedEvent());
         });
     }
 
     @Override
-    public Tag getTagById(UUID id) {
-        return tagRepository.findById(id)
+    public Tag getTagReference(UUID id) {
+        Cache cache = tagCache();
+        if(cache.get(id, TagRef.class) != null) {
+            evictOnRollback(Set.of(id));
+            return tagRepository.getReferenceById(id);
+        }
+        Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tag not found with id: " + id));
+        cache.put(id, TagRef.of(tag));
+        return tag;
     }
 
     @Override
-    public List<Tag> getTagByIds(Set<UUID> ids) {
-        List<Tag> foundTags = tagRepository.findAllById(ids);
+    public List<Tag> getTagReferences(Set<UUID> ids) {
+        List<Tag> foundTags = findTagReferences(ids);
         if(foundTags.size() != ids.size()) {
             throw new EntityNotFoundException("Not all specified tag IDs exist");
         }
         return foundTags;
     }
+
+    @Override
+    public List<Tag> findTagReferences(Set<UUID> ids) {
+        Cache cache = tagCache();
+        List<Tag> foundTags = new ArrayList<>(ids.size());
+        Set<UUID> missingIds = new HashSet<>();
+        Set<UUID> cachedIds = new HashSet<>();
+        for(UUID id : ids) {
+            if(cache.get(id, TagRef.class) != null) {
+                foundTags.add(tagRepository.getReferenceById(id));
+                cachedIds.add(id);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        evictOnRollback(cachedIds);
+
+        if(!missingIds.isEmpty()) {
+            List<Tag> loadedTags = tagRepository.findAllById(missingIds);
+            loadedTags.forEach(tag -> cache.put(tag.getId(), TagRef.of(tag)));
+            foundTags.addAll(loadedTags);
+        }
+        return foundTags;
+    }
+
+    @Transactional
+    @Override
+    public void adjustPublishedPostCount(Set<UUID> tagIds, long delta) {
+        if(tagIds.isEmpty()) {
+            return;
+        }
+        tagRepository.adjustPublishedPostCount(tagIds, delta);
+    }
+
+    private Cache tagCache() {
+        return new TransactionAwareCacheDecorator(Objects.requireNonNull(cacheManager.getCache(CacheConfig.TAGS)));
+    }
+
+    private void evictOnRollback(Set<UUID> ids) {
+        if(ids.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TAGS));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status != STATUS_COMMITTED) {
+                    ids.forEach(cache::evict);
+                }
+            }
+        });
+    }
 }
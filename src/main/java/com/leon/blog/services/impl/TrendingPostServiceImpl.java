@@ -0,0 +1,234 @@
+package com.leon.blog.services.impl;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.TrendingPostScore;
+import com.leon.blog.domain.events.PostDeletedEvent;
+import com.leon.blog.domain.events.PostSavedEvent;
+import com.leon.blog.domain.projections.PostCreatedAt;
+import com.leon.blog.ranking.DecayingTopK;
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.TrendingPostScoreRepository;
+import com.leon.blog.services.TrendingPostService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks published posts by views and publication, each decaying with the configured half-life, in a fixed-size
+ * {@link DecayingTopK}. Views arrive in batches from {@link PostViewServiceImpl} on its flush tick, so reading a post
+ * never takes the ranking's lock; post changes apply at once. The trending list is read from memory and only the
+ * posts on it are loaded.
+ * <p>
+ * {@code trending_post_scores} holds the scores of all instances. Each snapshot, periodically and on shutdown, adds
+ * the score this instance gained since the previous one to the stored scores, then reloads the top {@code capacity}
+ * scores from the table so the ranking includes what other instances merged. Without stored scores the newest posts are ranked by
+ * publication alone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingPostServiceImpl implements TrendingPostService, MeterBinder {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final double VIEW_WEIGHT = 1.0;
+    // Stored scores that have not grown for this many half-lives are worth less than a millionth and are dropped.
+    private static final int STALE_AFTER_HALF_LIVES = 20;
+    // Rounds of replacing ranked posts that turn out unpublished or deleted before returning a short list.
+    private static final int MAX_LOOKUP_ROUNDS = 3;
+
+    private final PostRepository postRepository;
+    private final TrendingPostScoreRepository trendingPostScoreRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.trending.capacity:1000}")
+    private int capacity = 1000;
+
+    @Value("${application.trending.half-life:24h}")
+    private Duration halfLife = Duration.ofHours(24);
+
+    @Value("${application.trending.publish-weight:10}")
+    private double publishWeight = 10;
+
+    private volatile DecayingTopK ranking;
+
+    // Score gained on this instance since the last snapshot, unbounded so none of it is lost before the merge.
+    private final Object gainedLock = new Object();
+    private DecayingTopK gained;
+
+    @PostConstruct
+    void createRanking() {
+        ranking = new DecayingTopK(capacity, halfLife);
+        gained = new DecayingTopK(Integer.MAX_VALUE, halfLife);
+    }
+
+    @Override
+    public List<Post> getTrendingPosts(Integer limit) {
+        int pageSize = resolveLimit(limit);
+        DecayingTopK current = ranking;
+        Map<UUID, Post> published = new HashMap<>();
+        List<UUID> ids = current.top(pageSize);
+        // Ranked posts that are no longer published, or were deleted before their event arrived, leave the ranking
+        // and the next ones move up to fill the list.
+        for(int round = 0; round < MAX_LOOKUP_ROUNDS; round++) {
+            List<UUID> unloaded = ids.stream().filter(id -> !published.containsKey(id)).toList();
+            if(unloaded.isEmpty()) {
+                break;
+            }
+            Map<UUID, Post> postsById = postRepository.findAllByIdIn(unloaded).stream()
+                    .collect(Collectors.toMap(Post::getId, Function.identity()));
+            for(UUID id : unloaded) {
+                Post post = postsById.get(id);
+                if(post != null && post.getStatus() == PostStatus.PUBLISHED) {
+                    published.put(id, post);
+                } else {
+                    current.remove(id);
+                }
+            }
+            ids = current.top(pageSize);
+        }
+        return ids.stream().map(published::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public void recordViews(Map<UUID, Long> viewsByPost) {
+        Instant now = Instant.now();
+        Map<UUID, Double> weights = new HashMap<>(viewsByPost.size());
+        viewsByPost.forEach((postId, views) -> weights.put(postId, views * VIEW_WEIGHT));
+        ranking.addAll(weights, now);
+        synchronized(gainedLock) {
+            gained.addAll(weights, now);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostSaved(PostSavedEvent event) {
+        if(event.status() != PostStatus.PUBLISHED) {
+            ranking.remove(event.id());
+        } else if(event.published()) {
+            // Only publication earns the boost; re-saving a published post must not bring it back into trending.
+            score(event.id(), publishWeight, Instant.now());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        ranking.remove(event.id());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        List<TrendingPostScore> scores = topScores();
+        if(!scores.isEmpty()) {
+            ranking = rankingOf(scores);
+            log.info("Restored {} trending post scores", scores.size());
+            return;
+        }
+        List<PostCreatedAt> newest = postRepository.findNewest(PostStatus.PUBLISHED, Limit.of(capacity));
+        for(PostCreatedAt post : newest) {
+            score(post.id(), publishWeight, post.createdAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        log.info("No trending scores found, ranked the {} newest posts", newest.size());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.trending.snapshot-interval:60000}",
+            initialDelayString = "${application.trending.snapshot-interval:60000}")
+    @PreDestroy
+    public synchronized void snapshot() {
+        Instant now = Instant.now();
+        DecayingTopK gainedSinceLastSnapshot;
+        synchronized(gainedLock) {
+            gainedSinceLastSnapshot = gained;
+            gained = new DecayingTopK(Integer.MAX_VALUE, halfLife);
+        }
+        // Scores decayed below the smallest double are worth nothing and could not be restored.
+        List<ScoredItem> scores = gainedSinceLastSnapshot.scoresAt(now).stream()
+                .filter(score -> score.score() > 0)
+                .toList();
+        Instant staleBefore = now.minus(halfLife.multipliedBy(STALE_AFTER_HALF_LIVES));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                trendingPostScoreRepository.mergeScores(scores, now, halfLife);
+                trendingPostScoreRepository.deleteScoredBefore(staleBefore);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not snapshot {} trending post scores, retrying with the next snapshot", scores.size(), e);
+            synchronized(gainedLock) {
+                scores.forEach(score -> gained.add(score.id(), score.score(), now));
+            }
+            return;
+        }
+        try {
+            // Score gained while this ran is only in the next snapshot, and back in the ranking after it.
+            ranking = rankingOf(topScores());
+        } catch (RuntimeException e) {
+            log.warn("Could not reload trending post scores, keeping the current ranking", e);
+        }
+    }
+
+    private void score(UUID postId, double weight, Instant time) {
+        ranking.add(postId, weight, time);
+        synchronized(gainedLock) {
+            gained.add(postId, weight, time);
+        }
+    }
+
+    // Only the scores that fit in the ranking; the rest of the table is never read.
+    private List<TrendingPostScore> topScores() {
+        return trendingPostScoreRepository.findTopByPostStatus(PostStatus.PUBLISHED,
+                halfLife.toMillis() / 1000.0, Limit.of(capacity));
+    }
+
+    private DecayingTopK rankingOf(List<TrendingPostScore> scores) {
+        DecayingTopK loaded = new DecayingTopK(capacity, halfLife);
+        for(TrendingPostScore score : scores) {
+            if(score.getScore() > 0) {
+                loaded.add(score.getPostId(), score.getScore(), score.getScoredAt());
+            }
+        }
+        return loaded;
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if(limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if(limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trending.posts.tracked", this, service -> service.ranking.size())
+                .description("Posts held by the in-memory trending ranking")
+                .register(registry);
+    }
+}
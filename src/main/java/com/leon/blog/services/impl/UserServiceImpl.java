@@ -28,6 +28,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
     }
 
+    @Override
+    public User getUserReference(UUID id) {
+        return userRepository.getReferenceById(id);
+    }
+
     @Override
     public UserDetails register(RegisterRequest register) {
         if (userRepository.findByEmail(register.getEmail()).isPresent()) {
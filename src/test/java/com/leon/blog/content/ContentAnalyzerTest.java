@@ -0,0 +1,25 @@
+package com.leon.blog.content;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentAnalyzerTest {
+
+    private final ContentAnalyzer analyzer = new ContentAnalyzer(new ReadingTimeCalculator(), new ExcerptGenerator());
+
+    @Test
+    public void analyze_deriveReadingTimeFromWordCountAndKeepExcerpt() {
+        // GIVEN
+        String content = "## Heading\n\n" + "word ".repeat(401);
+
+        // WHEN
+        ContentMetrics metrics = analyzer.analyze(content);
+
+        // THEN
+        assertEquals(402, metrics.wordCount());
+        assertEquals(3, metrics.readingTime());
+        assertTrue(metrics.excerpt().startsWith("Heading word word"));
+        assertTrue(metrics.excerpt().endsWith("…"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.leon.blog.content;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExcerptGeneratorTest {
+
+    private final ExcerptGenerator generator = new ExcerptGenerator();
+
+    @Test
+    public void excerpt_whenShort_returnWholeTextWithCollapsedWhitespace() {
+        // WHEN & THEN
+        assertEquals("this is a post about movie.", generator.excerpt("  this is a\tpost\n\nabout   movie.  "));
+        assertEquals("", generator.excerpt(""));
+        assertEquals("", generator.excerpt(null));
+    }
+
+    @Test
+    public void excerpt_whenMarkdown_keepOnlyTheProse() {
+        // GIVEN
+        String markdown = """
+                # Records in *Java*
+
+                > A **short** quote with `code`.
+
+                ```java
+                record Point(int x, int y) {}
+                ```
+
+                - see the [docs](https://example.com/docs) ![diagram](diagram.png)
+                1. keep snake_case <br/> names
+                """;
+
+        // WHEN & THEN
+        assertEquals("Records in Java A short quote with code. see the docs keep snake_case names",
+                generator.excerpt(markdown));
+    }
+
+    @Test
+    public void excerpt_whenLong_cutAtWordBoundaryWithEllipsis() {
+        // GIVEN
+        String content = "word ".repeat(200);
+
+        // WHEN
+        String excerpt = generator.excerpt(content);
+
+        // THEN
+        assertTrue(excerpt.length() <= ExcerptGenerator.MAX_LENGTH + 1);
+        assertTrue(excerpt.endsWith("word…"));
+    }
+
+    @Test
+    public void excerpt_whenLongTextHasNoSpaces_cutWithoutSplittingSurrogatePairs() {
+        // GIVEN
+        String content = "日本語".repeat(50) + "𠀋".repeat(200);
+
+        // WHEN
+        String excerpt = generator.excerpt(content);
+
+        // THEN
+        assertTrue(excerpt.endsWith("𠀋…"));
+        assertFalse(Character.isHighSurrogate(excerpt.charAt(excerpt.length() - 2)));
+        assertTrue(excerpt.length() <= ExcerptGenerator.MAX_LENGTH + 1);
+    }
+}
@@ -0,0 +1,40 @@
+package com.leon.blog.content;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkdownRendererTest {
+
+    private final MarkdownRenderer renderer = new MarkdownRenderer();
+
+    @Test
+    public void render_whenMarkdown_returnHtml() {
+        // WHEN & THEN
+        assertEquals("<h1>Title</h1>\n<p>Some <em>text</em> and <code>code</code></p>\n",
+                renderer.render("# Title\n\nSome *text* and `code`"));
+        assertEquals("", renderer.render(null));
+    }
+
+    @Test
+    public void render_whenRawHtmlInSource_escapeIt() {
+        // WHEN
+        String html = renderer.render("<script>alert(1)</script>\n\ntext <img src=x onerror=alert(1)>");
+
+        // THEN
+        assertFalse(html.contains("<script"));
+        assertFalse(html.contains("<img"));
+        assertTrue(html.contains("&lt;script&gt;"));
+    }
+
+    @Test
+    public void render_whenLinkHasUnsafeScheme_dropAddressAndMarkLinksNofollow() {
+        // WHEN
+        String unsafe = renderer.render("[click](javascript:alert(1))");
+        String safe = renderer.render("[docs](https://example.com)");
+
+        // THEN
+        assertFalse(unsafe.contains("javascript:"));
+        assertEquals("<p><a rel=\"nofollow noopener\" href=\"https://example.com\">docs</a></p>\n", safe);
+    }
+}
@@ -0,0 +1,51 @@
+package com.leon.blog.content;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadingTimeCalculatorTest {
+
+    private final ReadingTimeCalculator calculator = new ReadingTimeCalculator();
+
+    @Test
+    public void countWords_whenSeparatedByAsciiWhitespace_countEachRun() {
+        // WHEN & THEN
+        assertEquals(5, calculator.countWords("  this is\ta post\n\nabout "));
+        assertEquals(0, calculator.countWords(""));
+        assertEquals(0, calculator.countWords("   \n "));
+        assertEquals(0, calculator.countWords(null));
+    }
+
+    @Test
+    public void countWords_whenSeparatedByUnicodeSpaces_countEachRun() {
+        // GIVEN no-break space, narrow no-break space, em space, ideographic space and zero-width space
+        String text = "one\u00A0two\u202Fthree\u2003four\u3000five\u200Bsix";
+
+        // WHEN & THEN
+        assertEquals(6, calculator.countWords(text));
+    }
+
+    @Test
+    public void countWords_whenMarkdownMarkersOrPunctuationStandAlone_ignoreThem() {
+        // WHEN & THEN
+        assertEquals(5, calculator.countWords("# Title\n\n- item one\n> quote -- end"));
+    }
+
+    @Test
+    public void countWords_whenTextIsCjk_countEachCharacter() {
+        // WHEN & THEN
+        assertEquals(5, calculator.countWords("日本語です"));
+        assertEquals(7, calculator.countWords("Java言語で書く blog"));
+        assertEquals(2, calculator.countWords("𠀋𠀋"));
+    }
+
+    @Test
+    public void readingTimeMinutes_roundUpToWholeMinutes() {
+        // WHEN & THEN
+        assertEquals(0, calculator.readingTimeMinutes(""));
+        assertEquals(1, calculator.readingTimeMinutes("word"));
+        assertEquals(1, calculator.readingTimeMinutes("word ".repeat(200)));
+        assertEquals(2, calculator.readingTimeMinutes("word ".repeat(201)));
+    }
+}
@@ -6,6 +6,7 @@ import com.leon.blog.domain.dtos.LoginRequest;
 import com.leon.blog.domain.entities.User;
 import com.leon.blog.security.BlogUserDetails;
 import com.leon.blog.services.AuthenticationService;
+import com.leon.blog.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -34,6 +35,9 @@ public class AuthControllerTest {
     @MockitoBean
     private AuthenticationService authenticationService;
 
+    @MockitoBean
+    private UserService userService;
+
     @Test
     void login_shouldReturnTokenAndStatusOk() throws Exception {
         User user = User.builder()
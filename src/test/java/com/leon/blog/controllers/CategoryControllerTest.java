@@ -4,12 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leon.blog.domain.dtos.CategoryDto;
 import com.leon.blog.domain.dtos.CreateCategoryRequest;
 import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.projections.CategoryPostCount;
 import com.leon.blog.mappers.CategoryMapper;
 import com.leon.blog.services.CategoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,9 +19,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,22 +47,35 @@ public class CategoryControllerTest {
     @Test
     void listCategories_shouldReturnOk() throws Exception {
         UUID id = UUID.randomUUID();
-        Category category = Category.builder().id(id).name("movie").build();
-        CategoryDto categoryDto = CategoryDto.builder().id(id).name("movie").build();
+        CategoryPostCount category = mock(CategoryPostCount.class);
+        CategoryDto categoryDto = CategoryDto.builder().id(id).name("movie").postCount(3).build();
 
+        when(categoryService.getCategoriesVersion()).thenReturn("1-5f3a");
         when(categoryService.listCategories()).thenReturn(List.of(category));
         when(categoryMapper.toDto(category)).thenReturn(categoryDto);
 
         mockMvc.perform(get("/api/v1/categories"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5f3a\""))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(id.toString()))
-                .andExpect(jsonPath("$[0].name").value(category.getName()));
+                .andExpect(jsonPath("$[0].name").value("movie"))
+                .andExpect(jsonPath("$[0].postCount").value(3));
 
         verify(categoryService).listCategories();
         verify(categoryMapper).toDto(category);
     }
 
+    @Test
+    void listCategories_whenIfNoneMatchesCurrentVersion_returnNotModified() throws Exception {
+        when(categoryService.getCategoriesVersion()).thenReturn("1-5f3a");
+
+        mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, "\"1-5f3a\""))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService, never()).listCategories();
+    }
+
     @Test
     void createCategory_shouldReturnCreated() throws Exception {
         CreateCategoryRequest createCategoryRequest = CreateCategoryRequest.builder()
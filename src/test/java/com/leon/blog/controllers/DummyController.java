@@ -1,6 +1,8 @@
 package com.leon.blog.controllers;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -30,6 +32,16 @@ public class DummyController {
         throw new BadCredentialsException("Invalid credentials");
     }
 
+    @GetMapping("/task-rejected")
+    public void throwTaskRejected() {
+        throw new TaskRejectedException("Queue full");
+    }
+
+    @GetMapping("/data-integrity")
+    public void throwDataIntegrityViolation() {
+        throw new DataIntegrityViolationException("FK_POSTS_AUTHOR");
+    }
+
     @GetMapping("/unexpected")
     public void throwUnexpected() {
         throw new RuntimeException("Unexpected error");
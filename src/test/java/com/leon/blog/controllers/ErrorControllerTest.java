@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,6 +20,7 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,6 +55,13 @@ public class ErrorControllerTest {
                 .andExpect(jsonPath("$.message").value("Conflict state"));
     }
 
+    @Test
+    void shouldReturnConflict_whenDataIntegrityViolationExceptionThrown() throws Exception {
+        mockMvc.perform(get("/test/errors/data-integrity"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
     @Test
     void shouldReturnUnauthorized_whenBadCredentialsExceptionThrown() throws Exception {
         mockMvc.perform(get("/test/errors/bad-credentials"))
@@ -61,6 +70,14 @@ public class ErrorControllerTest {
                 .andExpect(jsonPath("$.message").value("Incorrect username or password"));
     }
 
+    @Test
+    void shouldReturnServiceUnavailable_whenTaskRejectedExceptionThrown() throws Exception {
+        mockMvc.perform(get("/test/errors/task-rejected"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
     @Test
     void shouldReturnInternalServerError_whenUnexpectedExceptionThrown() throws Exception {
         mockMvc.perform(get("/test/errors/unexpected"))
@@ -0,0 +1,113 @@
+package com.leon.blog.controllers;
+
+import com.leon.blog.domain.ImportStatus;
+import com.leon.blog.domain.dtos.PostImportDto;
+import com.leon.blog.domain.entities.PostImport;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.mappers.PostImportMapper;
+import com.leon.blog.security.JwtPrincipal;
+import com.leon.blog.services.PostImportService;
+import com.leon.blog.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PostImportService postImportService;
+
+    @MockitoBean
+    private PostImportMapper postImportMapper;
+
+    @MockitoBean
+    private UserService userService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(User user) {
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getEmail(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void createImport_acceptsNdjsonAndPointsToTheImport() throws Exception {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        PostImport postImport = PostImport.builder().id(UUID.randomUUID()).status(ImportStatus.QUEUED).build();
+        PostImportDto postImportDto = PostImportDto.builder()
+                .id(postImport.getId())
+                .status(ImportStatus.QUEUED)
+                .totalLines(2)
+                .build();
+
+        authenticateAs(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
+        when(postImportService.startImport(eq(user), any(InputStream.class))).thenReturn(postImport);
+        when(postImportMapper.toDto(postImport)).thenReturn(postImportDto);
+
+        mockMvc.perform(post("/api/v1/imports")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"one\"}\n{\"title\":\"two\"}\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/v1/imports/" + postImport.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.totalLines").value(2));
+    }
+
+    @Test
+    void getImport_returnsProgress() throws Exception {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        PostImport postImport = PostImport.builder().id(UUID.randomUUID()).status(ImportStatus.RUNNING).build();
+        PostImportDto postImportDto = PostImportDto.builder()
+                .id(postImport.getId())
+                .status(ImportStatus.RUNNING)
+                .totalLines(1000)
+                .processedLines(500)
+                .createdPosts(498)
+                .rejectedPosts(2)
+                .postsPerSecond(250.0)
+                .build();
+
+        authenticateAs(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
+        when(postImportService.getImport(postImport.getId(), user)).thenReturn(postImport);
+        when(postImportMapper.toDto(postImport)).thenReturn(postImportDto);
+
+        mockMvc.perform(get("/api/v1/imports/{id}", postImport.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedLines").value(500))
+                .andExpect(jsonPath("$.createdPosts").value(498))
+                .andExpect(jsonPath("$.postsPerSecond").value(250.0));
+    }
+}
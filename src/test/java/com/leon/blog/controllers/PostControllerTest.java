@@ -2,31 +2,59 @@ package com.leon.blog.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.PostPage;
+import com.leon.blog.domain.PostSearchHit;
+import com.leon.blog.domain.PostSearchPage;
 import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.PostSummary;
+import com.leon.blog.domain.PostSummaryPage;
+import com.leon.blog.domain.RenderedPost;
 import com.leon.blog.domain.UpdatePostRequest;
 import com.leon.blog.domain.dtos.AuthorDto;
 import com.leon.blog.domain.dtos.CreatePostRequestDto;
+import com.leon.blog.domain.dtos.CreatePostsRequestDto;
 import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.domain.dtos.PostSearchHitDto;
+import com.leon.blog.domain.dtos.PostSummaryDto;
 import com.leon.blog.domain.dtos.UpdatePostRequestDto;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.PostVersion;
 import com.leon.blog.mappers.PostMapper;
+import com.leon.blog.security.JwtPrincipal;
 import com.leon.blog.services.PostService;
+import com.leon.blog.services.PostViewService;
+import com.leon.blog.services.TrendingPostService;
 import com.leon.blog.services.UserService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -51,15 +79,111 @@ class PostControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private PostViewService postViewService;
+
+    @MockitoBean
+    private TrendingPostService trendingPostService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(User user) {
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getEmail(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
     @Test
     void getAllPosts_shouldReturnAllPosts() throws Exception {
         Post post = Post.builder().build();
         PostDto postDto = PostDto.builder().build();
-        when(postService.getAllPosts(null, null)).thenReturn(List.of(post));
+        when(postService.getAllPosts(null, null, null, null))
+                .thenReturn(PostPage.builder().posts(List.of(post)).build());
         when(postMapper.toDto(post)).thenReturn(postDto);
 
         mockMvc.perform(get("/api/v1/posts"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PostController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllPosts_whenMorePostsExist_returnNextCursorHeader() throws Exception {
+        Post post = Post.builder().build();
+        PostDto postDto = PostDto.builder().build();
+        when(postService.getAllPosts(null, null, "abc", 1))
+                .thenReturn(PostPage.builder().posts(List.of(post)).nextCursor("def").build());
+        when(postMapper.toDto(post)).thenReturn(postDto);
+
+        mockMvc.perform(get("/api/v1/posts").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(PostController.NEXT_CURSOR_HEADER, "def"));
+    }
+
+    @Test
+    void getPostSummaries_returnExcerptsWithoutContentAndNextCursorHeader() throws Exception {
+        PostSummary summary = PostSummary.builder().build();
+        PostSummaryDto summaryDto = PostSummaryDto.builder().title("Java").excerpt("Records are great.").build();
+        when(postService.getPostSummaries(null, null, "abc", 1))
+                .thenReturn(PostSummaryPage.builder().posts(List.of(summary)).nextCursor("def").build());
+        when(postMapper.toSummaryDto(summary)).thenReturn(summaryDto);
+
+        mockMvc.perform(get("/api/v1/posts/summaries").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].excerpt").value("Records are great."))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(header().string(PostController.NEXT_CURSOR_HEADER, "def"));
+    }
+
+    @Test
+    void searchPosts_returnHitsWithSnippetsAndNextCursorHeader() throws Exception {
+        Post post = Post.builder().build();
+        PostSearchHit hit = PostSearchHit.builder().post(post).snippet("<mark>java</mark>").rank(0.5).build();
+        PostSearchHitDto hitDto = PostSearchHitDto.builder()
+                .post(PostDto.builder().title("Java").build())
+                .snippet("<mark>java</mark>")
+                .rank(0.5)
+                .build();
+        when(postService.searchPosts("java", null, null, null, 1))
+                .thenReturn(PostSearchPage.builder().hits(List.of(hit)).nextCursor("def").build());
+        when(postMapper.toSearchHitDto(hit)).thenReturn(hitDto);
+
+        mockMvc.perform(get("/api/v1/posts/search").param("q", "java").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].post.title").value("Java"))
+                .andExpect(jsonPath("$[0].snippet").value("<mark>java</mark>"))
+                .andExpect(header().string(PostController.NEXT_CURSOR_HEADER, "def"));
+    }
+
+    @Test
+    void exportPosts_streamOnePostPerLine() throws Exception {
+        Post post1 = Post.builder().id(UUID.randomUUID()).build();
+        Post post2 = Post.builder().id(UUID.randomUUID()).build();
+        Post post3 = Post.builder().id(UUID.randomUUID()).build();
+        when(postMapper.toDto(post1)).thenReturn(PostDto.builder().title("First").build());
+        when(postMapper.toDto(post2)).thenReturn(PostDto.builder().title("Second").build());
+        when(postMapper.toDto(post3)).thenReturn(PostDto.builder().title("Third").build());
+        doAnswer(invocation -> {
+            Consumer<List<Post>> batchConsumer = invocation.getArgument(0);
+            batchConsumer.accept(List.of(post1, post2));
+            batchConsumer.accept(List.of(post3));
+            return null;
+        }).when(postService).exportPublishedPosts(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/posts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("First", objectMapper.readValue(lines[0], PostDto.class).getTitle());
+        assertEquals("Third", objectMapper.readValue(lines[2], PostDto.class).getTitle());
     }
 
     @Test
@@ -79,6 +203,7 @@ class PostControllerTest {
         Post post = Post.builder().build();
         PostDto postDto = PostDto.builder().title("Test Title").build();
 
+        authenticateAs(user);
         when(userService.getUserById(userId)).thenReturn(user);
         when(postMapper.toCreatePostRequest(createPostRequestDto)).thenReturn(createPostRequest);
         when(postService.createPost(eq(user), eq(createPostRequest))).thenReturn(post);
@@ -93,6 +218,73 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Title"));
     }
 
+    @Test
+    void createPosts_reportInvalidAndRejectedPostsByIndexAndCreateTheRest() throws Exception {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder().id(userId).build();
+
+        CreatePostRequestDto valid1 = CreatePostRequestDto.builder()
+                .title("First Post")
+                .content("First content")
+                .categoryId(UUID.randomUUID())
+                .status(PostStatus.PUBLISHED)
+                .build();
+        CreatePostRequestDto invalid = CreatePostRequestDto.builder()
+                .title("x")
+                .content("Some content")
+                .status(PostStatus.PUBLISHED)
+                .build();
+        CreatePostRequestDto valid2 = CreatePostRequestDto.builder()
+                .title("Second Post")
+                .content("Second content")
+                .categoryId(UUID.randomUUID())
+                .status(PostStatus.DRAFT)
+                .build();
+
+        CreatePostRequest request1 = CreatePostRequest.builder().title("First Post").build();
+        CreatePostRequest request2 = CreatePostRequest.builder().title("Second Post").build();
+        Post created = Post.builder().id(UUID.randomUUID()).build();
+
+        authenticateAs(user);
+        when(userService.getUserReference(userId)).thenReturn(user);
+        when(postMapper.toCreatePostRequest(valid1)).thenReturn(request1);
+        when(postMapper.toCreatePostRequest(valid2)).thenReturn(request2);
+        when(postService.createPosts(user, List.of(request1, request2))).thenReturn(List.of(
+                CreatePostResult.builder().post(created).build(),
+                CreatePostResult.builder().errors(Map.of("categoryId", "Category not found")).build()));
+
+        mockMvc.perform(post("/api/v1/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                CreatePostsRequestDto.builder().posts(List.of(valid1, invalid, valid2)).build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].id").value(created.getId().toString()))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].errors[0].field").value("categoryId"))
+                .andExpect(jsonPath("$.results[1].errors[1].field").value("title"))
+                .andExpect(jsonPath("$.results[2].errors[0].message").value("Category not found"));
+    }
+
+    @Test
+    void createPosts_whenBatchEmptyOrTooLarge_returnBadRequest() throws Exception {
+        authenticateAs(User.builder().id(UUID.randomUUID()).build());
+        List<CreatePostRequestDto> tooMany = Collections.nCopies(
+                CreatePostsRequestDto.MAX_POSTS + 1, CreatePostRequestDto.builder().build());
+
+        mockMvc.perform(post("/api/v1/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CreatePostsRequestDto.builder().build())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CreatePostsRequestDto.builder().posts(tooMany).build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(postService);
+    }
+
     @Test
     void getDrafts() throws Exception {
         User user = User.builder().id(UUID.randomUUID()).build();
@@ -114,7 +306,7 @@ class PostControllerTest {
                 .status(PostStatus.DRAFT)
                 .build();
 
-        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
         when(postService.getDraftPosts(user)).thenReturn(List.of(post));
         when(postMapper.toDto(any(Post.class))).thenReturn(postDto);
 
@@ -128,7 +320,7 @@ class PostControllerTest {
                 .andExpect(jsonPath("$[0].status").value("DRAFT"));
 
         // verify interactions
-        verify(userService).getUserById(user.getId());
+        verify(userService).getUserReference(user.getId());
         verify(postService).getDraftPosts(user);
         verify(postMapper).toDto(post);
     }
@@ -145,17 +337,94 @@ class PostControllerTest {
                 .title(post.getTitle())
                 .build();
 
+        PostVersion version = version(PostStatus.PUBLISHED);
+        when(postService.getPostVersion(post.getId())).thenReturn(version);
         when(postService.getPost(post.getId())).thenReturn(post);
         when(postMapper.toDto(post)).thenReturn(postDto);
+        when(postViewService.getViewCount(post.getId())).thenReturn(42L);
 
         mockMvc.perform(get("/api/v1/posts/{id}", post.getId()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title").value("Test Title"));
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + version.stamp() + "\""))
+                .andExpect(jsonPath("$.title").value("Test Title"))
+                .andExpect(jsonPath("$.viewCount").value(42));
+
+        verify(postViewService).recordView(post.getId());
+    }
+
+    @Test
+    void getPost_whenDraft_doNotCountView() throws Exception {
+        Post post = Post.builder().id(UUID.randomUUID()).title("Draft").build();
+        when(postService.getPostVersion(post.getId())).thenReturn(version(PostStatus.DRAFT));
+        when(postService.getPost(post.getId())).thenReturn(post);
+        when(postMapper.toDto(post)).thenReturn(PostDto.builder().id(post.getId()).title("Draft").build());
+
+        mockMvc.perform(get("/api/v1/posts/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Draft"));
+
+        verify(postViewService, never()).recordView(any());
+    }
+
+    @Test
+    void getTrendingPosts_returnPostsInRankingOrder() throws Exception {
+        Post first = Post.builder().id(UUID.randomUUID()).build();
+        Post second = Post.builder().id(UUID.randomUUID()).build();
+        when(trendingPostService.getTrendingPosts(2)).thenReturn(List.of(first, second));
+        when(postMapper.toDto(first)).thenReturn(PostDto.builder().title("Hot").build());
+        when(postMapper.toDto(second)).thenReturn(PostDto.builder().title("Warm").build());
+
+        mockMvc.perform(get("/api/v1/posts/trending").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Hot"))
+                .andExpect(jsonPath("$[1].title").value("Warm"));
+    }
+
+    @Test
+    void getPost_whenIfNoneMatchesCurrentVersion_returnNotModifiedWithoutLoadingPost() throws Exception {
+        UUID id = UUID.randomUUID();
+        PostVersion version = version(PostStatus.PUBLISHED);
+        when(postService.getPostVersion(id)).thenReturn(version);
+        String eTag = "W/\"" + version.stamp() + "\"";
+
+        mockMvc.perform(get("/api/v1/posts/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(postService, never()).getPost(any());
+        verifyNoInteractions(postMapper);
+        verify(postViewService).recordView(id);
+    }
+
+    @Test
+    void getPostHtml_returnRenderedHtmlWithETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(postService.getRenderedPost(id)).thenReturn(new RenderedPost("18f", "<h1>Title</h1>\n"));
+
+        mockMvc.perform(get("/api/v1/posts/{id}/html", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"18f\""))
+                .andExpect(content().string("<h1>Title</h1>\n"));
+    }
+
+    @Test
+    void getPostHtml_whenIfNoneMatchesCurrentVersion_returnNotModified() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(postService.getRenderedPost(id)).thenReturn(new RenderedPost("18f", "<h1>Title</h1>\n"));
+
+        mockMvc.perform(get("/api/v1/posts/{id}/html", id).header(HttpHeaders.IF_NONE_MATCH, "\"18f\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 
     @Test
     void updatePost() throws Exception {
         UUID postId = UUID.randomUUID();
+        User user = User.builder().id(UUID.randomUUID()).build();
+        authenticateAs(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
 
         UpdatePostRequestDto updatePostRequestDto = UpdatePostRequestDto.builder()
                 .title("Updated Title")
@@ -186,7 +455,7 @@ class PostControllerTest {
                 .build();
 
         when(postMapper.toUpdatePostRequest(updatePostRequestDto)).thenReturn(updatePostRequest);
-        when(postService.updatePost(postId, updatePostRequest)).thenReturn(post);
+        when(postService.updatePost(postId, user, updatePostRequest)).thenReturn(post);
         when(postMapper.toDto(post)).thenReturn(postDto);
 
         mockMvc.perform(put("/api/v1/posts/{id}", postId)
@@ -199,18 +468,26 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.status").value("PUBLISHED"));
 
         verify(postMapper).toUpdatePostRequest(updatePostRequestDto);
-        verify(postService).updatePost(postId, updatePostRequest);
+        verify(postService).updatePost(postId, user, updatePostRequest);
         verify(postMapper).toDto(post);
     }
 
     @Test
     void deletePost() throws Exception {
         UUID postId = UUID.randomUUID();
+        User user = User.builder().id(UUID.randomUUID()).build();
+        authenticateAs(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
 
         mockMvc.perform(delete("/api/v1/posts/{id}", postId))
                 .andExpect(status().isNoContent());
 
-        verify(postService).deletePost(eq(postId));
+        verify(postService).deletePost(eq(postId), eq(user));
+    }
+
+    private static PostVersion version(PostStatus status) {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        return new PostVersion(status, updatedAt, updatedAt.minusDays(1), updatedAt.minusDays(2));
     }
 
 }
@@ -4,12 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leon.blog.domain.dtos.CreateTagsRequest;
 import com.leon.blog.domain.dtos.TagDto;
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.TagPostCount;
 import com.leon.blog.mappers.TagMapper;
 import com.leon.blog.services.TagService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,9 +20,12 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,14 +48,16 @@ public class TagControllerTest {
     @Test
     void getAllTags_shouldReturnOk() throws Exception {
         UUID tagId = UUID.randomUUID();
-        Tag tag = Tag.builder().id(tagId).name("movie").build();
+        TagPostCount tag = mock(TagPostCount.class);
         TagDto tagDto = TagDto.builder().id(tagId).name("movie").build();
 
+        when(tagService.getTagsVersion()).thenReturn("1-5f3a");
         when(tagService.getTags()).thenReturn(List.of(tag));
         when(tagMapper.toTagResponse(tag)).thenReturn(tagDto);
 
         mockMvc.perform(get("/api/v1/tags"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5f3a\""))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(tagId.toString()))
                 .andExpect(jsonPath("$[0].name").value("movie"));
@@ -59,6 +66,36 @@ public class TagControllerTest {
         verify(tagMapper).toTagResponse(tag);
     }
 
+    @Test
+    void getAllTags_whenIfNoneMatchesCurrentVersion_returnNotModified() throws Exception {
+        when(tagService.getTagsVersion()).thenReturn("1-5f3a");
+
+        mockMvc.perform(get("/api/v1/tags").header(HttpHeaders.IF_NONE_MATCH, "\"1-5f3a\""))
+                .andExpect(status().isNotModified());
+
+        verify(tagService, never()).getTags();
+    }
+
+    @Test
+    void suggestTags_shouldReturnOk() throws Exception {
+        UUID tagId = UUID.randomUUID();
+        TagPostCount tag = mock(TagPostCount.class);
+        TagDto tagDto = TagDto.builder().id(tagId).name("spring").postCount(4).build();
+
+        when(tagService.suggestTags("spr", 5)).thenReturn(List.of(tag));
+        when(tagMapper.toTagResponse(tag)).thenReturn(tagDto);
+
+        mockMvc.perform(get("/api/v1/tags/suggest")
+                        .param("prefix", "spr")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("spring"))
+                .andExpect(jsonPath("$[0].postCount").value(4));
+
+        verify(tagService).suggestTags("spr", 5);
+    }
+
     @Test
     void createTags_shouldReturnCreated() throws Exception {
         UUID tagId = UUID.randomUUID();
@@ -63,6 +63,7 @@ public class BlogIntegrationTest {
     void setUp() throws Exception {
         userRepository.deleteAll();
         categoryRepository.deleteAll();
+        userRepository.flush();
 
         // Create user
         User user = User.builder()
@@ -156,9 +157,13 @@ public class BlogIntegrationTest {
                 .andExpect(jsonPath("$.tags[0].name").value("movie"))
                 .andExpect(jsonPath("$.author.name").value("leon"));
 
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Tech"))
+                .andExpect(jsonPath("$[0].postCount").value(1));
+
         // 4. Update post
         UpdatePostRequestDto updateRequest = UpdatePostRequestDto.builder()
-                .id(postId)
                 .title("Updated Post")
                 .content("Updated content here!")
                 .categoryId(categoryId)
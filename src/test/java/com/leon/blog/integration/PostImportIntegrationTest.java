@@ -0,0 +1,192 @@
+package com.leon.blog.integration;
+
+import com.leon.blog.domain.ImportStatus;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.PostImport;
+import com.leon.blog.domain.entities.PostImportError;
+import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostImportRepository;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.TagRepository;
+import com.leon.blog.repositories.UserRepository;
+import com.leon.blog.services.PostImportService;
+import com.leon.blog.services.impl.PostImportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "application.imports.chunk-size=2",
+        "application.imports.max-size=2KB",
+        "application.node-id=import-node",
+        "spring.datasource.url=jdbc:h2:mem:postimport;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class PostImportIntegrationTest {
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private PostImportRepository postImportRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("leon@gmail.com").password("1234").name("leon").build());
+        category = categoryRepository.save(Category.builder().name("Tech").build());
+        tagRepository.save(Tag.builder().name("java").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        postImportRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+        tagRepository.deleteAll();
+    }
+
+    @Test
+    void startImport_createsValidPostsInChunksAndReportsRejectedLines() throws Exception {
+        String ndjson = String.join("\n",
+                post("Virtual threads", "PUBLISHED", category.getId(), "\"java\", \"spring\""),
+                "",
+                "{\"title\": \"Broken",
+                post("Spring batching", "DRAFT", category.getId(), "\"spring\""),
+                post("x", "PUBLISHED", category.getId(), ""),
+                post("Lost category", "PUBLISHED", UUID.randomUUID(), ""),
+                post("Untagged post", "PUBLISHED", category.getId(), ""));
+
+        PostImport started = postImportService.startImport(user,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(7, started.getTotalLines());
+
+        PostImport finished = awaitFinished(started.getId());
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus());
+        assertEquals(7, finished.getProcessedLines());
+        assertEquals(3, finished.getCreatedPosts());
+        assertEquals(3, finished.getRejectedPosts());
+        assertEquals(List.of(3L, 5L, 6L), finished.getErrors().stream().map(PostImportError::getLine).toList());
+        assertEquals(List.of("line", "title", "categoryId"),
+                finished.getErrors().stream().map(PostImportError::getField).toList());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+
+        assertEquals(List.of("Spring batching", "Untagged post", "Virtual threads"),
+                postRepository.findAll().stream().map(Post::getTitle).sorted().toList());
+        Map<String, Long> publishedPostCounts = tagRepository.findAll().stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getPublishedPostCount));
+        assertEquals(Map.of("java", 1L, "spring", 1L), publishedPostCounts);
+    }
+
+    @Test
+    void failInterruptedImports_failsOnlyUnfinishedImportsOfThisNode() {
+        PostImport ownQueued = postImportRepository.save(unfinishedImport("import-node", ImportStatus.QUEUED));
+        PostImport ownRunning = postImportRepository.save(unfinishedImport("import-node", ImportStatus.RUNNING));
+        PostImport otherRunning = postImportRepository.save(unfinishedImport("other-node", ImportStatus.RUNNING));
+
+        PostImportServiceImpl service = AopTestUtils.getTargetObject(postImportService);
+        service.failInterruptedImports();
+
+        assertEquals(ImportStatus.FAILED, postImportRepository.findById(ownQueued.getId()).orElseThrow().getStatus());
+        assertEquals(ImportStatus.FAILED, postImportRepository.findById(ownRunning.getId()).orElseThrow().getStatus());
+        assertEquals(ImportStatus.RUNNING, postImportRepository.findById(otherRunning.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void startImport_whenUploadExceedsMaxSize_refuseAndDeleteSpooledFile() throws Exception {
+        List<Path> filesBefore = spooledFiles();
+        String ndjson = (post("Virtual threads", "PUBLISHED", category.getId(), "") + "\n").repeat(20);
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> postImportService.startImport(user,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(filesBefore, spooledFiles());
+        assertEquals(0, postImportRepository.count());
+    }
+
+    @Test
+    void startup_deletesImportFilesLeftOverFromEarlierRuns() throws Exception {
+        Path leftover = Files.createTempFile("post-import-", ".ndjson");
+        Files.setLastModifiedTime(leftover, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Path current = Files.createTempFile("post-import-", ".ndjson");
+
+        try {
+            Object service = AopTestUtils.getTargetObject(postImportService);
+            ReflectionTestUtils.invokeMethod(service, "deleteLeftoverFiles");
+
+            assertFalse(Files.exists(leftover));
+            assertTrue(Files.exists(current));
+        } finally {
+            Files.deleteIfExists(leftover);
+            Files.deleteIfExists(current);
+        }
+    }
+
+    private PostImport unfinishedImport(String nodeId, ImportStatus status) {
+        return PostImport.builder().owner(user).nodeId(nodeId).status(status).build();
+    }
+
+    private static List<Path> spooledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("post-import-")).sorted().toList();
+        }
+    }
+
+    private static String post(String title, String status, UUID categoryId, String tags) {
+        return "{\"title\": \"" + title + "\", \"content\": \"Imported from the old blog.\", \"status\": \"" + status
+                + "\", \"categoryId\": \"" + categoryId + "\", \"tags\": [" + tags + "]}";
+    }
+
+    private PostImport awaitFinished(UUID id) throws InterruptedException {
+        for(int attempt = 0; attempt < 100; attempt++) {
+            PostImport postImport = postImportRepository.findById(id).orElseThrow();
+            if(postImport.getStatus() == ImportStatus.COMPLETED || postImport.getStatus() == ImportStatus.FAILED) {
+                return postImport;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Import did not finish");
+    }
+}
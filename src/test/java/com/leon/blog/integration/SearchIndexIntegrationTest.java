@@ -0,0 +1,129 @@
+package com.leon.blog.integration;
+
+import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.PostSearchPage;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.UpdatePostRequest;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.TagRepository;
+import com.leon.blog.repositories.UserRepository;
+import com.leon.blog.services.PostIndexService;
+import com.leon.blog.services.PostService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "application.search.index.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:searchindex;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class SearchIndexIntegrationTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostIndexService postIndexService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("leon@gmail.com").password("1234").name("leon").build());
+        category = categoryRepository.save(Category.builder().name("Tech").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+        tagRepository.deleteAll();
+        postIndexService.rebuild();
+    }
+
+    @Test
+    void committedPostChanges_areVisibleToIndexSearch() {
+        Post post = postService.createPost(user, CreatePostRequest.builder()
+                .title("Caching with Caffeine")
+                .content("How we cache category lookups.")
+                .status(PostStatus.PUBLISHED)
+                .categoryId(category.getId())
+                .tagIds(Set.of())
+                .build());
+
+        assertTrue(postIndexService.isReady());
+        assertEquals(List.of(post.getId()), ids(postIndexService.search("caffeine", null, null, null, 10)));
+
+        PostSearchPage page = postService.searchPosts("cache", null, null, null, null);
+        assertEquals(1, page.getHits().size());
+        assertTrue(page.getHits().getFirst().getSnippet().contains("<mark>cache</mark>"));
+
+        postService.updatePost(post.getId(), user, UpdatePostRequest.builder()
+                .title("Caching with Caffeine")
+                .content("How we cache category lookups.")
+                .status(PostStatus.DRAFT)
+                .categoryId(category.getId())
+                .tagIds(Set.of())
+                .build());
+
+        assertTrue(postIndexService.search("caffeine", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_streamsPublishedPostsFromDatabase() {
+        Post published = postRepository.save(Post.builder()
+                .title("Written behind the service's back")
+                .content("Imported directly into the table.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(user)
+                .category(category)
+                .build());
+        postRepository.save(Post.builder()
+                .title("Imported draft")
+                .content("Imported directly into the table.")
+                .status(PostStatus.DRAFT)
+                .readingTime(1)
+                .author(user)
+                .category(category)
+                .build());
+        assertTrue(postIndexService.search("imported", null, null, null, 10).isEmpty());
+
+        postIndexService.rebuild();
+
+        assertEquals(List.of(published.getId()), ids(postIndexService.search("imported", null, null, null, 10)));
+    }
+
+    private static List<UUID> ids(List<PostSearchRow> rows) {
+        return rows.stream().map(PostSearchRow::id).toList();
+    }
+}
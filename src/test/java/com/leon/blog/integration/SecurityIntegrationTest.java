@@ -93,6 +93,12 @@ public class SecurityIntegrationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void shouldDenyPostExportWithoutJwt() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/export"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void shouldDenyAccessForNonAdminUser() throws Exception {
         LoginRequest request = new LoginRequest("leon@gmail.com", "1234");
@@ -124,7 +130,7 @@ public class SecurityIntegrationTest {
 
         mockMvc.perform(get("/api/v1/posts/drafts")
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + expiredToken))
-                .andExpect(status().isForbidden());
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -133,7 +139,7 @@ public class SecurityIntegrationTest {
 
         mockMvc.perform(get("/api/v1/posts/drafts")
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + malformedToken))
-                .andExpect(status().isForbidden());
+                .andExpect(status().isUnauthorized());
     }
 
 }
@@ -0,0 +1,35 @@
+package com.leon.blog.integration;
+
+import com.leon.blog.security.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=5",
+        "application.connection-guard.requests-per-connection=3",
+        "spring.datasource.url=jdbc:h2:mem:virtualthreads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class VirtualThreadsIntegrationTest {
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void virtualThreadMode_capsRequestsByConnectionPoolSizeAndRunsTasksOnVirtualThreads() throws Exception {
+        assertEquals(15, concurrencyLimitFilter.getMaxConcurrentRequests());
+        assertTrue(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+    }
+}
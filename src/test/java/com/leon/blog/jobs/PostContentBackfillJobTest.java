@@ -0,0 +1,133 @@
+package com.leon.blog.jobs;
+
+import com.leon.blog.content.ContentAnalyzer;
+import com.leon.blog.content.ExcerptGenerator;
+import com.leon.blog.content.MarkdownRenderer;
+import com.leon.blog.content.ReadingTimeCalculator;
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.PostHtml;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostHtmlRepository;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "application.posts.content-backfill.batch-size=2")
+@Import({PostContentBackfillJob.class, ContentAnalyzer.class, ReadingTimeCalculator.class, ExcerptGenerator.class, MarkdownRenderer.class})
+public class PostContentBackfillJobTest {
+
+    private final PostContentBackfillJob job;
+    private final PostRepository postRepository;
+    private final PostHtmlRepository postHtmlRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public PostContentBackfillJobTest(PostContentBackfillJob job, PostRepository postRepository, PostHtmlRepository postHtmlRepository, CategoryRepository categoryRepository, UserRepository userRepository, EntityManager entityManager) {
+        this.job = job;
+        this.postRepository = postRepository;
+        this.postHtmlRepository = postHtmlRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Test
+    public void backfill_fillsMetricsAndHtmlOfLegacyPostsInBatchesAndLeavesOthersUntouched() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+
+        List<Post> legacyPosts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            legacyPosts.add(postRepository.save(Post.builder()
+                    .title("The Post " + i)
+                    .content("# Legacy post " + i + "\n\nwritten before excerpts existed")
+                    .status(PostStatus.PUBLISHED)
+                    .readingTime(0)
+                    .author(savedUser)
+                    .category(savedCategory)
+                    .build()));
+        }
+        Post currentPost = postRepository.save(Post.builder()
+                .title("Current Post")
+                .content("already analysed")
+                .excerpt("kept as is")
+                .wordCount(42)
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        postHtmlRepository.save(PostHtml.builder().post(currentPost).html("<p>already analysed</p>").build());
+        postRepository.flush();
+
+        job.backfill();
+        postRepository.flush();
+        entityManager.clear();
+
+        for (Post legacyPost : legacyPosts) {
+            Post backfilled = postRepository.findById(legacyPost.getId()).orElseThrow();
+            assertEquals(legacyPost.getTitle().replace("The Post", "Legacy post") + " written before excerpts existed",
+                    backfilled.getExcerpt());
+            assertEquals(7, backfilled.getWordCount());
+            assertEquals(1, backfilled.getReadingTime());
+            assertEquals(legacyPost.getUpdatedAt(), backfilled.getUpdatedAt());
+            assertTrue(postHtmlRepository.findHtmlByPostId(legacyPost.getId()).orElseThrow().startsWith("<h1>Legacy post"));
+        }
+        Post untouched = postRepository.findById(currentPost.getId()).orElseThrow();
+        assertEquals("kept as is", untouched.getExcerpt());
+        assertEquals(42, untouched.getWordCount());
+        assertTrue(postRepository.findContentToBackfillAfter(new UUID(0L, 0L), Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    public void backfillWrites_whenPostEditedOrRenderedMeanwhile_leaveItsContentAlone() {
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+        Post editedPost = postRepository.save(Post.builder()
+                .title("Edited Post")
+                .content("new content")
+                .excerpt("new content")
+                .wordCount(2)
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        postHtmlRepository.save(PostHtml.builder().post(editedPost).html("<p>new content</p>").build());
+        postRepository.flush();
+
+        int updatedMetrics = postRepository.updateContentMetrics(editedPost.getId(), 5, 1, "old content");
+        int insertedHtml = postHtmlRepository.insertIfAbsent(editedPost.getId(), "<p>old content</p>");
+        entityManager.clear();
+
+        assertEquals(0, updatedMetrics);
+        assertEquals(0, insertedHtml);
+        assertEquals("new content", postRepository.findById(editedPost.getId()).orElseThrow().getExcerpt());
+        assertEquals("<p>new content</p>", postHtmlRepository.findHtmlByPostId(editedPost.getId()).orElseThrow());
+    }
+}
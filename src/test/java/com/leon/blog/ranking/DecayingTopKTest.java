@@ -0,0 +1,90 @@
+package com.leon.blog.ranking;
+
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecayingTopKTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final Duration HALF_LIFE = Duration.ofHours(24);
+
+    private final UUID older = UUID.randomUUID();
+    private final UUID newer = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+
+    @Test
+    public void add_whenEventsAreOlder_countThemForLessByHalfLife() {
+        // GIVEN
+        DecayingTopK topK = new DecayingTopK(10, HALF_LIFE);
+
+        // WHEN
+        // Three views a day ago are worth 1.5 views now, so one view and a half of another now would tie.
+        topK.add(older, 1, NOW.minus(HALF_LIFE));
+        topK.add(older, 1, NOW.minus(HALF_LIFE));
+        topK.add(older, 1, NOW.minus(HALF_LIFE));
+        topK.add(newer, 2, NOW);
+
+        // THEN
+        assertEquals(List.of(newer, older), topK.top(10));
+        List<ScoredItem> scores = topK.scoresAt(NOW);
+        assertEquals(2.0, scores.get(0).score(), 1e-9);
+        assertEquals(1.5, scores.get(1).score(), 1e-9);
+        assertEquals(0.75, topK.scoresAt(NOW.plus(HALF_LIFE)).get(1).score(), 1e-9);
+    }
+
+    @Test
+    public void add_whenFull_replaceTheLowestScoreOnlyIfTheNewItemBeatsIt() {
+        // GIVEN
+        DecayingTopK topK = new DecayingTopK(2, HALF_LIFE);
+        topK.add(older, 1, NOW.minus(Duration.ofHours(48)));
+        topK.add(newer, 1, NOW);
+
+        // WHEN
+        boolean staleAdded = topK.add(other, 1, NOW.minus(Duration.ofHours(72)));
+        boolean freshAdded = topK.add(other, 2, NOW);
+
+        // THEN
+        assertFalse(staleAdded);
+        assertTrue(freshAdded);
+        assertFalse(topK.contains(older));
+        assertEquals(List.of(other, newer), topK.top(5));
+    }
+
+    @Test
+    public void scoresAt_restoredWithADifferentHalfLife_keepTheDecayedValues() {
+        // GIVEN
+        DecayingTopK topK = new DecayingTopK(10, HALF_LIFE);
+        topK.add(older, 4, NOW.minus(HALF_LIFE));
+        topK.add(newer, 1, NOW);
+
+        // WHEN
+        DecayingTopK restored = new DecayingTopK(10, Duration.ofHours(1));
+        topK.scoresAt(NOW).forEach(score -> restored.add(score.id(), score.score(), NOW));
+
+        // THEN
+        assertEquals(List.of(older, newer), restored.top(10));
+        assertEquals(2.0, restored.scoresAt(NOW).get(0).score(), 1e-9);
+        assertEquals(1.0, restored.scoresAt(NOW.plus(Duration.ofHours(1))).get(0).score(), 1e-9);
+    }
+
+    @Test
+    public void remove_dropTheItemFromTheRanking() {
+        // GIVEN
+        DecayingTopK topK = new DecayingTopK(10, HALF_LIFE);
+        topK.add(older, 5, NOW);
+        topK.add(newer, 1, NOW);
+
+        // WHEN
+        topK.remove(older);
+
+        // THEN
+        assertEquals(List.of(newer), topK.top(10));
+    }
+}
@@ -5,6 +5,7 @@ import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.CategoryPostCount;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
@@ -58,7 +59,7 @@ public class CategoryRepositoryTest {
     }
 
     @Test
-    public void findAllWithPostCount_fetchesPostsWithoutLazyLoading() {
+    public void reconcilePublishedPostCounts_countsPublishedPostsPerCategory() {
 
         Category pythonCategory = categoryRepository.save(Category.builder().name("Python").build());
         Category javaCategory = categoryRepository.save(Category.builder().name("Java").build());
@@ -92,22 +93,48 @@ public class CategoryRepositoryTest {
                 .tags(Set.of(javaTag))
                 .build());
 
+        Post draft = postRepository.save(Post.builder()
+                .title("Post 3")
+                .content("Java Draft")
+                .status(PostStatus.DRAFT)
+                .readingTime(3)
+                .author(author)
+                .category(javaCategory)
+                .tags(Set.of(javaTag))
+                .build());
+
         entityManager.flush();
+        assertEquals(2, categoryRepository.reconcilePublishedPostCounts());
         entityManager.clear();
 
-        List<Category> foundCategories = categoryRepository.findAllWithPostCount();
-        Category foundCategory1 = foundCategories.getFirst();
-        Category foundCategory2 = foundCategories.get(1);
-        Category foundCategory3 = foundCategories.getLast();
+        // ordered by name: Java, Python, Spring
+        List<CategoryPostCount> foundCategories = categoryRepository.findAllWithPostCount();
+        CategoryPostCount foundCategory1 = foundCategories.getFirst();
+        CategoryPostCount foundCategory2 = foundCategories.get(1);
+        CategoryPostCount foundCategory3 = foundCategories.getLast();
+
+        assertEquals(javaCategory.getId(), foundCategory1.getId());
+        assertEquals(pythonCategory.getId(), foundCategory2.getId());
+        assertEquals(springCategory.getId(), foundCategory3.getId());
+        assertEquals("Spring", foundCategory3.getName());
 
-        assertEquals(foundCategory1, pythonCategory);
-        assertEquals(foundCategory2, javaCategory);
-        assertEquals(foundCategory3, springCategory);
+        assertEquals(1, foundCategory1.getPostCount());
+        assertEquals(1, foundCategory2.getPostCount());
+        assertEquals(0, foundCategory3.getPostCount());
 
-        assertEquals(1, foundCategory1.getPosts().size());
-        assertEquals(1, foundCategory2.getPosts().size());
-        assertEquals(0, foundCategory3.getPosts().size());
+    }
+
+    @Test
+    public void adjustPublishedPostCount_incrementsAndDecrementsCounter() {
+
+        Category category = categoryRepository.save(Category.builder().name("Python").build());
+        entityManager.flush();
+
+        categoryRepository.adjustPublishedPostCount(category.getId(), 2);
+        categoryRepository.adjustPublishedPostCount(category.getId(), -1);
+        entityManager.clear();
 
+        assertEquals(1, categoryRepository.findById(category.getId()).orElseThrow().getPublishedPostCount());
     }
 
 }
@@ -1,16 +1,34 @@
 package com.leon.blog.repositories;
 
+import com.leon.blog.domain.PostCursor;
 import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.SearchCursor;
 import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.PostHtml;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.dtos.PostDto;
+import com.leon.blog.domain.projections.PostCreatedAt;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.domain.projections.PostSummaryRow;
+import com.leon.blog.domain.projections.PostTagRow;
+import com.leon.blog.mappers.CategoryMapperImpl;
+import com.leon.blog.mappers.PostMapper;
+import com.leon.blog.mappers.PostMapperImpl;
+import com.leon.blog.mappers.TagMapperImpl;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -19,19 +37,26 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import({PostMapperImpl.class, CategoryMapperImpl.class, TagMapperImpl.class})
 public class PostRepositoryTest {
 
     private final PostRepository postRepository;
+    private final PostHtmlRepository postHtmlRepository;
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final PostMapper postMapper;
 
     @Autowired
-    public PostRepositoryTest(PostRepository postRepository, CategoryRepository categoryRepository, TagRepository tagRepository, UserRepository userRepository) {
+    public PostRepositoryTest(PostRepository postRepository, PostHtmlRepository postHtmlRepository, CategoryRepository categoryRepository, TagRepository tagRepository, UserRepository userRepository, EntityManager entityManager, PostMapper postMapper) {
         this.postRepository = postRepository;
+        this.postHtmlRepository = postHtmlRepository;
         this.categoryRepository = categoryRepository;
         this.tagRepository = tagRepository;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.postMapper = postMapper;
     }
 
     @Test
@@ -161,11 +186,11 @@ public class PostRepositoryTest {
                 .build());
 
         postRepository.flush();
-        List<Post> foundPostsWithCategory1 = postRepository.findAllByStatusAndCategory(PostStatus.PUBLISHED, savedCategory1);
+        List<Post> foundPostsWithCategory1 = postRepository.findAllByStatusAndCategoryOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, savedCategory1, Limit.unlimited());
         assertTrue(foundPostsWithCategory1.contains(savedPost1));
         assertFalse(foundPostsWithCategory1.contains(savedPost2));
 
-        List<Post> foundPostsWithCategory2 = postRepository.findAllByStatusAndCategory(PostStatus.PUBLISHED, savedCategory2);
+        List<Post> foundPostsWithCategory2 = postRepository.findAllByStatusAndCategoryOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, savedCategory2, Limit.unlimited());
         assertTrue(foundPostsWithCategory2.contains(savedPost2));
         assertFalse(foundPostsWithCategory2.contains(savedPost1));
 
@@ -210,10 +235,391 @@ public class PostRepositoryTest {
 
 
         postRepository.flush();
-        List<Post> foundPosts = postRepository.findAllByStatusAndTagsContaining(PostStatus.PUBLISHED, savedTag1);
+        List<Post> foundPosts = postRepository.findAllByStatusAndTagsContainingOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, savedTag1, Limit.unlimited());
         assertTrue(foundPosts.contains(savedPost1));
         assertFalse(foundPosts.contains(savedPost2));
 
     }
 
+    @Test
+    public void findPageByStatusAfter_walksAllPublishedPostsWithoutOverlap() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("password"))
+                .build());
+
+        Category savedCategory = categoryRepository.save(Category.builder()
+                .name("TestCategory")
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            postRepository.save(Post.builder()
+                    .title("The Post " + i)
+                    .content("The post for testing.")
+                    .status(i == 2 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(savedUser)
+                    .category(savedCategory)
+                    .build());
+        }
+        postRepository.flush();
+
+        List<Post> firstPage = postRepository.findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, Limit.of(2));
+        assertEquals(2, firstPage.size());
+
+        List<Post> walked = new ArrayList<>(firstPage);
+        List<Post> page = firstPage;
+        while (!page.isEmpty()) {
+            Post last = page.getLast();
+            page = postRepository.findPageByStatusAfter(PostStatus.PUBLISHED, last.getCreatedAt(), last.getId(), Limit.of(2));
+            walked.addAll(page);
+        }
+
+        assertEquals(4, walked.size());
+        assertEquals(4, new HashSet<>(walked).size());
+        assertTrue(walked.stream().allMatch(post -> post.getStatus() == PostStatus.PUBLISHED));
+    }
+
+    @Test
+    public void listingPageAndMappingToDto_usesFixedNumberOfStatements() {
+
+        Category savedCategory1 = categoryRepository.save(Category.builder().name("TestCategory1").build());
+        Category savedCategory2 = categoryRepository.save(Category.builder().name("TestCategory2").build());
+        Tag savedTag1 = tagRepository.save(Tag.builder().name("TestTag1").build());
+        Tag savedTag2 = tagRepository.save(Tag.builder().name("TestTag2").build());
+        Tag savedTag3 = tagRepository.save(Tag.builder().name("TestTag3").build());
+
+        for (int i = 0; i < 12; i++) {
+            User author = userRepository.save(User.builder()
+                    .name("Test User " + i)
+                    .email("test" + i + "@test.com")
+                    .password("password")
+                    .build());
+            postRepository.save(Post.builder()
+                    .title("The Post " + i)
+                    .content("The post for testing.")
+                    .status(PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(author)
+                    .category(i % 2 == 0 ? savedCategory1 : savedCategory2)
+                    .tags(i % 3 == 0 ? Set.of(savedTag1) : Set.of(savedTag2, savedTag3))
+                    .build());
+        }
+        postRepository.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PostDto> postDtos = postRepository
+                .findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, Limit.of(10))
+                .stream().map(postMapper::toDto).toList();
+
+        assertEquals(10, postDtos.size());
+        assertTrue(postDtos.stream().allMatch(dto -> dto.getAuthor().getName() != null
+                && dto.getCategory().getName() != null
+                && !dto.getTags().isEmpty()));
+        // one query for posts joined with author and category, one batched query for all tags on the page
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findSummaries_filtersAndWalksPagesWithTagsWithoutLoadingPosts() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory1 = categoryRepository.save(Category.builder().name("TestCategory1").build());
+        Category savedCategory2 = categoryRepository.save(Category.builder().name("TestCategory2").build());
+        Tag savedTag1 = tagRepository.save(Tag.builder().name("TestTag1").build());
+        Tag savedTag2 = tagRepository.save(Tag.builder().name("TestTag2").build());
+
+        for (int i = 0; i < 6; i++) {
+            postRepository.save(Post.builder()
+                    .title("The Post " + i)
+                    .content("The post for testing.")
+                    .excerpt("Excerpt " + i)
+                    .status(i == 5 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(savedUser)
+                    .category(i % 2 == 0 ? savedCategory1 : savedCategory2)
+                    .tags(i % 2 == 0 ? Set.of(savedTag1, savedTag2) : Set.of(savedTag2))
+                    .build());
+        }
+        postRepository.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PostSummaryRow> firstPage = postRepository.findSummaries(null, savedTag2.getId(), null, 3);
+        List<PostTagRow> tagRows = postRepository.findTagRowsByPostIds(firstPage.stream().map(PostSummaryRow::id).toList());
+
+        assertEquals(3, firstPage.size());
+        assertTrue(firstPage.stream().allMatch(row -> row.excerpt().startsWith("Excerpt ")
+                && "Test User".equals(row.authorName())
+                && row.categoryName().startsWith("TestCategory")));
+        assertEquals(5, tagRows.size());
+        // one query for the page and one for its tags; no post entity is ever loaded, so content is never read
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        PostSummaryRow last = firstPage.getLast();
+        List<PostSummaryRow> secondPage = postRepository.findSummaries(
+                null, savedTag2.getId(), new PostCursor(last.createdAt(), last.id()), 3);
+        assertEquals(2, secondPage.size());
+        assertTrue(firstPage.stream().noneMatch(secondPage::contains));
+
+        List<PostSummaryRow> filtered = postRepository.findSummaries(savedCategory1.getId(), savedTag1.getId(), null, 10);
+        assertEquals(3, filtered.size());
+        assertTrue(filtered.stream().allMatch(row -> savedCategory1.getId().equals(row.categoryId())));
+    }
+
+    @Test
+    public void delete_removesStoredHtmlWithThePost() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+        Post savedPost = postRepository.save(Post.builder()
+                .title("The Post")
+                .content("The post for testing.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        postHtmlRepository.save(PostHtml.builder().post(savedPost).html("<p>The post for testing.</p>").build());
+        postRepository.flush();
+        entityManager.clear();
+
+        assertEquals("<p>The post for testing.</p>", postHtmlRepository.findHtmlByPostId(savedPost.getId()).orElseThrow());
+
+        postRepository.deleteById(savedPost.getId());
+        postRepository.flush();
+        entityManager.clear();
+
+        assertTrue(postHtmlRepository.findHtmlByPostId(savedPost.getId()).isEmpty());
+    }
+
+    @Test
+    public void findExportPage_walkPublishedPostsOldestFirstAndLoadEachPageWithDetails() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+        Tag savedTag = tagRepository.save(Tag.builder().name("TestTag").build());
+
+        List<UUID> publishedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Post post = postRepository.saveAndFlush(Post.builder()
+                    .title("The Post " + i)
+                    .content("The post for testing.")
+                    .status(i == 1 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(savedUser)
+                    .category(savedCategory)
+                    .tags(Set.of(savedTag))
+                    .build());
+            if (post.getStatus() == PostStatus.PUBLISHED) {
+                publishedIds.add(post.getId());
+            }
+        }
+        entityManager.clear();
+
+        List<UUID> exportedIds = new ArrayList<>();
+        List<PostCreatedAt> page = postRepository.findExportPage(PostStatus.PUBLISHED, Limit.of(3));
+        while (!page.isEmpty()) {
+            page.forEach(row -> exportedIds.add(row.id()));
+            PostCreatedAt last = page.getLast();
+            page = postRepository.findExportPageAfter(PostStatus.PUBLISHED, last.createdAt(), last.id(), Limit.of(3));
+        }
+        List<PostDto> postDtos = postRepository.findAllWithDetailsByIdIn(exportedIds).stream()
+                .map(postMapper::toDto)
+                .toList();
+
+        assertEquals(publishedIds, exportedIds);
+        assertEquals(4, postDtos.size());
+        assertTrue(postDtos.stream().allMatch(dto -> "Test User".equals(dto.getAuthor().getName())
+                && "TestCategory".equals(dto.getCategory().getName())
+                && dto.getTags().size() == 1));
+    }
+
+    @Test
+    public void findVersionById_changesWhenPostOrTagCountsChange() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+        Tag savedTag = tagRepository.save(Tag.builder().name("TestTag").build());
+        Post savedPost = postRepository.saveAndFlush(Post.builder()
+                .title("The Post")
+                .content("The post for testing.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .tags(Set.of(savedTag))
+                .build());
+        entityManager.createNativeQuery("UPDATE tags SET updated_at = TIMESTAMP '2000-01-01 00:00:00'").executeUpdate();
+        String initial = postRepository.findVersionById(savedPost.getId()).orElseThrow().stamp();
+
+        tagRepository.adjustPublishedPostCount(Set.of(savedTag.getId()), 1);
+        String afterTagRecount = postRepository.findVersionById(savedPost.getId()).orElseThrow().stamp();
+
+        savedPost.setTitle("The Renamed Post");
+        postRepository.flush();
+        String afterPostUpdate = postRepository.findVersionById(savedPost.getId()).orElseThrow().stamp();
+
+        assertNotEquals(initial, afterTagRecount);
+        assertNotEquals(afterTagRecount, afterPostUpdate);
+        assertTrue(postRepository.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    public void search_ranksTitleMatchesFirstAndWalksPagesWithoutOverlap() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+
+        Post titleMatch = postRepository.save(Post.builder()
+                .title("Spring Boot tips")
+                .content("Short post.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            postRepository.save(Post.builder()
+                    .title("Post " + i)
+                    .content("Some words before spring boot and some words after.")
+                    .status(PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(savedUser)
+                    .category(savedCategory)
+                    .build());
+        }
+        postRepository.save(Post.builder()
+                .title("Draft about Spring Boot")
+                .content("Not published yet.")
+                .status(PostStatus.DRAFT)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        postRepository.save(Post.builder()
+                .title("Unrelated")
+                .content("Nothing to see here.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+        postRepository.flush();
+
+        List<PostSearchRow> firstPage = postRepository.search("spring boot", null, null, null, 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(titleMatch.getId(), firstPage.getFirst().id());
+        assertTrue(firstPage.get(1).snippet().contains("<mark>spring boot</mark>"));
+
+        List<PostSearchRow> walked = new ArrayList<>(firstPage);
+        List<PostSearchRow> page = firstPage;
+        while (!page.isEmpty()) {
+            PostSearchRow last = page.getLast();
+            page = postRepository.search("spring boot", null, null, new SearchCursor(last.rank(), last.id()), 2);
+            walked.addAll(page);
+        }
+
+        assertEquals(4, walked.size());
+        assertEquals(4, walked.stream().map(PostSearchRow::id).distinct().count());
+    }
+
+    @Test
+    public void search_whenFilteredByCategoryAndTag_returnOnlyMatchingPosts() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory1 = categoryRepository.save(Category.builder().name("TestCategory1").build());
+        Category savedCategory2 = categoryRepository.save(Category.builder().name("TestCategory2").build());
+        Tag savedTag = tagRepository.save(Tag.builder().name("TestTag").build());
+
+        Post expected = postRepository.save(Post.builder()
+                .title("Java records")
+                .content("Records are great.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory1)
+                .tags(Set.of(savedTag))
+                .build());
+        postRepository.save(Post.builder()
+                .title("Java records again")
+                .content("Records are still great.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory2)
+                .tags(Set.of(savedTag))
+                .build());
+        postRepository.save(Post.builder()
+                .title("Java records without tags")
+                .content("Records everywhere.")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory1)
+                .build());
+        postRepository.flush();
+
+        List<PostSearchRow> rows = postRepository.search("RECORDS", savedCategory1.getId(), savedTag.getId(), null, 10);
+
+        assertEquals(1, rows.size());
+        assertEquals(expected.getId(), rows.getFirst().id());
+    }
+
+    @Test
+    public void search_whenContentContainsMarkup_returnEscapedSnippet() {
+
+        User savedUser = userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@test.com")
+                .password("password")
+                .build());
+        Category savedCategory = categoryRepository.save(Category.builder().name("TestCategory").build());
+        postRepository.saveAndFlush(Post.builder()
+                .title("Java records")
+                .content("<script>alert('records')</script>")
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(savedUser)
+                .category(savedCategory)
+                .build());
+
+        List<PostSearchRow> rows = postRepository.search("records", null, null, null, 10);
+
+        assertEquals(1, rows.size());
+        assertEquals("&lt;script&gt;alert(&#39;<mark>records</mark>&#39;)&lt;/script&gt;", rows.getFirst().snippet());
+    }
+
 }
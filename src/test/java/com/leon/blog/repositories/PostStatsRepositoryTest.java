@@ -0,0 +1,64 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+public class PostStatsRepositoryTest {
+
+    @Autowired
+    private PostStatsRepository postStatsRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void addViewCounts_createMissingRowsAddToExistingOnesAndSkipUnknownPosts() {
+        User author = userRepository.save(User.builder().name("Author").email("author@test.com").password("x").build());
+        Category category = categoryRepository.save(Category.builder().name("Java").build());
+        Post first = postRepository.save(post("First", author, category));
+        Post second = postRepository.save(post("Second", author, category));
+        UUID deleted = UUID.randomUUID();
+        entityManager.flush();
+
+        postStatsRepository.addViewCounts(Map.of(first.getId(), 3L, deleted, 7L));
+        postStatsRepository.addViewCounts(Map.of(first.getId(), 2L, second.getId(), 1L));
+
+        assertEquals(Optional.of(5L), postStatsRepository.findViewCountByPostId(first.getId()));
+        assertEquals(Optional.of(1L), postStatsRepository.findViewCountByPostId(second.getId()));
+        assertFalse(postStatsRepository.findViewCountByPostId(deleted).isPresent());
+    }
+
+    private static Post post(String title, User author, Category category) {
+        return Post.builder()
+                .title(title)
+                .content("Content of " + title)
+                .status(PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(author)
+                .category(category)
+                .build();
+    }
+}
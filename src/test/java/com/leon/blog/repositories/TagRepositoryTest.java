@@ -5,10 +5,10 @@ import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.projections.TagPostCount;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
-import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -60,7 +60,7 @@ public class TagRepositoryTest {
     }
 
     @Test
-    void findAllWithPostCount_fetchesPostsWithoutLazyLoading() {
+    void reconcilePublishedPostCounts_countsPublishedPostsPerTag() {
         // given
         User author = userRepository.save(User.builder()
                 .name("User")
@@ -86,19 +86,70 @@ public class TagRepositoryTest {
                 .tags(Set.of(javaTag, springTag))
                 .build());
 
+        Post draft = postRepository.save(Post.builder()
+                .title("Post 2")
+                .content("Python Draft")
+                .status(PostStatus.DRAFT)
+                .readingTime(2)
+                .author(author)
+                .category(category)
+                .tags(Set.of(javaTag, pythonTag))
+                .build());
+
         entityManager.flush();
-        entityManager.clear();
 
         // when
-        List<Tag> tags = tagRepository.findAllWithPostCount();
-        tags.forEach(tag -> Hibernate.initialize(tag.getPosts()));
-        for (Tag tag : tags) {
+        assertEquals(2, tagRepository.reconcilePublishedPostCounts());
+        entityManager.clear();
+        List<TagPostCount> tags = tagRepository.findAllWithPostCount();
+
+        // then
+        assertEquals(3, tags.size());
+        for (TagPostCount tag : tags) {
             if(!Objects.equals(tag.getName(), "Python")) {
-                assertEquals(1, tag.getPosts().size());
+                assertEquals(1, tag.getPostCount());
             } else {
-                assertEquals(0, tag.getPosts().size());
+                assertEquals(0, tag.getPostCount());
             }
         }
 
     }
+
+    @Test
+    void findCollectionVersion_changesWhenTagsAreAddedRemovedOrRecounted() {
+        Tag javaTag = tagRepository.save(Tag.builder().name("Java").build());
+        entityManager.flush();
+        // the database clock is fixed within a transaction, so move existing rows into the past first
+        entityManager.createNativeQuery("UPDATE tags SET updated_at = TIMESTAMP '2000-01-01 00:00:00'").executeUpdate();
+        String initial = tagRepository.findCollectionVersion().stamp();
+
+        tagRepository.adjustPublishedPostCount(Set.of(javaTag.getId()), 1);
+        String recounted = tagRepository.findCollectionVersion().stamp();
+
+        Tag springTag = tagRepository.saveAndFlush(Tag.builder().name("Spring").build());
+        String added = tagRepository.findCollectionVersion().stamp();
+
+        tagRepository.delete(springTag);
+        tagRepository.flush();
+        String removed = tagRepository.findCollectionVersion().stamp();
+
+        assertNotEquals(initial, recounted);
+        assertNotEquals(recounted, added);
+        assertNotEquals(added, removed);
+    }
+
+    @Test
+    void adjustPublishedPostCount_updatesOnlyGivenTags() {
+        Tag javaTag = tagRepository.save(Tag.builder().name("Java").build());
+        Tag springTag = tagRepository.save(Tag.builder().name("Spring").build());
+        Tag pythonTag = tagRepository.save(Tag.builder().name("Python").build());
+        entityManager.flush();
+
+        tagRepository.adjustPublishedPostCount(Set.of(javaTag.getId(), springTag.getId()), 1);
+        entityManager.clear();
+
+        assertEquals(1, tagRepository.findById(javaTag.getId()).orElseThrow().getPublishedPostCount());
+        assertEquals(1, tagRepository.findById(springTag.getId()).orElseThrow().getPublishedPostCount());
+        assertEquals(0, tagRepository.findById(pythonTag.getId()).orElseThrow().getPublishedPostCount());
+    }
 }
@@ -0,0 +1,126 @@
+package com.leon.blog.repositories;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.TrendingPostScore;
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class TrendingPostScoreRepositoryTest {
+
+    @Autowired
+    private TrendingPostScoreRepository trendingPostScoreRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void mergeScores_decayStoredScoresToTheNewTimeAndAddTheGainedOnes() {
+        User author = userRepository.save(User.builder().name("Author").email("author@test.com").password("x").build());
+        Category category = categoryRepository.save(Category.builder().name("Java").build());
+        Post first = postRepository.save(post("First", author, category, PostStatus.PUBLISHED));
+        Post second = postRepository.save(post("Second", author, category, PostStatus.PUBLISHED));
+        entityManager.flush();
+        Instant scoredAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Duration halfLife = Duration.ofHours(1);
+
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(first.getId(), 4.0)),
+                scoredAt.minus(halfLife), halfLife);
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(first.getId(), 1.0),
+                new ScoredItem(second.getId(), 5.0), new ScoredItem(UUID.randomUUID(), 1.0)), scoredAt, halfLife);
+        entityManager.clear();
+
+        Map<UUID, TrendingPostScore> scores = trendingPostScoreRepository.findAll().stream()
+                .collect(Collectors.toMap(TrendingPostScore::getPostId, Function.identity()));
+        assertEquals(Set.of(first.getId(), second.getId()), scores.keySet());
+        assertEquals(3.0, scores.get(first.getId()).getScore(), 1e-9);
+        assertEquals(5.0, scores.get(second.getId()).getScore(), 1e-9);
+        assertEquals(scoredAt, scores.get(first.getId()).getScoredAt());
+    }
+
+    @Test
+    public void findTopByPostStatusAndDeleteScoredBefore_keepOnlyRecentScoresOfPublishedPosts() {
+        User author = userRepository.save(User.builder().name("Author").email("author@test.com").password("x").build());
+        Category category = categoryRepository.save(Category.builder().name("Java").build());
+        Post recent = postRepository.save(post("Recent", author, category, PostStatus.PUBLISHED));
+        Post stale = postRepository.save(post("Stale", author, category, PostStatus.PUBLISHED));
+        Post draft = postRepository.save(post("Draft", author, category, PostStatus.DRAFT));
+        entityManager.flush();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Duration halfLife = Duration.ofHours(1);
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(stale.getId(), 1.0)), now.minus(Duration.ofDays(2)),
+                halfLife);
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(recent.getId(), 1.0),
+                new ScoredItem(draft.getId(), 1.0)), now, halfLife);
+
+        int deleted = trendingPostScoreRepository.deleteScoredBefore(now.minus(Duration.ofDays(1)));
+        entityManager.clear();
+
+        assertEquals(1, deleted);
+        assertEquals(List.of(recent.getId()), trendingPostScoreRepository.findTopByPostStatus(PostStatus.PUBLISHED,
+                        3600, Limit.of(10))
+                .stream().map(TrendingPostScore::getPostId).toList());
+    }
+
+    @Test
+    public void findTopByPostStatus_rankByScoreDecayedToCommonTime() {
+        User author = userRepository.save(User.builder().name("Author").email("author@test.com").password("x").build());
+        Category category = categoryRepository.save(Category.builder().name("Java").build());
+        Post older = postRepository.save(post("Older", author, category, PostStatus.PUBLISHED));
+        Post newer = postRepository.save(post("Newer", author, category, PostStatus.PUBLISHED));
+        Post low = postRepository.save(post("Low", author, category, PostStatus.PUBLISHED));
+        entityManager.flush();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Duration halfLife = Duration.ofHours(1);
+        // 8 two hours ago is worth 2 now, more than 1.5 now and less than 3 now.
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(older.getId(), 8.0)), now.minus(Duration.ofHours(2)),
+                halfLife);
+        trendingPostScoreRepository.mergeScores(List.of(new ScoredItem(newer.getId(), 3.0),
+                new ScoredItem(low.getId(), 1.5)), now, halfLife);
+        entityManager.clear();
+
+        List<UUID> top = trendingPostScoreRepository.findTopByPostStatus(PostStatus.PUBLISHED, 3600, Limit.of(2))
+                .stream().map(TrendingPostScore::getPostId).toList();
+
+        assertEquals(List.of(newer.getId(), older.getId()), top);
+    }
+
+    private static Post post(String title, User author, Category category, PostStatus status) {
+        return Post.builder()
+                .title(title)
+                .content("Content of " + title)
+                .status(status)
+                .readingTime(1)
+                .author(author)
+                .category(category)
+                .build();
+    }
+}
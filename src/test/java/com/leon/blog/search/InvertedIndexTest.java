@@ -0,0 +1,118 @@
+package com.leon.blog.search;
+
+import com.leon.blog.search.InvertedIndex.ScoredDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    public void search_whenTermsMatch_rankTitleAndFrequentMatchesFirst() {
+        // GIVEN
+        UUID titleMatch = UUID.randomUUID();
+        UUID bodyMatch = UUID.randomUUID();
+        UUID noMatch = UUID.randomUUID();
+        index.put(titleMatch, "Caching in Spring", "A short post about things.", null, Set.of());
+        index.put(bodyMatch, "Assorted notes", "Some notes that mention caching once among many other words.", null, Set.of());
+        index.put(noMatch, "Gardening", "Tomatoes and basil.", null, Set.of());
+
+        // WHEN
+        List<ScoredDocument> results = index.search("CACHING", null, null, null, null, 10);
+
+        // THEN
+        assertEquals(List.of(titleMatch, bodyMatch), results.stream().map(ScoredDocument::id).toList());
+        assertTrue(results.get(0).score() > results.get(1).score());
+    }
+
+    @Test
+    public void search_whenFiltersGiven_returnOnlyDocumentsInCategoryAndTag() {
+        // GIVEN
+        UUID categoryId = UUID.randomUUID();
+        UUID tagId = UUID.randomUUID();
+        UUID expected = UUID.randomUUID();
+        index.put(expected, "Java records", "records", categoryId, Set.of(tagId));
+        index.put(UUID.randomUUID(), "Java records", "records", UUID.randomUUID(), Set.of(tagId));
+        index.put(UUID.randomUUID(), "Java records", "records", categoryId, Set.of());
+
+        // WHEN
+        List<ScoredDocument> results = index.search("records", categoryId, tagId, null, null, 10);
+
+        // THEN
+        assertEquals(List.of(expected), results.stream().map(ScoredDocument::id).toList());
+    }
+
+    @Test
+    public void search_whenPagingWithCursor_walkAllMatchesWithoutOverlap() {
+        // GIVEN
+        for (int i = 0; i < 7; i++) {
+            index.put(UUID.randomUUID(), "Post " + i, "java ".repeat(i + 1) + "filler words", null, Set.of());
+        }
+
+        // WHEN
+        List<ScoredDocument> walked = new ArrayList<>();
+        List<ScoredDocument> page = index.search("java", null, null, null, null, 3);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            ScoredDocument last = page.getLast();
+            page = index.search("java", null, null, last.score(), last.id(), 3);
+        }
+
+        // THEN
+        assertEquals(7, walked.size());
+        assertEquals(7, walked.stream().map(ScoredDocument::id).distinct().count());
+        for (int i = 1; i < walked.size(); i++) {
+            assertTrue(walked.get(i - 1).score() >= walked.get(i).score());
+        }
+    }
+
+    @Test
+    public void put_whenDocumentReplacedOrRemoved_searchReflectsLatestVersion() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        index.put(id, "Old title", "about kotlin", null, Set.of());
+
+        // WHEN
+        index.put(id, "New title", "about java", null, Set.of());
+
+        // THEN
+        assertTrue(index.search("kotlin", null, null, null, null, 10).isEmpty());
+        assertEquals(1, index.search("java", null, null, null, null, 10).size());
+        assertEquals(1, index.documentCount());
+
+        index.remove(id);
+        assertTrue(index.search("java", null, null, null, null, 10).isEmpty());
+        assertEquals(0, index.documentCount());
+    }
+
+    @Test
+    public void put_afterManyUpdates_compactsAndKeepsResultsCorrect() {
+        // GIVEN
+        UUID stable = UUID.randomUUID();
+        UUID churned = UUID.randomUUID();
+        index.put(stable, "Stable", "java basics", null, Set.of());
+
+        // WHEN
+        for (int i = 0; i < 5000; i++) {
+            index.put(churned, "Churned " + i, "java advanced", null, Set.of());
+        }
+
+        // THEN
+        List<ScoredDocument> results = index.search("java", null, null, null, null, 10);
+        assertEquals(Set.of(stable, churned), Set.copyOf(results.stream().map(ScoredDocument::id).toList()));
+        assertEquals(2, index.documentCount());
+        assertTrue(index.estimatedMemoryBytes() < 1_000_000);
+    }
+
+    @Test
+    public void tokenize_splitsOnNonLetterOrDigitAndLowercases() {
+        assertEquals(List.of("spring", "boot", "3", "5", "héllo", "wörld"), Tokenizer.tokenize("Spring-Boot 3.5: Héllo, WÖRLD!"));
+    }
+}
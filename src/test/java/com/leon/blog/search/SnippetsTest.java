@@ -0,0 +1,46 @@
+package com.leon.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnippetsTest {
+
+    @Test
+    public void fromDelimited_escapeContentAndMarkOnlyTheDelimitedMatches() {
+        // GIVEN
+        String headline = "<script>alert('x')</script> learn " + Snippets.MATCH_START + "Spring" + Snippets.MATCH_END
+                + " & <b>more</b>";
+
+        // WHEN
+        String snippet = Snippets.fromDelimited(headline);
+
+        // THEN
+        assertEquals("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; learn <mark>Spring</mark>"
+                + " &amp; &lt;b&gt;more&lt;/b&gt;", snippet);
+    }
+
+    @Test
+    public void highlight_escapeTheTextAroundAndInsideTheMatch() {
+        // GIVEN
+        String content = "<script>alert('x')</script> <b>Spring</b> & more";
+
+        // WHEN
+        String snippet = Snippets.highlight(content, List.of("spring"));
+
+        // THEN
+        assertEquals("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &lt;b&gt;<mark>Spring</mark>&lt;/b&gt; &amp; more",
+                snippet);
+    }
+
+    @Test
+    public void highlight_whenNothingMatches_escapeTheLeadingExcerpt() {
+        // WHEN
+        String snippet = Snippets.highlight("<img src=x onerror=alert(1)>", List.of("spring"));
+
+        // THEN
+        assertEquals("&lt;img src=x onerror=alert(1)&gt;", snippet);
+    }
+}
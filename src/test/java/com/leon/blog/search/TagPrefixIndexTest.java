@@ -0,0 +1,65 @@
+package com.leon.blog.search;
+
+import com.leon.blog.domain.projections.TagPostCount;
+import com.leon.blog.search.TagPrefixIndex.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagPrefixIndexTest {
+
+    private final TagPrefixIndex index = TagPrefixIndex.of(List.of(
+            tag("Spring", 12),
+            tag("spring-boot", 30),
+            tag("Sports", 3),
+            tag("splines", 12),
+            tag("java", 50)
+    ));
+
+    @Test
+    public void suggest_whenPrefixMatches_rankByPostCountThenName() {
+        // WHEN
+        List<TagPostCount> results = index.suggest("SP", 10);
+
+        // THEN
+        assertEquals(List.of("spring-boot", "splines", "Spring", "Sports"), names(results));
+    }
+
+    @Test
+    public void suggest_whenMoreMatchesThanLimit_keepMostUsed() {
+        // WHEN
+        List<TagPostCount> results = index.suggest("spr", 1);
+
+        // THEN
+        assertEquals(List.of("spring-boot"), names(results));
+        assertEquals(30L, results.get(0).getPostCount());
+    }
+
+    @Test
+    public void suggest_whenNothingMatches_returnEmpty() {
+        // WHEN & THEN
+        assertTrue(index.suggest("kotlin", 10).isEmpty());
+        assertTrue(index.suggest("springs", 10).isEmpty());
+        assertTrue(TagPrefixIndex.EMPTY.suggest("s", 10).isEmpty());
+    }
+
+    @Test
+    public void suggest_whenPrefixBlank_returnMostUsedTags() {
+        // WHEN
+        List<TagPostCount> results = index.suggest("  ", 2);
+
+        // THEN
+        assertEquals(List.of("java", "spring-boot"), names(results));
+    }
+
+    private static Suggestion tag(String name, long postCount) {
+        return new Suggestion(UUID.randomUUID(), name, postCount);
+    }
+
+    private static List<String> names(List<TagPostCount> tags) {
+        return tags.stream().map(TagPostCount::getName).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch hashStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseHash = new CountDownLatch(1);
+
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashStarted.countDown();
+            try {
+                releaseHash.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    };
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        releaseHash.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_runOnThePoolAndRecordLatency() {
+        // GIVEN
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+        releaseHash.countDown();
+
+        // WHEN
+        String hash = encoder.encode("secret");
+
+        // THEN
+        assertEquals("hashed:secret", hash);
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("other", hash));
+        assertEquals(1, registry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("password.hash").tag("operation", "matches").timer().count());
+        assertEquals(3, registry.get("password.hash.wait").timer().count());
+    }
+
+    @Test
+    void encode_whenThreadsAndQueueAreFull_rejectAtOnce() throws Exception {
+        // GIVEN
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(hashStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while(registry.get("password.hash.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // WHEN
+        assertThrows(TaskRejectedException.class, () -> encoder.encode("third"));
+
+        // THEN
+        assertEquals(1.0, registry.get("password.hash.rejected").functionCounter().count());
+        releaseHash.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+}
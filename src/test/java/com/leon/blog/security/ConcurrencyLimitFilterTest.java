@@ -0,0 +1,84 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void doFilter_whenAllSlotsTaken_rejectWithServiceUnavailableAndFreeTheSlotAfterwards() throws Exception {
+        // GIVEN
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("requests", 1, Duration.ZERO, Duration.ofSeconds(30));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        MockHttpServletResponse admittedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+
+        // WHEN
+        // The second request arrives while the first still holds the only slot.
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts"), admittedResponse, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    assertEquals(1.0, registry.get("http.server.requests.admitted").gauge().value());
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts"), rejectedResponse,
+                            new MockFilterChain());
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+        MockHttpServletResponse laterResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts"), laterResponse, new MockFilterChain());
+
+        // THEN
+        assertEquals(200, admittedResponse.getStatus());
+        assertEquals(503, rejectedResponse.getStatus());
+        assertEquals("30", rejectedResponse.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, laterResponse.getStatus());
+        assertEquals(1.0, registry.get("http.server.requests.rejected").functionCounter().count());
+        assertEquals(0.0, registry.get("http.server.requests.admitted").gauge().value());
+    }
+
+    @Test
+    void doFilter_whenRequestGoesAsync_holdTheSlotUntilTheResponseCompletes() throws Exception {
+        // GIVEN
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("requests", 1, Duration.ZERO, Duration.ofSeconds(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        MockHttpServletRequest streamingRequest = new MockHttpServletRequest("GET", "/api/v1/posts/export");
+        streamingRequest.setAsyncSupported(true);
+        AsyncContext[] asyncContext = new AsyncContext[1];
+
+        // WHEN
+        filter.doFilter(streamingRequest, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                asyncContext[0] = request.startAsync();
+            }
+        });
+        MockHttpServletResponse whileStreaming = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts"), whileStreaming, new MockFilterChain());
+        assertNotNull(asyncContext[0]);
+        asyncContext[0].complete();
+        MockHttpServletResponse afterStreaming = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts"), afterStreaming, new MockFilterChain());
+
+        // THEN
+        assertEquals(503, whileStreaming.getStatus());
+        assertEquals(200, afterStreaming.getStatus());
+        assertEquals(0.0, registry.get("http.server.requests.admitted").gauge().value());
+    }
+}
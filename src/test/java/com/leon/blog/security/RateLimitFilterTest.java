@@ -0,0 +1,98 @@
+package com.leon.blog.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            List.of(RateLimitPolicy.of("login", "1/1m", RateLimitPolicy.ClientKey.ADDRESS,
+                            "/api/v1/auth/login", "POST"),
+                    RateLimitPolicy.of("post-writes", "1/1m", RateLimitPolicy.ClientKey.USER,
+                            "/api/v1/posts/**", "POST", "PUT", "DELETE")),
+            new TokenBucketRateLimiter(Duration.ofMinutes(1), 1000));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_whenClientExceedsItsLimit_answerTooManyRequestsWithRetryAfter() throws Exception {
+        // GIVEN
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        // WHEN
+        MockHttpServletResponse first = login("10.0.0.1");
+        MockHttpServletResponse second = login("10.0.0.1");
+        MockHttpServletResponse otherAddress = login("10.0.0.2");
+        MockFilterChain unmatchedChain = new MockFilterChain();
+        MockHttpServletResponse unmatched = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/auth/login"), unmatched, unmatchedChain);
+
+        // THEN
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("60", second.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, otherAddress.getStatus());
+        assertNotNull(unmatchedChain.getRequest());
+        assertEquals(1.0, registry.get("http.server.requests.rate-limited").tag("policy", "login")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("http.server.rate-limit.buckets").gauge().value());
+    }
+
+    @Test
+    void doFilter_whenPolicyIsPerUser_keyOnThePrincipalRatherThanTheAddress() throws Exception {
+        // GIVEN
+        JwtPrincipal alice = new JwtPrincipal(UUID.randomUUID(), "alice@example.com", List.of());
+        JwtPrincipal bob = new JwtPrincipal(UUID.randomUUID(), "bob@example.com", List.of());
+
+        // WHEN
+        MockHttpServletResponse aliceFirst = createPostAs(alice);
+        MockHttpServletResponse bobFirst = createPostAs(bob);
+        MockFilterChain aliceSecondChain = new MockFilterChain();
+        MockHttpServletResponse aliceSecond = createPostAs(alice, aliceSecondChain);
+
+        // THEN
+        assertEquals(200, aliceFirst.getStatus());
+        assertEquals(200, bobFirst.getStatus());
+        assertEquals(429, aliceSecond.getStatus());
+        assertNull(aliceSecondChain.getRequest());
+    }
+
+    private MockHttpServletResponse login(String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse createPostAs(JwtPrincipal principal) throws Exception {
+        return createPostAs(principal, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse createPostAs(JwtPrincipal principal, MockFilterChain chain) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/posts"), response, chain);
+        return response;
+    }
+}
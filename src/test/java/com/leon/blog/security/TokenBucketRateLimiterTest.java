@@ -0,0 +1,58 @@
+package com.leon.blog.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final RateLimitPolicy policy =
+            RateLimitPolicy.of("login", "3/1m", RateLimitPolicy.ClientKey.ADDRESS, "/api/v1/auth/login", "POST");
+    private final TokenBucketRateLimiter rateLimiter =
+            new TokenBucketRateLimiter(Duration.ofMinutes(1), 1000, now::get);
+
+    @Test
+    void tryAcquire_allowBurstUpToCapacityThenRefillOneTokenPerInterval() {
+        // GIVEN
+        String client = "10.0.0.1";
+
+        // WHEN
+        long first = rateLimiter.tryAcquire(policy, client);
+        long second = rateLimiter.tryAcquire(policy, client);
+        long third = rateLimiter.tryAcquire(policy, client);
+        long fourth = rateLimiter.tryAcquire(policy, client);
+        long otherClient = rateLimiter.tryAcquire(policy, "10.0.0.2");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        long afterOneInterval = rateLimiter.tryAcquire(policy, client);
+        long afterOneIntervalAgain = rateLimiter.tryAcquire(policy, client);
+
+        // THEN
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(TimeUnit.SECONDS.toNanos(20), fourth);
+        assertEquals(0, otherClient);
+        assertEquals(0, afterOneInterval);
+        assertTrue(afterOneIntervalAgain > 0);
+    }
+
+    @Test
+    void tryAcquire_forgetClientsIdleForTheLongestPeriod() {
+        // GIVEN
+        rateLimiter.tryAcquire(policy, "10.0.0.1");
+        rateLimiter.tryAcquire(policy, "10.0.0.2");
+
+        // WHEN
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1) + 1);
+        rateLimiter.tryAcquire(policy, "10.0.0.3");
+
+        // THEN
+        assertEquals(1, rateLimiter.size());
+    }
+}
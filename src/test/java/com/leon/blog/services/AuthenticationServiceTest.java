@@ -1,23 +1,36 @@
 package com.leon.blog.services;
 
+import com.leon.blog.domain.entities.User;
+import com.leon.blog.security.BlogUserDetails;
+import com.leon.blog.security.JwtKeyRing;
+import com.leon.blog.security.JwtKeyRingEndpoint;
+import com.leon.blog.security.JwtPrincipal;
+import com.leon.blog.security.VerifiedTokenCache;
 import com.leon.blog.services.impl.AuthenticationServiceImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,13 +45,21 @@ public class AuthenticationServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100);
+
+    private JwtKeyRing jwtKeyRing;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
+    private static final UUID USER_ID = UUID.randomUUID();
+
     @BeforeEach
     void setUp() {
-        // Set a fake secret key for testing
-        ReflectionTestUtils.setField(authenticationService, "secretKey", "12345678901234567890123456789012");
+        jwtKeyRing = new JwtKeyRing("current", "12345678901234567890123456789012", Map.of());
+        ReflectionTestUtils.setField(authenticationService, "jwtKeyRing", jwtKeyRing);
+        ReflectionTestUtils.setField(authenticationService, "jwtExpiryMs", 3600000L);
     }
 
     @Test
@@ -93,8 +114,7 @@ public class AuthenticationServiceTest {
     @Test
     public void generateToken_whenUserDetailsIsFine_returnToken() {
         // GIVEN
-        UserDetails userDetails = mock(UserDetails.class);
-        when(userDetails.getUsername()).thenReturn("user@test.com");
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
 
         // WHEN
         String token = authenticationService.generateToken(userDetails);
@@ -112,11 +132,9 @@ public class AuthenticationServiceTest {
     }
 
     @Test
-    void validateToken_shouldExtractUsernameAndReturnUserDetails() {
+    void validateToken_shouldBuildPrincipalFromClaimsWithoutLoadingUser() {
         // GIVEN
-        UserDetails userDetails = mock(UserDetails.class);
-        when(userDetails.getUsername()).thenReturn("user@test.com");
-        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(userDetails);
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
 
         // Generate a real token using the service
         String token = authenticationService.generateToken(userDetails);
@@ -124,8 +142,115 @@ public class AuthenticationServiceTest {
         // WHEN
         UserDetails result = authenticationService.validateToken(token);
 
+        // THEN
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, result);
+        assertEquals(USER_ID, principal.getId());
+        assertEquals("user@test.com", principal.getUsername());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(principal.getAuthorities()));
+    }
+
+    @Test
+    void validateToken_whenTokenHasNoUserIdClaim_loadUserByEmail() {
+        // GIVEN
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        when(userDetailsService.loadUserByUsername("user@test.com")).thenReturn(userDetails);
+        String token = Jwts.builder()
+                .setSubject("user@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(jwtKeyRing.getSigningKey().key())
+                .compact();
+
+        // WHEN
+        UserDetails result = authenticationService.validateToken(token);
+
         // THEN
         verify(userDetailsService).loadUserByUsername("user@test.com");
-        assertEquals(userDetails, result);
+        assertEquals(USER_ID, ((JwtPrincipal) result).getId());
+    }
+
+    @Test
+    void validateToken_whenTokenValidatedTwice_verifyOnce() {
+        // GIVEN
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        String token = authenticationService.generateToken(userDetails);
+
+        // WHEN
+        UserDetails first = authenticationService.validateToken(token);
+        UserDetails second = authenticationService.validateToken(token);
+
+        // THEN
+        assertSame(first, second);
+    }
+
+    @Test
+    void validateToken_whenTokenExpired_throwExceptionAndCacheNothing() {
+        // GIVEN
+        ReflectionTestUtils.setField(authenticationService, "jwtExpiryMs", -1000L);
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        String token = authenticationService.generateToken(userDetails);
+
+        // WHEN & THEN
+        assertThrows(ExpiredJwtException.class, () -> authenticationService.validateToken(token));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void validateToken_afterKeyRotation_acceptTokensSignedWithPreviousKey() {
+        // GIVEN
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        String oldToken = authenticationService.generateToken(userDetails);
+
+        // WHEN
+        jwtKeyRing.rotate("next", "abcdefghijabcdefghijabcdefghijab");
+        String newToken = authenticationService.generateToken(userDetails);
+
+        // THEN
+        assertEquals("next", Jwts.parserBuilder().setSigningKey("abcdefghijabcdefghijabcdefghijab".getBytes()).build()
+                .parseClaimsJws(newToken).getHeader().getKeyId());
+        assertEquals(USER_ID, ((JwtPrincipal) authenticationService.validateToken(oldToken)).getId());
+        assertEquals(USER_ID, ((JwtPrincipal) authenticationService.validateToken(newToken)).getId());
+    }
+
+    @Test
+    void validateToken_whenSigningKeyRemoved_evictCachedTokensAndThrowException() {
+        // GIVEN
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        String oldToken = authenticationService.generateToken(userDetails);
+        authenticationService.validateToken(oldToken);
+        jwtKeyRing.rotate("next", "abcdefghijabcdefghijabcdefghijab");
+        String newToken = authenticationService.generateToken(userDetails);
+        authenticationService.validateToken(newToken);
+
+        // WHEN
+        new JwtKeyRingEndpoint(jwtKeyRing, verifiedTokenCache).removeKey("current");
+
+        // THEN
+        assertEquals(1, verifiedTokenCache.size());
+        assertThrows(SignatureException.class, () -> authenticationService.validateToken(oldToken));
+        assertEquals(USER_ID, ((JwtPrincipal) authenticationService.validateToken(newToken)).getId());
+    }
+
+    @Test
+    void validateToken_whenTokenCachedAfterItsKeyWasRemoved_throwException() {
+        // GIVEN
+        UserDetails userDetails = new BlogUserDetails(User.builder().id(USER_ID).email("user@test.com").build());
+        String oldToken = authenticationService.generateToken(userDetails);
+        authenticationService.validateToken(oldToken);
+        jwtKeyRing.rotate("next", "abcdefghijabcdefghijabcdefghijab");
+
+        // WHEN
+        jwtKeyRing.removeKey("current");
+
+        // THEN
+        assertThrows(SignatureException.class, () -> authenticationService.validateToken(oldToken));
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void removeKey_whenKeyIsActive_throwException() {
+        // WHEN & THEN
+        assertThrows(IllegalStateException.class, () -> jwtKeyRing.removeKey("current"));
     }
-}
\ No newline at end of file
+}
@@ -9,7 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +28,9 @@ public class CategoryServiceTest {
     @Mock
     CategoryRepository categoryRepository;
 
+    @Spy
+    CacheManager cacheManager = new NoOpCacheManager();
+
     @InjectMocks
     CategoryServiceImpl categoryService;
 
@@ -57,14 +63,14 @@ public class CategoryServiceTest {
     }
 
     @Test
-    public void getCategoryById_whenCategoryExists_returnCategory() {
+    public void getCategoryReference_whenCategoryExists_returnCategory() {
         // GIVEN
         Category category = Category.builder().name("movie").build();
 
         when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
 
         // WHEN
-        Category foundCategory = categoryService.getCategoryById(category.getId());
+        Category foundCategory = categoryService.getCategoryReference(category.getId());
 
         // THEN
         assertEquals(foundCategory.getId(), category.getId());
@@ -72,14 +78,14 @@ public class CategoryServiceTest {
     }
 
     @Test
-    public void getCategoryById_whenCategoryDoesNotExist_throwException() {
+    public void getCategoryReference_whenCategoryDoesNotExist_throwException() {
         // GIVEN
         Category category = Category.builder().name("movie").build();
 
         when(categoryRepository.findById(category.getId())).thenReturn(Optional.empty());
 
         // WHEN & THEN
-        assertThrows(EntityNotFoundException.class, () -> categoryService.getCategoryById(category.getId()));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.getCategoryReference(category.getId()));
     }
 
     @Test
@@ -0,0 +1,199 @@
+package com.leon.blog.services;
+
+import com.leon.blog.config.CacheConfig;
+import com.leon.blog.domain.entities.Category;
+import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.projections.CategoryRef;
+import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.TagRepository;
+import com.leon.blog.services.impl.CategoryServiceImpl;
+import com.leon.blog.services.impl.TagServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class LookupCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, CategoryServiceImpl.class, TagServiceImpl.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.CATEGORIES, CacheConfig.TAGS);
+        }
+    }
+
+    @MockitoBean
+    private CategoryRepository categoryRepository;
+
+    @MockitoBean
+    private TagRepository tagRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    public void getCategoryReference_whenCalledTwice_loadOnceThenLinkByReference() {
+        // GIVEN
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").build();
+        Category reference = Category.builder().id(category.getId()).build();
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        when(categoryRepository.getReferenceById(category.getId())).thenReturn(reference);
+
+        // WHEN
+        Category loaded = categoryService.getCategoryReference(category.getId());
+        Category linked = categoryService.getCategoryReference(category.getId());
+
+        // THEN
+        assertThat(loaded).isSameAs(category);
+        assertThat(linked).isSameAs(reference);
+        verify(categoryRepository, times(1)).findById(category.getId());
+    }
+
+    @Test
+    public void getCategoryReference_cacheIdAndNameOnly() {
+        // GIVEN
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").publishedPostCount(3).build();
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+
+        // WHEN
+        categoryService.getCategoryReference(category.getId());
+        categoryService.adjustPublishedPostCount(category.getId(), 1);
+
+        // THEN
+        assertThat(categoryCache().get(category.getId(), Object.class))
+                .isEqualTo(new CategoryRef(category.getId(), "movie"));
+        assertThat(category.getPublishedPostCount()).isEqualTo(3);
+        verify(categoryRepository).adjustPublishedPostCount(category.getId(), 1);
+    }
+
+    @Test
+    public void deleteCategory_insideTransaction_evictOnlyAfterCommit() {
+        // GIVEN
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").posts(List.of()).build();
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        categoryService.getCategoryReference(category.getId());
+
+        // WHEN
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            categoryService.deleteCategory(category.getId());
+
+            // THEN
+            assertThat(categoryCache().get(category.getId())).isNotNull();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(categoryCache().get(category.getId())).isNull();
+    }
+
+    @Test
+    public void getCategoryReference_whenCachedAndTransactionRollsBack_evictSoRetryLooksItUp() {
+        // GIVEN
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").build();
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        categoryService.getCategoryReference(category.getId());
+
+        // WHEN
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            categoryService.getCategoryReference(category.getId());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // THEN
+        assertThat(categoryCache().get(category.getId())).isNull();
+    }
+
+    @Test
+    public void findTagReferences_whenTransactionCommits_keepCachedTags() {
+        // GIVEN
+        Tag tag = Tag.builder().id(UUID.randomUUID()).name("java").build();
+        when(tagRepository.findById(tag.getId())).thenReturn(Optional.of(tag));
+        tagService.getTagReference(tag.getId());
+
+        // WHEN
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tagService.findTagReferences(Set.of(tag.getId()));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // THEN
+        assertThat(cacheManager.getCache(CacheConfig.TAGS).get(tag.getId())).isNotNull();
+    }
+
+    @Test
+    public void getTagReferences_whenSomeTagsCached_loadOnlyMissingTags() {
+        // GIVEN
+        Tag cached = Tag.builder().id(UUID.randomUUID()).name("java").build();
+        Tag missing = Tag.builder().id(UUID.randomUUID()).name("spring").build();
+        when(tagRepository.findById(cached.getId())).thenReturn(Optional.of(cached));
+        when(tagRepository.findAllById(Set.of(missing.getId()))).thenReturn(List.of(missing));
+        when(tagRepository.getReferenceById(cached.getId())).thenReturn(cached);
+        when(tagRepository.getReferenceById(missing.getId())).thenReturn(missing);
+        tagService.getTagReference(cached.getId());
+
+        // WHEN
+        List<Tag> result = tagService.getTagReferences(Set.of(cached.getId(), missing.getId()));
+        List<Tag> again = tagService.getTagReferences(Set.of(cached.getId(), missing.getId()));
+
+        // THEN
+        assertThat(result).containsExactlyInAnyOrder(cached, missing);
+        assertThat(again).containsExactlyInAnyOrder(cached, missing);
+        verify(tagRepository, times(1)).findAllById(Set.of(missing.getId()));
+    }
+
+    @Test
+    public void getTagReference_afterTagDeleted_reloadFromRepository() {
+        // GIVEN
+        Tag tag = Tag.builder().id(UUID.randomUUID()).name("java").posts(new HashSet<>()).build();
+        when(tagRepository.findById(tag.getId())).thenReturn(Optional.of(tag));
+        tagService.getTagReference(tag.getId());
+
+        // WHEN
+        tagService.deleteTag(tag.getId());
+        tagService.getTagReference(tag.getId());
+
+        // THEN
+        verify(tagRepository, times(3)).findById(tag.getId());
+    }
+
+    private Cache categoryCache() {
+        return cacheManager.getCache(CacheConfig.CATEGORIES);
+    }
+}
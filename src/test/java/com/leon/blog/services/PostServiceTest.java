@@ -1,13 +1,34 @@
 package com.leon.blog.services;
 
+import com.leon.blog.content.ContentAnalyzer;
+import com.leon.blog.content.ExcerptGenerator;
+import com.leon.blog.content.MarkdownRenderer;
+import com.leon.blog.content.RenderedHtmlCache;
+import com.leon.blog.content.ReadingTimeCalculator;
 import com.leon.blog.domain.CreatePostRequest;
+import com.leon.blog.domain.CreatePostResult;
+import com.leon.blog.domain.PostCursor;
+import com.leon.blog.domain.PostPage;
+import com.leon.blog.domain.PostSearchHit;
+import com.leon.blog.domain.PostSearchPage;
 import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.PostSummaryPage;
+import com.leon.blog.domain.RenderedPost;
+import com.leon.blog.domain.SearchCursor;
 import com.leon.blog.domain.UpdatePostRequest;
 import com.leon.blog.domain.entities.Category;
 import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.PostHtml;
 import com.leon.blog.domain.entities.Tag;
 import com.leon.blog.domain.entities.User;
+import com.leon.blog.domain.events.PostDeletedEvent;
+import com.leon.blog.domain.events.PostSavedEvent;
+import com.leon.blog.domain.projections.PostCreatedAt;
+import com.leon.blog.domain.projections.PostSearchRow;
+import com.leon.blog.domain.projections.PostSummaryRow;
+import com.leon.blog.domain.projections.PostTagRow;
 import com.leon.blog.repositories.CategoryRepository;
+import com.leon.blog.repositories.PostHtmlRepository;
 import com.leon.blog.repositories.PostRepository;
 import com.leon.blog.repositories.TagRepository;
 import com.leon.blog.services.impl.CategoryServiceImpl;
@@ -18,16 +39,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,12 +68,30 @@ public class PostServiceTest {
     @Mock
     public PostRepository postRepository;
 
+    @Mock
+    public PostHtmlRepository postHtmlRepository;
+
     @Mock
     public CategoryServiceImpl categoryService;
 
     @Mock
     public TagServiceImpl tagService;
 
+    @Mock
+    public ObjectProvider<PostIndexService> postIndexService;
+
+    @Mock
+    public ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    public ContentAnalyzer contentAnalyzer = new ContentAnalyzer(new ReadingTimeCalculator(), new ExcerptGenerator());
+
+    @Spy
+    public MarkdownRenderer markdownRenderer = new MarkdownRenderer();
+
+    @Spy
+    public RenderedHtmlCache renderedHtmlCache = new RenderedHtmlCache(1 << 20);
+
     @InjectMocks
     public PostServiceImpl postService;
 
@@ -50,7 +100,7 @@ public class PostServiceTest {
         // GIVEN
         User user = User.builder().build();
 
-        Category category = Category.builder().name("movie").build();
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").build();
 
         CreatePostRequest createPostRequest = CreatePostRequest.builder()
                 .title("the Movie")
@@ -60,15 +110,91 @@ public class PostServiceTest {
                 .tagIds(Set.of())
                 .build();
 
-        when(categoryService.getCategoryById(category.getId())).thenReturn(category);
+        when(categoryService.getCategoryReference(category.getId())).thenReturn(category);
 
-        when(tagService.getTagByIds(Set.of())).thenReturn(List.of());
+        when(tagService.getTagReferences(Set.of())).thenReturn(List.of());
 
         // WHEN
         Post post = postService.createPost(user, createPostRequest);
 
         // THEN
-        verify(postRepository).save(any());
+        verify(postRepository).save(argThat(saved -> "this is post about movie.".equals(saved.getExcerpt())
+                && saved.getWordCount() == 5
+                && saved.getReadingTime() == 1));
+        verify(postHtmlRepository).save(argThat(postHtml -> "<p>this is post about movie.</p>\n".equals(postHtml.getHtml())));
+        verify(categoryService).adjustPublishedPostCount(category.getId(), 1);
+        verify(eventPublisher).publishEvent(any(PostSavedEvent.class));
+    }
+
+    @Test
+    public void createPosts_resolveReferencesOnceRejectMissingOnesAndMoveCountersPerCategoryAndTag() {
+        // GIVEN
+        User user = User.builder().build();
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").build();
+        Tag tag1 = Tag.builder().id(UUID.randomUUID()).name("good").build();
+        Tag tag2 = Tag.builder().id(UUID.randomUUID()).name("bad").build();
+        UUID missingCategoryId = UUID.randomUUID();
+        UUID missingTagId = UUID.randomUUID();
+
+        CreatePostRequest published1 = CreatePostRequest.builder().title("one").content("first post")
+                .status(PostStatus.PUBLISHED).categoryId(category.getId()).tagIds(Set.of(tag1.getId(), tag2.getId())).build();
+        CreatePostRequest published2 = CreatePostRequest.builder().title("two").content("second post")
+                .status(PostStatus.PUBLISHED).categoryId(category.getId()).tagIds(Set.of(tag1.getId())).build();
+        CreatePostRequest draft = CreatePostRequest.builder().title("three").content("third post")
+                .status(PostStatus.DRAFT).categoryId(category.getId()).tagIds(Set.of(tag2.getId())).build();
+        CreatePostRequest missingCategory = CreatePostRequest.builder().title("four").content("fourth post")
+                .status(PostStatus.PUBLISHED).categoryId(missingCategoryId).tagIds(Set.of(missingTagId)).build();
+
+        when(categoryService.findCategoryReferences(Set.of(category.getId(), missingCategoryId))).thenReturn(List.of(category));
+        when(tagService.findTagReferences(Set.of(tag1.getId(), tag2.getId(), missingTagId))).thenReturn(List.of(tag1, tag2));
+
+        // WHEN
+        List<CreatePostResult> results = postService.createPosts(user, List.of(published1, published2, draft, missingCategory));
+
+        // THEN
+        assertEquals(4, results.size());
+        assertEquals("one", results.get(0).getPost().getTitle());
+        assertEquals("first post", results.get(0).getPost().getExcerpt());
+        assertEquals(Set.of(tag1, tag2), results.get(0).getPost().getTags());
+        assertEquals(PostStatus.DRAFT, results.get(2).getPost().getStatus());
+        assertNull(results.get(3).getPost());
+        assertEquals(Set.of("categoryId", "tagIds"), results.get(3).getErrors().keySet());
+
+        verify(postRepository).saveAll(argThat(posts -> ((List<Post>) posts).size() == 3));
+        verify(postHtmlRepository).saveAll(argThat(htmls -> ((List<PostHtml>) htmls).size() == 3));
+        verify(categoryService).adjustPublishedPostCount(category.getId(), 2);
+        verify(tagService).adjustPublishedPostCount(Set.of(tag1.getId()), 2);
+        verify(tagService).adjustPublishedPostCount(Set.of(tag2.getId()), 1);
+        verify(eventPublisher, times(3)).publishEvent(any(PostSavedEvent.class));
+        verify(categoryService, never()).getCategoryReference(any());
+        verify(tagService, never()).getTagReferences(any());
+    }
+
+    @Test
+    public void createPost_whenDraft_leaveCountersUntouched() {
+        // GIVEN
+        User user = User.builder().build();
+
+        Category category = Category.builder().name("movie").build();
+        Tag tag = Tag.builder().id(UUID.randomUUID()).name("good").build();
+
+        CreatePostRequest createPostRequest = CreatePostRequest.builder()
+                .title("the Movie")
+                .content("this is post about movie.")
+                .status(PostStatus.DRAFT)
+                .categoryId(category.getId())
+                .tagIds(Set.of(tag.getId()))
+                .build();
+
+        when(categoryService.getCategoryReference(category.getId())).thenReturn(category);
+        when(tagService.getTagReferences(Set.of(tag.getId()))).thenReturn(List.of(tag));
+
+        // WHEN
+        postService.createPost(user, createPostRequest);
+
+        // THEN
+        verify(categoryService, never()).adjustPublishedPostCount(any(), anyLong());
+        verify(tagService, never()).adjustPublishedPostCount(argThat(tags -> !tags.isEmpty()), anyLong());
     }
 
     @Test
@@ -76,7 +202,7 @@ public class PostServiceTest {
         // GIVEN
         Post post = Post.builder().build();
 
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(postRepository.findWithDetailsById(post.getId())).thenReturn(Optional.of(post));
 
         // WHEN
         Post foundPost = postService.getPost(post.getId());
@@ -85,17 +211,116 @@ public class PostServiceTest {
         assertEquals(foundPost.getId(), post.getId());
     }
 
+    @Test
+    public void getRenderedPost_whenReadAgainUnchanged_serveHtmlFromCache() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(postRepository.findUpdatedAtById(id)).thenReturn(Optional.of(updatedAt));
+        when(postHtmlRepository.findHtmlByPostId(id)).thenReturn(Optional.of("<p>stored</p>"));
+
+        // WHEN
+        RenderedPost first = postService.getRenderedPost(id);
+        RenderedPost second = postService.getRenderedPost(id);
+
+        // THEN
+        assertEquals("<p>stored</p>", first.html());
+        assertEquals(first, second);
+        verify(postHtmlRepository, times(1)).findHtmlByPostId(id);
+        verify(markdownRenderer, never()).render(any());
+    }
+
+    @Test
+    public void getRenderedPost_whenPostChanged_loadHtmlOfNewVersion() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(postRepository.findUpdatedAtById(id))
+                .thenReturn(Optional.of(updatedAt), Optional.of(updatedAt.plusSeconds(1)));
+        when(postHtmlRepository.findHtmlByPostId(id))
+                .thenReturn(Optional.of("<p>old</p>"), Optional.of("<p>new</p>"));
+
+        // WHEN
+        RenderedPost before = postService.getRenderedPost(id);
+        RenderedPost after = postService.getRenderedPost(id);
+
+        // THEN
+        assertEquals("<p>old</p>", before.html());
+        assertEquals("<p>new</p>", after.html());
+        assertNotEquals(before.version(), after.version());
+    }
+
+    @Test
+    public void getRenderedPost_whenHtmlNotStoredYet_renderContent() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        when(postRepository.findUpdatedAtById(id)).thenReturn(Optional.of(LocalDateTime.now()));
+        when(postHtmlRepository.findHtmlByPostId(id)).thenReturn(Optional.empty());
+        when(postRepository.findContentById(id)).thenReturn(Optional.of("# Title"));
+
+        // WHEN
+        RenderedPost renderedPost = postService.getRenderedPost(id);
+
+        // THEN
+        assertEquals("<h1>Title</h1>\n", renderedPost.html());
+    }
+
+    @Test
+    public void getRenderedPost_whenPostDoesNotExist_throwException() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        when(postRepository.findUpdatedAtById(id)).thenReturn(Optional.empty());
+
+        // WHEN & THEN
+        assertThrows(EntityNotFoundException.class, () -> postService.getRenderedPost(id));
+    }
+
     @Test
     public void getPost_whenPostDoesNotExist_throwException() {
         // GIVEN
         UUID id = UUID.randomUUID();
 
-        when(postRepository.findById(id)).thenReturn(Optional.empty());
+        when(postRepository.findWithDetailsById(id)).thenReturn(Optional.empty());
 
         // WHEN & THEN
         assertThrows(EntityNotFoundException.class, () -> postService.getPost(id));
     }
 
+    @Test
+    public void exportPublishedPosts_readPagesAfterTheLastRowAndHandOverBatchesInPageOrder() {
+        // GIVEN
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<PostCreatedAt> rows = IntStream.range(0, 150)
+                .mapToObj(i -> new PostCreatedAt(UUID.randomUUID(), createdAt.plusMinutes(i)))
+                .toList();
+        List<PostCreatedAt> firstPage = rows.subList(0, 100);
+        List<PostCreatedAt> secondPage = rows.subList(100, 150);
+        when(postRepository.findExportPage(PostStatus.PUBLISHED, Limit.of(100))).thenReturn(firstPage);
+        when(postRepository.findExportPageAfter(PostStatus.PUBLISHED, firstPage.getLast().createdAt(),
+                firstPage.getLast().id(), Limit.of(100))).thenReturn(secondPage);
+        when(postRepository.findAllWithDetailsByIdIn(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = new ArrayList<>(invocation.getArgument(0));
+            // Unordered, as an IN query returns them; the draft stands for a post unpublished in between.
+            Collections.reverse(ids);
+            return ids.stream()
+                    .map(id -> Post.builder()
+                            .id(id)
+                            .status(id.equals(rows.get(7).id()) ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                            .build())
+                    .toList();
+        });
+        List<List<Post>> batches = new ArrayList<>();
+
+        // WHEN
+        postService.exportPublishedPosts(batches::add);
+
+        // THEN
+        assertEquals(List.of(99, 50), batches.stream().map(List::size).toList());
+        assertEquals(rows.stream().map(PostCreatedAt::id).filter(id -> !id.equals(rows.get(7).id())).toList(),
+                batches.stream().flatMap(List::stream).map(Post::getId).toList());
+        verify(postRepository, times(1)).findExportPageAfter(any(), any(), any(), any());
+    }
+
     @Test
     public void getAllPosts_whenFindByCategoryAndTag_returnPosts() {
         // GIVEN
@@ -109,15 +334,16 @@ public class PostServiceTest {
         Post post3 = Post.builder().category(category2).tags(Set.of(tag)).build();
         Post post4 = Post.builder().category(category2).tags(Set.of()).build();
 
-        when(categoryService.getCategoryById(category1.getId())).thenReturn(category1);
+        when(categoryService.getCategoryReference(category1.getId())).thenReturn(category1);
 
-        when(tagService.getTagById(tag.getId())).thenReturn(tag);
+        when(tagService.getTagReference(tag.getId())).thenReturn(tag);
 
-        when(postRepository.findAllByStatusAndCategoryAndTagsContaining(PostStatus.PUBLISHED, category1, tag))
+        when(postRepository.findAllByStatusAndCategoryAndTagsContainingOrderByCreatedAtDescIdDesc(
+                PostStatus.PUBLISHED, category1, tag, Limit.of(21)))
                 .thenReturn(List.of(post1));
 
         // WHEN
-        List<Post> foundPost = postService.getAllPosts(category1.getId(), tag.getId());
+        List<Post> foundPost = postService.getAllPosts(category1.getId(), tag.getId(), null, null).getPosts();
 
         // THEN
         assertEquals(1, foundPost.size());
@@ -133,13 +359,14 @@ public class PostServiceTest {
         Post post2 = Post.builder().status(PostStatus.PUBLISHED).category(category1).tags(Set.of()).build();
         Post post3 = Post.builder().status(PostStatus.PUBLISHED).tags(Set.of()).build();
 
-        when(categoryService.getCategoryById(category1.getId())).thenReturn(category1);
+        when(categoryService.getCategoryReference(category1.getId())).thenReturn(category1);
 
-        when(postRepository.findAllByStatusAndCategory(PostStatus.PUBLISHED, category1))
+        when(postRepository.findAllByStatusAndCategoryOrderByCreatedAtDescIdDesc(
+                PostStatus.PUBLISHED, category1, Limit.of(21)))
                 .thenReturn(List.of(post1, post2));
 
         // WHEN
-        List<Post> foundPost = postService.getAllPosts(category1.getId(), null);
+        List<Post> foundPost = postService.getAllPosts(category1.getId(), null, null, null).getPosts();
 
         // THEN
         assertEquals(2, foundPost.size());
@@ -154,13 +381,14 @@ public class PostServiceTest {
         Post post1 = Post.builder().status(PostStatus.PUBLISHED).tags(Set.of(tag)).build();
         Post post2 = Post.builder().status(PostStatus.PUBLISHED).tags(Set.of()).build();
 
-        when(tagService.getTagById(tag.getId())).thenReturn(tag);
+        when(tagService.getTagReference(tag.getId())).thenReturn(tag);
 
-        when(postRepository.findAllByStatusAndTagsContaining(PostStatus.PUBLISHED, tag))
+        when(postRepository.findAllByStatusAndTagsContainingOrderByCreatedAtDescIdDesc(
+                PostStatus.PUBLISHED, tag, Limit.of(21)))
                 .thenReturn(List.of(post1));
 
         // WHEN
-        List<Post> foundPost = postService.getAllPosts(null, tag.getId());
+        List<Post> foundPost = postService.getAllPosts(null, tag.getId(), null, null).getPosts();
 
         // THEN
         assertEquals(1, foundPost.size());
@@ -173,21 +401,169 @@ public class PostServiceTest {
         Post post1 = Post.builder().status(PostStatus.PUBLISHED).build();
         Post post2 = Post.builder().status(PostStatus.PUBLISHED).build();
 
-        when(postRepository.findAllByStatus(PostStatus.PUBLISHED))
+        when(postRepository.findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, Limit.of(21)))
                 .thenReturn(List.of(post1, post2));
 
         // WHEN
-        List<Post> foundPost = postService.getAllPosts(null, null);
+        List<Post> foundPost = postService.getAllPosts(null, null, null, null).getPosts();
 
         // THEN
         assertEquals(2, foundPost.size());
         assertEquals(foundPost.getFirst().getId(), post1.getId());
     }
 
+    @Test
+    public void getAllPosts_whenMoreRowsThanLimit_returnNextCursorOfLastPost() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        Post post1 = Post.builder().id(UUID.randomUUID()).status(PostStatus.PUBLISHED).createdAt(now).build();
+        Post post2 = Post.builder().id(UUID.randomUUID()).status(PostStatus.PUBLISHED).createdAt(now.minusMinutes(1)).build();
+        Post post3 = Post.builder().id(UUID.randomUUID()).status(PostStatus.PUBLISHED).createdAt(now.minusMinutes(2)).build();
+
+        when(postRepository.findAllByStatusOrderByCreatedAtDescIdDesc(PostStatus.PUBLISHED, Limit.of(3)))
+                .thenReturn(List.of(post1, post2, post3));
+
+        // WHEN
+        PostPage page = postService.getAllPosts(null, null, null, 2);
+
+        // THEN
+        assertEquals(List.of(post1, post2), page.getPosts());
+        assertEquals(PostCursor.of(post2), PostCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void getAllPosts_whenCursorGiven_continueAfterCursor() {
+        // GIVEN
+        PostCursor cursor = new PostCursor(LocalDateTime.now(), UUID.randomUUID());
+        Post post = Post.builder().status(PostStatus.PUBLISHED).build();
+
+        when(postRepository.findPageByStatusAfter(PostStatus.PUBLISHED, cursor.createdAt(), cursor.id(), Limit.of(21)))
+                .thenReturn(List.of(post));
+
+        // WHEN
+        PostPage page = postService.getAllPosts(null, null, cursor.encode(), null);
+
+        // THEN
+        assertEquals(1, page.getPosts().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getAllPosts_whenCursorOrLimitInvalid_throwException() {
+        assertThrows(IllegalArgumentException.class, () -> postService.getAllPosts(null, null, "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> postService.getAllPosts(null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> postService.getAllPosts(null, null, null, 1000));
+    }
+
+    @Test
+    public void getPostSummaries_whenMoreRowsThanLimit_attachTagsAndReturnNextCursor() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        UUID categoryId = UUID.randomUUID();
+        PostSummaryRow row1 = summaryRow(now, categoryId);
+        PostSummaryRow row2 = summaryRow(now.minusMinutes(1), categoryId);
+        PostSummaryRow row3 = summaryRow(now.minusMinutes(2), categoryId);
+        PostTagRow tagRow = new PostTagRow(row1.id(), UUID.randomUUID(), "java", 3);
+
+        when(postRepository.findSummaries(categoryId, null, null, 3)).thenReturn(List.of(row1, row2, row3));
+        when(postRepository.findTagRowsByPostIds(List.of(row1.id(), row2.id()))).thenReturn(List.of(tagRow));
+
+        // WHEN
+        PostSummaryPage page = postService.getPostSummaries(categoryId, null, null, 2);
+
+        // THEN
+        verify(categoryService).getCategoryReference(categoryId);
+        assertEquals(2, page.getPosts().size());
+        assertEquals(row1, page.getPosts().getFirst().getPost());
+        assertEquals(List.of(tagRow), page.getPosts().getFirst().getTags());
+        assertEquals(List.of(), page.getPosts().getLast().getTags());
+        assertEquals(new PostCursor(row2.createdAt(), row2.id()), PostCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void getPostSummaries_whenNoRows_skipTagQuery() {
+        // GIVEN
+        PostCursor cursor = new PostCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(postRepository.findSummaries(null, null, cursor, 21)).thenReturn(List.of());
+
+        // WHEN
+        PostSummaryPage page = postService.getPostSummaries(null, null, cursor.encode(), null);
+
+        // THEN
+        assertTrue(page.getPosts().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(postRepository, never()).findTagRowsByPostIds(any());
+    }
+
+    @Test
+    public void searchPosts_whenMoreRowsThanLimit_returnHitsInRankOrderWithNextCursor() {
+        // GIVEN
+        Post post1 = Post.builder().id(UUID.randomUUID()).build();
+        Post post2 = Post.builder().id(UUID.randomUUID()).build();
+        PostSearchRow row1 = new PostSearchRow(post1.getId(), 0.9, "<mark>java</mark> one");
+        PostSearchRow row2 = new PostSearchRow(post2.getId(), 0.5, "<mark>java</mark> two");
+        PostSearchRow row3 = new PostSearchRow(UUID.randomUUID(), 0.1, "<mark>java</mark> three");
+
+        when(postRepository.search("java", null, null, null, 3)).thenReturn(List.of(row1, row2, row3));
+        when(postRepository.findAllByIdIn(List.of(post1.getId(), post2.getId()))).thenReturn(List.of(post2, post1));
+
+        // WHEN
+        PostSearchPage page = postService.searchPosts(" java ", null, null, null, 2);
+
+        // THEN
+        assertEquals(List.of(post1, post2), page.getHits().stream().map(PostSearchHit::getPost).toList());
+        assertEquals("<mark>java</mark> one", page.getHits().getFirst().getSnippet());
+        assertEquals(new SearchCursor(0.5, post2.getId()), SearchCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void searchPosts_whenCursorAndFiltersGiven_continueAfterCursor() {
+        // GIVEN
+        UUID categoryId = UUID.randomUUID();
+        UUID tagId = UUID.randomUUID();
+        SearchCursor cursor = new SearchCursor(0.5, UUID.randomUUID());
+        when(postRepository.search("java", categoryId, tagId, cursor, 21)).thenReturn(List.of());
+        when(postRepository.findAllByIdIn(List.of())).thenReturn(List.of());
+
+        // WHEN
+        PostSearchPage page = postService.searchPosts("java", categoryId, tagId, cursor.encode(), null);
+
+        // THEN
+        assertTrue(page.getHits().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(categoryService).getCategoryReference(categoryId);
+        verify(tagService).getTagReference(tagId);
+    }
+
+    @Test
+    public void searchPosts_whenIndexReady_searchIndexAndHighlightFromContent() {
+        // GIVEN
+        PostIndexService index = mock(PostIndexService.class);
+        Post post = Post.builder().id(UUID.randomUUID()).content("All about Java streams.").build();
+        when(postIndexService.getIfAvailable()).thenReturn(index);
+        when(index.isReady()).thenReturn(true);
+        when(index.search("java", null, null, null, 21)).thenReturn(List.of(new PostSearchRow(post.getId(), 1.5, null)));
+        when(postRepository.findAllByIdIn(List.of(post.getId()))).thenReturn(List.of(post));
+
+        // WHEN
+        PostSearchPage page = postService.searchPosts("java", null, null, null, null);
+
+        // THEN
+        assertEquals("All about <mark>Java</mark> streams.", page.getHits().getFirst().getSnippet());
+        verify(postRepository, never()).search(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void searchPosts_whenQueryBlankOrCursorInvalid_throwException() {
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts(" ", null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("java", null, null, "not-a-cursor", null));
+        verify(postRepository, never()).search(any(), any(), any(), any(), anyInt());
+    }
+
     @Test
     public void updatePost_whenEverythingIsFine_updateAndFindPost() {
         // GIVEN
-        User user = User.builder().build();
+        User user = User.builder().id(UUID.randomUUID()).build();
 
         Category category1 = Category.builder().id(UUID.randomUUID()).name("movie").build();
         Category category2 = Category.builder().id(UUID.randomUUID()).name("anime").build();
@@ -220,16 +596,16 @@ public class PostServiceTest {
         when(postRepository.save(any(Post.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        when(categoryService.getCategoryById(updatePostRequest.getCategoryId())).thenReturn(category2);
+        when(categoryService.getCategoryReference(updatePostRequest.getCategoryId())).thenReturn(category2);
 
-        when(tagService.getTagByIds(updatePostRequest.getTagIds())).thenReturn(List.of(tag1));
+        when(tagService.getTagReferences(updatePostRequest.getTagIds())).thenReturn(List.of(tag1));
 
         // WHEN
-        Post updatedPost = postService.updatePost(post.getId(), updatePostRequest);
+        Post updatedPost = postService.updatePost(post.getId(), user, updatePostRequest);
 
         // THEN
         verify(postRepository).save(any());
-        verify(tagService).getTagByIds(anySet());
+        verify(tagService).getTagReferences(anySet());
 
         assertNotNull(updatedPost);
         assertEquals(post.getId(), updatedPost.getId());
@@ -237,12 +613,18 @@ public class PostServiceTest {
         assertEquals(category2, updatedPost.getCategory());
         assertEquals(1, updatedPost.getTags().size());
         assertEquals(Set.of(tag1), updatedPost.getTags());
+
+        verify(categoryService).adjustPublishedPostCount(category1.getId(), -1);
+        verify(categoryService).adjustPublishedPostCount(category2.getId(), 1);
+        verify(tagService).adjustPublishedPostCount(Set.of(tag2.getId()), -1);
+        verify(tagService).adjustPublishedPostCount(Set.of(), 1);
+        verify(postHtmlRepository).save(argThat(postHtml -> "<p>this is post about anime.</p>\n".equals(postHtml.getHtml())));
     }
 
     @Test
     public void updatePost_whenCategoryIsSame_updateAndFindPost() {
         // GIVEN
-        User user = User.builder().build();
+        User user = User.builder().id(UUID.randomUUID()).build();
 
         Category category1 = Category.builder().id(UUID.randomUUID()).name("movie").build();
         Category category2 = Category.builder().id(UUID.randomUUID()).name("anime").build();
@@ -275,10 +657,10 @@ public class PostServiceTest {
         when(postRepository.save(any(Post.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        when(tagService.getTagByIds(updatePostRequest.getTagIds())).thenReturn(List.of(tag1));
+        when(tagService.getTagReferences(updatePostRequest.getTagIds())).thenReturn(List.of(tag1));
 
         // WHEN
-        Post updatedPost = postService.updatePost(post.getId(), updatePostRequest);
+        Post updatedPost = postService.updatePost(post.getId(), user, updatePostRequest);
 
         // THEN
         verify(postRepository).save(any());
@@ -294,7 +676,7 @@ public class PostServiceTest {
     @Test
     public void updatePost_whenTagsAreSame_updateAndFindPost() {
         // GIVEN
-        User user = User.builder().build();
+        User user = User.builder().id(UUID.randomUUID()).build();
 
         Category category1 = Category.builder().id(UUID.randomUUID()).name("movie").build();
         Category category2 = Category.builder().id(UUID.randomUUID()).name("anime").build();
@@ -327,14 +709,14 @@ public class PostServiceTest {
         when(postRepository.save(any(Post.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        when(categoryService.getCategoryById(updatePostRequest.getCategoryId())).thenReturn(category2);
+        when(categoryService.getCategoryReference(updatePostRequest.getCategoryId())).thenReturn(category2);
 
         // WHEN
-        Post updatedPost = postService.updatePost(post.getId(), updatePostRequest);
+        Post updatedPost = postService.updatePost(post.getId(), user, updatePostRequest);
 
         // THEN
         verify(postRepository).save(any());
-        verify(tagService, never()).getTagByIds(anySet());
+        verify(tagService, never()).getTagReferences(anySet());
 
         assertNotNull(updatedPost);
         assertEquals(post.getId(), updatedPost.getId());
@@ -357,37 +739,73 @@ public class PostServiceTest {
                 .tagIds(Set.of())
                 .build();
 
+        User user = User.builder().id(UUID.randomUUID()).build();
+
         Post post = Post.builder().id(UUID.randomUUID()).build();
 
         when(postRepository.findById(post.getId())).thenReturn(Optional.empty());
 
         // WHEN & THEN
-        assertThrows(EntityNotFoundException.class, () -> postService.updatePost(post.getId(), updatePostRequest));
+        assertThrows(EntityNotFoundException.class, () -> postService.updatePost(post.getId(), user, updatePostRequest));
     }
 
     @Test
     public void deletePost_whenPostExists_deletePost() {
         // GIVEN
-        Post post = Post.builder().id(UUID.randomUUID()).build();
+        User user = User.builder().id(UUID.randomUUID()).build();
+        Post post = Post.builder().id(UUID.randomUUID()).author(user).build();
 
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(postRepository.findWithDetailsById(post.getId())).thenReturn(Optional.of(post));
 
         // WHEN
-        postService.deletePost(post.getId());
+        postService.deletePost(post.getId(), user);
 
         // THEN
         verify(postRepository).delete(any(Post.class));
+        verify(categoryService, never()).adjustPublishedPostCount(any(), anyLong());
+    }
+
+    @Test
+    public void deletePost_whenPostIsPublished_decrementCounters() {
+        // GIVEN
+        User user = User.builder().id(UUID.randomUUID()).build();
+        Category category = Category.builder().id(UUID.randomUUID()).name("movie").build();
+        Tag tag = Tag.builder().id(UUID.randomUUID()).name("good").build();
+        Post post = Post.builder()
+                .id(UUID.randomUUID())
+                .author(user)
+                .status(PostStatus.PUBLISHED)
+                .category(category)
+                .tags(Set.of(tag))
+                .build();
+
+        when(postRepository.findWithDetailsById(post.getId())).thenReturn(Optional.of(post));
+
+        // WHEN
+        postService.deletePost(post.getId(), user);
+
+        // THEN
+        verify(categoryService).adjustPublishedPostCount(category.getId(), -1);
+        verify(tagService).adjustPublishedPostCount(Set.of(tag.getId()), -1);
+        verify(postRepository).delete(post);
+        verify(eventPublisher).publishEvent(new PostDeletedEvent(post.getId()));
     }
 
     @Test
     public void deletePost_whenPostDoesNotExist_throwException() {
         // GIVEN
         UUID id = UUID.randomUUID();
+        User user = User.builder().id(UUID.randomUUID()).build();
 
-        when(postRepository.findById(id)).thenReturn(Optional.empty());
+        when(postRepository.findWithDetailsById(id)).thenReturn(Optional.empty());
 
         // WHEN & THEN
-        assertThrows(EntityNotFoundException.class, () -> postService.deletePost(id));
+        assertThrows(EntityNotFoundException.class, () -> postService.deletePost(id, user));
     }
 
-}
\ No newline at end of file
+
+    private static PostSummaryRow summaryRow(LocalDateTime createdAt, UUID categoryId) {
+        return new PostSummaryRow(UUID.randomUUID(), "title", "excerpt", 1, 120, createdAt, createdAt,
+                UUID.randomUUID(), "author", categoryId, "category", 1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.leon.blog.services;
+
+import com.leon.blog.repositories.PostStatsRepository;
+import com.leon.blog.services.impl.PostViewServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostViewServiceTest {
+
+    @Mock
+    private PostStatsRepository postStatsRepository;
+
+    @Mock
+    private TrendingPostService trendingPostService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostViewServiceImpl postViewService;
+
+    @BeforeEach
+    void setUp() {
+        postViewService = new PostViewServiceImpl(postStatsRepository, trendingPostService,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    public void flush_writeViewsCountedSinceLastFlushInOneBatchAndAddThemToStoredCount() {
+        // GIVEN
+        UUID popular = UUID.randomUUID();
+        UUID quiet = UUID.randomUUID();
+        postViewService.recordView(popular);
+        postViewService.recordView(popular);
+        postViewService.recordView(popular);
+        postViewService.recordView(quiet);
+        when(postStatsRepository.findViewCountByPostId(popular)).thenReturn(Optional.of(10L));
+
+        // WHEN
+        long beforeFlush = postViewService.getViewCount(popular);
+        postViewService.flush();
+        postViewService.flush();
+
+        // THEN
+        assertEquals(13, beforeFlush);
+        verify(postStatsRepository, times(1)).addViewCounts(Map.of(popular, 3L, quiet, 1L));
+        verifyNoMoreInteractions(ignoreStubs(postStatsRepository));
+        verify(trendingPostService, times(1)).recordViews(Map.of(popular, 3L, quiet, 1L));
+    }
+
+    @Test
+    public void flush_whenWriteFails_keepViewsForTheNextFlush() {
+        // GIVEN
+        UUID postId = UUID.randomUUID();
+        postViewService.recordView(postId);
+        doThrow(new QueryTimeoutException("timeout")).doNothing()
+                .when(postStatsRepository).addViewCounts(any());
+
+        // WHEN
+        postViewService.flush();
+        postViewService.recordView(postId);
+        postViewService.flush();
+
+        // THEN
+        verify(postStatsRepository).addViewCounts(Map.of(postId, 2L));
+        verify(trendingPostService, times(1)).recordViews(any());
+        verify(trendingPostService).recordViews(Map.of(postId, 2L));
+    }
+
+    @Test
+    public void flush_whenViewsRaceFlushesThatDropIdleCounters_countEveryView() throws Exception {
+        // GIVEN
+        List<UUID> postIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        AtomicLong written = new AtomicLong();
+        doAnswer(invocation -> {
+            Map<UUID, Long> viewsByPost = invocation.getArgument(0);
+            viewsByPost.values().forEach(written::addAndGet);
+            return null;
+        }).when(postStatsRepository).addViewCounts(any());
+        int viewers = 4;
+        int viewsPerViewer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(viewers);
+
+        // WHEN
+        try {
+            List<Future<?>> viewing = new ArrayList<>();
+            for(int viewer = 0; viewer < viewers; viewer++) {
+                viewing.add(executor.submit(() -> {
+                    for(int i = 0; i < viewsPerViewer; i++) {
+                        postViewService.recordView(postIds.get(i % postIds.size()));
+                    }
+                }));
+            }
+            while(!viewing.stream().allMatch(Future::isDone)) {
+                postViewService.flush();
+            }
+            for(Future<?> viewer : viewing) {
+                viewer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        postViewService.flush();
+
+        // THEN
+        assertEquals((long) viewers * viewsPerViewer, written.get());
+    }
+}
@@ -2,20 +2,28 @@ package com.leon.blog.services;
 
 import com.leon.blog.domain.entities.Post;
 import com.leon.blog.domain.entities.Tag;
+import com.leon.blog.domain.events.TagsChangedEvent;
+import com.leon.blog.domain.projections.TagPostCount;
 import com.leon.blog.repositories.TagRepository;
+import com.leon.blog.search.TagPrefixIndex;
 import com.leon.blog.services.impl.TagServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +33,12 @@ public class TagServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Spy
+    private CacheManager cacheManager = new NoOpCacheManager();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -54,11 +68,36 @@ public class TagServiceTest {
 
         verify(tagRepository).findByNameIn(requestedNames);
         verify(tagRepository).saveAll(anyList());
+        verify(eventPublisher).publishEvent(any(TagsChangedEvent.class));
+    }
+
+    @Test
+    public void suggestTags_afterRefresh_serveFromIndexWithoutRepository() {
+        // GIVEN
+        List<TagPostCount> tags = List.of(
+                new TagPrefixIndex.Suggestion(UUID.randomUUID(), "java", 5L),
+                new TagPrefixIndex.Suggestion(UUID.randomUUID(), "javascript", 9L),
+                new TagPrefixIndex.Suggestion(UUID.randomUUID(), "spring", 20L));
+        when(tagRepository.findAllWithPostCount()).thenReturn(tags);
+        tagService.onTagsChanged(new TagsChangedEvent());
 
+        // WHEN
+        List<TagPostCount> result = tagService.suggestTags("Jav", null);
+
+        // THEN
+        assertThat(result).extracting(TagPostCount::getName).containsExactly("javascript", "java");
+        verify(tagRepository, times(1)).findAllWithPostCount();
+    }
+
+    @Test
+    public void suggestTags_whenLimitOutOfRange_throwException() {
+        // WHEN & THEN
+        assertThrows(IllegalArgumentException.class, () -> tagService.suggestTags("java", 0));
+        assertThrows(IllegalArgumentException.class, () -> tagService.suggestTags("java", 51));
     }
 
     @Test
-    public void getTagById_whenExists() {
+    public void getTagReference_whenExists() {
         // GIVEN
         UUID id = UUID.randomUUID();
 
@@ -67,7 +106,7 @@ public class TagServiceTest {
         when(tagRepository.findById(id)).thenReturn(Optional.of(tag));
 
         // WHEN
-        Tag foundTag = tagService.getTagById(id);
+        Tag foundTag = tagService.getTagReference(id);
 
         // THEN
         assertThat(foundTag.getId()).isEqualTo(id);
@@ -75,18 +114,18 @@ public class TagServiceTest {
     }
 
     @Test
-    public void getTagById_whenDoesNotExists() {
+    public void getTagReference_whenDoesNotExists() {
         // GIVEN
         UUID id = UUID.randomUUID();
 
         when(tagRepository.findById(id)).thenReturn(Optional.empty());
 
         // WHEN & THEN
-        assertThrows(EntityNotFoundException.class, () -> tagService.getTagById(id));
+        assertThrows(EntityNotFoundException.class, () -> tagService.getTagReference(id));
     }
 
     @Test
-    public void getTagByIds_whenAllTagsExists_returnListOfTags() {
+    public void getTagReferences_whenAllTagsExists_returnListOfTags() {
         // GIVEN
         Tag tag1 = Tag.builder().id(UUID.randomUUID()).name("good").build();
         Tag tag2 = Tag.builder().id(UUID.randomUUID()).name("bad").build();
@@ -95,21 +134,21 @@ public class TagServiceTest {
         when(tagRepository.findAllById(ids)).thenReturn(List.of(tag1, tag2));
 
         // WHEN
-        List<Tag> result = tagService.getTagByIds(ids);
+        List<Tag> result = tagService.getTagReferences(ids);
 
         // THEN
         assertThat(result.size()).isEqualTo(ids.size());
     }
 
     @Test
-    public void getTagByIds_whenTagNotExists_throwException() {
+    public void getTagReferences_whenTagNotExists_throwException() {
         // GIVEN
         Set<UUID> ids = Set.of(UUID.randomUUID(), UUID.randomUUID());
 
         when(tagRepository.findAllById(ids)).thenReturn(anyList());
 
         // WHEN & THEN
-        assertThrows(EntityNotFoundException.class, () -> tagService.getTagByIds(ids));
+        assertThrows(EntityNotFoundException.class, () -> tagService.getTagReferences(ids));
     }
 
     @Test
@@ -140,6 +179,7 @@ public class TagServiceTest {
 
         // THEN
         verify(tagRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(any(TagsChangedEvent.class));
     }
 
     @Test
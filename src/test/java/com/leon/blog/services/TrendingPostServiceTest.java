@@ -0,0 +1,168 @@
+package com.leon.blog.services;
+
+import com.leon.blog.domain.PostStatus;
+import com.leon.blog.domain.entities.Post;
+import com.leon.blog.domain.entities.TrendingPostScore;
+import com.leon.blog.domain.events.PostDeletedEvent;
+import com.leon.blog.domain.events.PostSavedEvent;
+import com.leon.blog.ranking.DecayingTopK.ScoredItem;
+import com.leon.blog.repositories.PostRepository;
+import com.leon.blog.repositories.TrendingPostScoreRepository;
+import com.leon.blog.services.impl.TrendingPostServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TrendingPostServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TrendingPostScoreRepository trendingPostScoreRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrendingPostServiceImpl trendingPostService;
+
+    @BeforeEach
+    void setUp() {
+        trendingPostService = new TrendingPostServiceImpl(postRepository, trendingPostScoreRepository,
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.invokeMethod(trendingPostService, "createRanking");
+    }
+
+    @Test
+    public void getTrendingPosts_rankByViewsAndPublicationAndFillInForPostsNoLongerPublished() {
+        // GIVEN
+        Post popular = post(PostStatus.PUBLISHED);
+        Post fresh = post(PostStatus.PUBLISHED);
+        Post draft = post(PostStatus.DRAFT);
+        Post deleted = post(PostStatus.PUBLISHED);
+        trendingPostService.onPostSaved(event(fresh));
+        trendingPostService.onPostSaved(event(popular));
+        trendingPostService.recordViews(Map.of(popular.getId(), 20L, draft.getId(), 15L));
+        trendingPostService.onPostSaved(event(deleted));
+        trendingPostService.onPostDeleted(new PostDeletedEvent(deleted.getId()));
+        when(postRepository.findAllByIdIn(List.of(popular.getId(), draft.getId()))).thenReturn(List.of(draft, popular));
+        when(postRepository.findAllByIdIn(List.of(fresh.getId()))).thenReturn(List.of(fresh));
+        when(postRepository.findAllByIdIn(List.of(popular.getId(), fresh.getId()))).thenReturn(List.of(fresh, popular));
+
+        // WHEN
+        List<Post> trending = trendingPostService.getTrendingPosts(2);
+        List<Post> trendingAgain = trendingPostService.getTrendingPosts(2);
+
+        // THEN
+        assertEquals(List.of(popular, fresh), trending);
+        assertEquals(List.of(popular, fresh), trendingAgain);
+        verify(postRepository, times(3)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    public void onPostSaved_boostOnlyWhenPostBecomesPublished() {
+        // GIVEN
+        Post edited = post(PostStatus.PUBLISHED);
+        Post draft = post(PostStatus.DRAFT);
+        trendingPostService.onPostSaved(PostSavedEvent.of(draft));
+        draft.setStatus(PostStatus.PUBLISHED);
+        when(postRepository.findAllByIdIn(List.of(draft.getId()))).thenReturn(List.of(draft));
+
+        // WHEN
+        trendingPostService.onPostSaved(PostSavedEvent.of(edited, PostStatus.PUBLISHED));
+        trendingPostService.onPostSaved(PostSavedEvent.of(draft, PostStatus.DRAFT));
+
+        // THEN
+        assertEquals(List.of(draft), trendingPostService.getTrendingPosts(null));
+    }
+
+    @Test
+    public void getTrendingPosts_whenLimitOutOfRange_throwIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trendingPostService.getTrendingPosts(0));
+        assertThrows(IllegalArgumentException.class, () -> trendingPostService.getTrendingPosts(51));
+    }
+
+    @Test
+    public void snapshot_mergeOnlyScoreGainedSinceLastSnapshotThenRankByMergedScores() {
+        // GIVEN
+        Post restored = post(PostStatus.PUBLISHED);
+        Post viewed = post(PostStatus.PUBLISHED);
+        Post viewedElsewhere = post(PostStatus.PUBLISHED);
+        Instant scoredAt = Instant.now().minusSeconds(60);
+        when(trendingPostScoreRepository.findTopByPostStatus(PostStatus.PUBLISHED, 86400, Limit.of(1000)))
+                .thenReturn(List.of(score(restored, 8, scoredAt)))
+                .thenReturn(List.of(score(restored, 8, scoredAt), score(viewed, 3, scoredAt),
+                        score(viewedElsewhere, 20, scoredAt)));
+        when(postRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(restored, viewed, viewedElsewhere));
+
+        // WHEN
+        trendingPostService.restore();
+        trendingPostService.recordViews(Map.of(viewed.getId(), 3L));
+        trendingPostService.snapshot();
+        trendingPostService.snapshot();
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ScoredItem>> merged = ArgumentCaptor.forClass(List.class);
+        verify(trendingPostScoreRepository, times(2)).mergeScores(merged.capture(), any(), any());
+        assertEquals(List.of(viewed.getId()), merged.getAllValues().get(0).stream().map(ScoredItem::id).toList());
+        assertEquals(3, merged.getAllValues().get(0).get(0).score(), 0.01);
+        assertEquals(List.of(), merged.getAllValues().get(1));
+        verify(trendingPostScoreRepository, times(2)).deleteScoredBefore(any());
+        assertEquals(List.of(viewedElsewhere, restored, viewed), trendingPostService.getTrendingPosts(null));
+        verify(postRepository, never()).findNewest(any(), any());
+    }
+
+    @Test
+    public void snapshot_whenMergeFails_keepGainedScoreForNextSnapshot() {
+        // GIVEN
+        UUID postId = UUID.randomUUID();
+        trendingPostService.recordViews(Map.of(postId, 1L));
+        doThrow(new IllegalStateException("Database unavailable"))
+                .doNothing()
+                .when(trendingPostScoreRepository).mergeScores(anyList(), any(), any());
+
+        // WHEN
+        trendingPostService.snapshot();
+        trendingPostService.snapshot();
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ScoredItem>> merged = ArgumentCaptor.forClass(List.class);
+        verify(trendingPostScoreRepository, times(2)).mergeScores(merged.capture(), any(), any());
+        assertEquals(List.of(postId), merged.getAllValues().get(1).stream().map(ScoredItem::id).toList());
+        assertEquals(1, merged.getAllValues().get(1).get(0).score(), 0.01);
+    }
+
+    private static TrendingPostScore score(Post post, double score, Instant scoredAt) {
+        return TrendingPostScore.builder().postId(post.getId()).score(score).scoredAt(scoredAt).build();
+    }
+
+    private static Post post(PostStatus status) {
+        return Post.builder().id(UUID.randomUUID()).title("Post").status(status).build();
+    }
+
+    private static PostSavedEvent event(Post post) {
+        return PostSavedEvent.of(post);
+    }
+}
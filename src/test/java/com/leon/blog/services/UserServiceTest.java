@@ -20,7 +20,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -65,6 +65,21 @@ public class UserServiceTest {
         assertThrows(EntityNotFoundException.class, () -> userService.getUserById(user.getId()));
     }
 
+    @Test
+    public void getUserReference_returnReferenceWithoutQuery() {
+        // GIVEN
+        User user = User.builder().id(UUID.randomUUID()).build();
+
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        // WHEN
+        User reference = userService.getUserReference(user.getId());
+
+        // THEN
+        assertEquals(user.getId(), reference.getId());
+        verify(userRepository, never()).findById(user.getId());
+    }
+
     @Test
     public void register_whenEmailAlreadyExists_throwException() {
         // GIVEN